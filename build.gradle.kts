@@ -79,6 +79,11 @@ java {
     targetCompatibility = JavaVersion.VERSION_1_9
 }
 
+// Runtime classpath for the headless benchmarks: the test runtime plus Monocle and the JUnit console launcher
+val benchmarkRuntime: Configuration = configurations.create("benchmarkRuntime") {
+    extendsFrom(configurations["testRuntimeClasspath"])
+}
+
 dependencies {
     fun openjfx(name: String, version: String = "11") =
             create(group = "org.openjfx", name = name, version = version, classifier = openjfxPlatform)
@@ -110,6 +115,10 @@ dependencies {
     //testCompile(testFx(name = "testfx-junit5"))
     // See https://github.com/TestFX/Monocle/issues/61
     //testRuntime(testFx(name = "openjfx-monocle", version = "jdk-11+23")) // Can't use - no module name and the JVM-derived one is invalid (openjfx.monocle.jdk.11.23)
+
+    // The benchmark task runs on the classpath, so Monocle's invalid module name isn't a problem there
+    benchmarkRuntime(create(group = "org.testfx", name = "openjfx-monocle", version = "jdk-11+26"))
+    benchmarkRuntime(create(group = "org.junit.platform", name = "junit-platform-console", version = "1.3.0"))
 }
 
 tasks.withType<Jar> {
@@ -146,6 +155,18 @@ fun List<Open>.toJvmArgs(): List<String> {
     }
 }
 
+// The benchmarks sample allocations with the management MXBeans. Only the tests need them, so the module is made to
+// read them when compiling and running the tests instead of requiring them in module-info.java
+val testModules: List<String> = listOf("java.management", "jdk.management")
+val testModuleArgs: List<String> = listOf(
+        "--add-modules", testModules.joinToString(","),
+        "--add-reads", "edu.wpi.first.desktop=${testModules.joinToString(",")}"
+)
+
+tasks.getByName<JavaCompile>("compileTestJava") {
+    options.compilerArgs.addAll(testModuleArgs)
+}
+
 tasks.withType<Test> {
     dependsOn(copyTestResources)
     useJUnitPlatform {
@@ -159,12 +180,44 @@ tasks.withType<Test> {
         exceptionFormat = TestExceptionFormat.FULL
     }
     val opens: List<Open> = listOf(
+            Open.toJunit("edu.wpi.first.desktop.component"),
             Open.toJunit("edu.wpi.first.desktop.plugin"),
+            Open.toJunit("edu.wpi.first.desktop.property"),
+            Open.toJunit("edu.wpi.first.desktop.settings"),
             Open.toJunit("edu.wpi.first.desktop.theme"),
+            Open.toJunit("edu.wpi.first.desktop.util"),
             Open("javafx.graphics", "com.sun.javafx.application", "org.testfx"),
             Open("javafx.graphics", "javafx.application", "edu.wpi.first.desktop")
     )
-    jvmArgs = opens.toJvmArgs()
+    jvmArgs = opens.toJvmArgs() + testModuleArgs
+}
+
+tasks.getByName<Test>("test") {
+    useJUnitPlatform {
+        excludeTags("Benchmark")
+    }
+}
+
+// Chainsaw runs every Test task on the module path, where Monocle cannot be used, so the benchmarks are run with the
+// JUnit console launcher on a plain classpath instead
+task<JavaExec>("benchmark") {
+    description = "Runs the benchmarks headlessly using Monocle. Results are printed to standard output."
+    group = "verification"
+    dependsOn("testClasses", copyTestResources)
+    classpath = java.sourceSets["test"].output + java.sourceSets["main"].output + benchmarkRuntime
+    main = "org.junit.platform.console.ConsoleLauncher"
+    args = listOf(
+            "--scan-classpath", java.sourceSets["test"].output.classesDirs.asPath,
+            "--include-classname", ".*Benchmark",
+            "--include-tag", "Benchmark",
+            "--details", "tree"
+    )
+    // The classpath reads every module, so the benchmarks only need the management modules to be resolved
+    jvmArgs = listOf("--add-modules", testModules.joinToString(","))
+    systemProperty("glass.platform", "Monocle")
+    systemProperty("monocle.platform", "Headless")
+    systemProperty("prism.order", "sw")
+    outputs.upToDateWhen { false }
 }
 
 tasks.withType<Javadoc> {
@@ -0,0 +1,153 @@
+package edu.wpi.first.desktop.component;
+
+import org.controlsfx.control.PropertySheet;
+import org.controlsfx.property.editor.PropertyEditor;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.util.Callback;
+
+/**
+ * A property editor factory that creates editors based on the type of the item being edited. Editor constructors are
+ * registered for types, and an item is edited by the constructor registered for the closest supertype of its type:
+ * the type itself, then its superclasses and interfaces, nearest first. Items with types that have no registered
+ * constructor are passed to a fallback factory.
+ *
+ * <p>The constructor for each type is only looked up once, and then cached until the next time a constructor is
+ * registered or unregistered, so creating editors for many items of the same type only costs a map lookup per item.</p>
+ *
+ * <p>This class is thread-safe. Constructors will normally be registered once at startup, for example by plugins
+ * registering editors for their own types:</p>
+ * <pre>{@code
+ * SettingsSheet.EDITORS.register(Theme.class, item -> new ThemePropertyEditor(myThemeContainer, item));
+ * }</pre>
+ */
+public final class PropertyEditorRegistry implements Callback<PropertySheet.Item, PropertyEditor<?>> {
+
+  private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+      boolean.class, Boolean.class,
+      byte.class, Byte.class,
+      char.class, Character.class,
+      short.class, Short.class,
+      int.class, Integer.class,
+      long.class, Long.class,
+      float.class, Float.class,
+      double.class, Double.class
+  );
+
+  private final Map<Class<?>, Callback<PropertySheet.Item, PropertyEditor<?>>> constructors =
+      new ConcurrentHashMap<>();
+  private final Callback<PropertySheet.Item, PropertyEditor<?>> fallback;
+
+  // Replaced whenever the registered constructors change, since a registration can change the result for any subtype
+  private volatile ClassValue<Optional<Callback<PropertySheet.Item, PropertyEditor<?>>>> cache = newCache();
+
+  /**
+   * Creates a new registry with no registered constructors.
+   *
+   * @param fallback the factory to use for items with types that have no registered constructor. This may return
+   *                 null if it cannot create an editor for an item
+   */
+  public PropertyEditorRegistry(Callback<PropertySheet.Item, PropertyEditor<?>> fallback) {
+    this.fallback = Objects.requireNonNull(fallback, "fallback");
+  }
+
+  /**
+   * Registers the constructor to use for editing items of a type and its subtypes. This replaces any constructor that
+   * was already registered for the type.
+   *
+   * @param type        the type of items to create editors for
+   * @param constructor the function to use to create editors for items of the type
+   */
+  public void register(Class<?> type, Callback<PropertySheet.Item, PropertyEditor<?>> constructor) {
+    Objects.requireNonNull(type, "type");
+    Objects.requireNonNull(constructor, "constructor");
+    constructors.put(wrap(type), constructor);
+    cache = newCache();
+  }
+
+  /**
+   * Unregisters the constructor for a type. Items of the type will be edited by the constructor for the next closest
+   * supertype instead.
+   *
+   * @param type the type to unregister the constructor for
+   */
+  public void unregister(Class<?> type) {
+    Objects.requireNonNull(type, "type");
+    if (constructors.remove(wrap(type)) != null) {
+      cache = newCache();
+    }
+  }
+
+  /**
+   * Gets the constructor that will be used for items of a type. This does not include the fallback factory.
+   *
+   * @param type the type to get the constructor for
+   *
+   * @return the constructor for the type, or an empty optional if no constructor is registered for the type or any of
+   *         its supertypes
+   */
+  public Optional<Callback<PropertySheet.Item, PropertyEditor<?>>> lookup(Class<?> type) {
+    Objects.requireNonNull(type, "type");
+    return cache.get(wrap(type));
+  }
+
+  @Override
+  public PropertyEditor<?> call(PropertySheet.Item item) {
+    Class<?> type = item.getType();
+    if (type != null) {
+      Optional<Callback<PropertySheet.Item, PropertyEditor<?>>> constructor = lookup(type);
+      if (constructor.isPresent()) {
+        return constructor.get().call(item);
+      }
+    }
+    return fallback.call(item);
+  }
+
+  private ClassValue<Optional<Callback<PropertySheet.Item, PropertyEditor<?>>>> newCache() {
+    return new ClassValue<>() {
+      @Override
+      protected Optional<Callback<PropertySheet.Item, PropertyEditor<?>>> computeValue(Class<?> type) {
+        return Optional.ofNullable(resolve(type));
+      }
+    };
+  }
+
+  /**
+   * Finds the constructor for the closest supertype of a type, searching breadth-first so that direct supertypes are
+   * preferred over more distant ones, and superclasses over interfaces at the same distance.
+   */
+  private Callback<PropertySheet.Item, PropertyEditor<?>> resolve(Class<?> type) {
+    Queue<Class<?>> queue = new ArrayDeque<>();
+    Set<Class<?>> visited = new HashSet<>();
+    queue.add(type);
+    while (!queue.isEmpty()) {
+      Class<?> next = queue.remove();
+      if (!visited.add(next)) {
+        continue;
+      }
+      Callback<PropertySheet.Item, PropertyEditor<?>> constructor = constructors.get(next);
+      if (constructor != null) {
+        return constructor;
+      }
+      if (next.getSuperclass() != null) {
+        queue.add(next.getSuperclass());
+      }
+      for (Class<?> iface : next.getInterfaces()) {
+        queue.add(iface);
+      }
+    }
+    return null;
+  }
+
+  private static Class<?> wrap(Class<?> type) {
+    return type.isPrimitive() ? WRAPPERS.getOrDefault(type, type) : type;
+  }
+}
@@ -21,57 +21,39 @@ import javafx.util.Callback;
 /**
  * A version of {@link PropertySheet} that has better support for editing numbers (using {@link NumberField} and
  * {@link IntegerField} for doubles and integers, respectively) and booleans (using {@link ToggleSwitch}).
- * If additional editors are required for application-specific types,
- * {@link #setPropertyEditorFactory set the property editor factory} that performs checking for the type and does
- * fallthrough to {@link #DEFAULT_EDITOR_FACTORY the default editor factory}. For example, adding an editor to select
+ * If additional editors are required for application-specific types, register them with {@link #EDITORS}. Editors
+ * registered for a type are also used for its subtypes. For example, adding an editor to select
  * {@link edu.wpi.first.desktop.theme.Theme Themes}:
  * <pre>{@code
  * ThemeContainer myThemeContainer = ...
- * SettingsSheet settingsSheet = ...
- * settingsSheet.setPropertyEditorFactory(item -> {
- *   if (item.getType() == Theme.class) {
- *     return new ThemePropertyEditor(myThemeContainer, item);
- *   } else {
- *     return SettingsSheet.DEFAULT_EDITOR_FACTORY.call(item);
- *   }
- * });
+ * SettingsSheet.EDITORS.register(Theme.class, item -> new ThemePropertyEditor(myThemeContainer, item));
  * }</pre>
  */
 public final class SettingsSheet extends PropertySheet {
 
   /**
-   * The default factory for settings editors. This handles text editors, integers, floating-point numbers, and
-   * booleans.
+   * The registry of editors used by the default editor factory. This handles text editors, integers, floating-point
+   * numbers, and booleans, and falls back to the editors built into {@link PropertySheet} for other types.
    */
-  public static final Callback<Item, PropertyEditor<?>> DEFAULT_EDITOR_FACTORY = new DefaultPropertyEditorFactory() {
-    @Override
-    public PropertyEditor<?> call(Item item) {
-      if (item.getType() == String.class) {
-        return new DebouncedTextPropertyEditor(item);
-      }
-      if (isIntegerType(item)) {
-        return new IntegerPropertyEditor(item);
-      }
-      if (isNumericType(item)) {
-        return new NumberPropertyEditor(item);
-      }
-      if (item.getType() == Boolean.class) {
-        return new ToggleSwitchEditor(item);
-      }
-      return super.call(item);
-    }
+  public static final PropertyEditorRegistry EDITORS = createDefaultRegistry();
 
-    private boolean isIntegerType(Item item) {
-      return item.getType() == Integer.class
-          || item.getType() == Long.class
-          || item.getType() == Byte.class
-          || item.getType() == Short.class;
-    }
+  /**
+   * The default factory for settings editors. This creates editors using the editors registered with
+   * {@link #EDITORS}.
+   */
+  public static final Callback<Item, PropertyEditor<?>> DEFAULT_EDITOR_FACTORY = EDITORS;
 
-    private boolean isNumericType(Item item) {
-      return Number.class.isAssignableFrom(item.getType());
-    }
-  };
+  private static PropertyEditorRegistry createDefaultRegistry() {
+    PropertyEditorRegistry registry = new PropertyEditorRegistry(new DefaultPropertyEditorFactory());
+    registry.register(String.class, DebouncedTextPropertyEditor::new);
+    registry.register(Integer.class, IntegerPropertyEditor::new);
+    registry.register(Long.class, IntegerPropertyEditor::new);
+    registry.register(Byte.class, IntegerPropertyEditor::new);
+    registry.register(Short.class, IntegerPropertyEditor::new);
+    registry.register(Number.class, NumberPropertyEditor::new);
+    registry.register(Boolean.class, ToggleSwitchEditor::new);
+    return registry;
+  }
 
   /**
    * Creates an empty property sheet.
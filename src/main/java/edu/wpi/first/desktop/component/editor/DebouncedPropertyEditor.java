@@ -3,19 +3,26 @@ package edu.wpi.first.desktop.component.editor;
 import edu.wpi.first.desktop.property.FlushableProperty;
 import edu.wpi.first.desktop.util.Debouncer;
 import edu.wpi.first.desktop.util.FxUtils;
-import edu.wpi.first.desktop.util.TypeUtils;
 
 import org.controlsfx.control.PropertySheet;
 import org.controlsfx.property.editor.AbstractPropertyEditor;
 
 import java.time.Duration;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.css.PseudoClass;
 import javafx.scene.control.Control;
 
 /**
  * A property editor that will debounce user inputs (for example, when typing in text) for an item backed by
  * a {@link FlushableProperty}.
  *
+ * <p>While a flushed value is waiting to be applied to the backing property, the editor control has the
+ * {@code :flush-pending} pseudo-class; if applying the value failed, it has the {@code :flush-failed} pseudo-class.
+ * These are only seen when the property is flushed in the background with a
+ * {@link FlushableProperty#setFlushExecutor(java.util.concurrent.Executor) flush executor}.</p>
+ *
  * @param <T> the type of the data in the editor
  * @param <C> the type of the node to use to edit the property
  */
@@ -26,17 +33,32 @@ public abstract class DebouncedPropertyEditor<T, C extends Control> extends Abst
    */
   public static final Duration DEFAULT_DEBOUNCE_DELAY = Duration.ofMillis(250);
 
+  private static final PseudoClass FLUSH_PENDING = PseudoClass.getPseudoClass("flush-pending");
+  private static final PseudoClass FLUSH_FAILED = PseudoClass.getPseudoClass("flush-failed");
+
+  // Strong reference to the weak listener's delegate so the property does not keep discarded editors alive
+  private ChangeListener<FlushableProperty.FlushState> flushStateListener;
+
   protected DebouncedPropertyEditor(PropertySheet.Item property, C control, Duration debounceDelay) {
     super(property, control);
     property.getObservableValue()
-        .flatMap(TypeUtils.optionalCast(FlushableProperty.class))
+        .filter(FlushableProperty.class::isInstance)
+        .map(value -> (FlushableProperty<?>) value)
         .ifPresent(flushable -> {
           Debouncer debouncer = new Debouncer(() -> FxUtils.runOnFxThread(flushable::flush), debounceDelay);
           getObservableValue().addListener((__, oldValue, newValue) -> debouncer.run());
+          flushStateListener = (__, oldState, state) -> showFlushState(state);
+          flushable.flushStateProperty().addListener(new WeakChangeListener<>(flushStateListener));
+          showFlushState(flushable.getFlushState());
         });
   }
 
   protected DebouncedPropertyEditor(PropertySheet.Item property, C control) {
     this(property, control, DEFAULT_DEBOUNCE_DELAY);
   }
+
+  private void showFlushState(FlushableProperty.FlushState state) {
+    getEditor().pseudoClassStateChanged(FLUSH_PENDING, state == FlushableProperty.FlushState.PENDING);
+    getEditor().pseudoClassStateChanged(FLUSH_FAILED, state == FlushableProperty.FlushState.FAILED);
+  }
 }
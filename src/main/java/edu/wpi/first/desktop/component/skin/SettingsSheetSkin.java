@@ -8,24 +8,25 @@ import org.controlsfx.property.editor.AbstractPropertyEditor;
 import org.controlsfx.property.editor.PropertyEditor;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
-import javafx.beans.InvalidationListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.Separator;
 import javafx.scene.control.SkinBase;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
-import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
@@ -35,186 +36,359 @@ import javafx.scene.layout.VBox;
 /**
  * Custom skin for {@link SettingsSheet}. This is very similar to the default skin, but has a different display
  * for {@link PropertySheet.Mode#CATEGORY} that displays categories with static headings instead of an accordion pane.
+ *
+ * <p>Rows are virtualized: labels and editors are only created for rows that are scrolled into view, and row cells are
+ * reused while scrolling. Editors for rows that have been scrolled out of view are cached up to a fixed limit so
+ * scrolling back does not recreate them. This keeps memory use and the time to show the sheet proportional to the
+ * size of the viewport instead of the number of items.</p>
+ *
+ * <p>Items that are added to the end of the sheet or removed from it are handled incrementally: only the affected rows
+ * and group headings are inserted or removed, and the editors for all other items are kept. Any other change to the
+ * items, or a change to the mode or title filter, rebuilds the list of rows, but still reuses existing editors.</p>
  */
 @SuppressWarnings("JavadocMethod")
 public final class SettingsSheetSkin extends SkinBase<SettingsSheet> {
 
   /* Not private to avoid generated accessor methods */
   public static final double MIN_COLUMN_WIDTH = 100;
-  private final BorderPane content = new BorderPane();
-  private final ScrollPane scrollPane = new ScrollPane();
+
+  /**
+   * The maximum number of editors to keep for items that are not currently visible.
+   */
+  private static final int MAX_CACHED_EDITORS = 128;
+
+  private final ListView<Row> rows = new ListView<>();
+
+  // Rows currently in the list, for incremental updates
+  private final Map<PropertySheet.Item, Row> itemRows = new HashMap<>();
+  private final Map<String, Row> headerRows = new HashMap<>();
+
+  // Lowercase item names, so filtering doesn't convert every name on every keystroke
+  private final Map<PropertySheet.Item, String> filterNames = new HashMap<>();
+
+  // Access-ordered so the least recently displayed editors are evicted first
+  private final Map<PropertySheet.Item, Node> editors =
+      new LinkedHashMap<PropertySheet.Item, Node>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PropertySheet.Item, Node> eldest) {
+          return size() > MAX_CACHED_EDITORS;
+        }
+      };
 
   public SettingsSheetSkin(SettingsSheet skinnable) {
     super(skinnable);
-    scrollPane.setFitToWidth(true);
-    content.setCenter(scrollPane);
-    getChildren().add(content);
+    rows.getStyleClass().add("settings-list");
+    rows.setCellFactory(__ -> new SettingsRowCell());
+    rows.setFocusTraversable(false);
+    getChildren().add(rows);
 
-    skinnable.getItems().addListener((InvalidationListener) observable -> update());
+    skinnable.getItems().addListener(this::itemsChanged);
     skinnable.modeProperty().addListener(__ -> update());
-    skinnable.propertyEditorFactory().addListener(__ -> update());
+    skinnable.titleFilter().addListener(__ -> update());
+    skinnable.propertyEditorFactory().addListener(__ -> {
+      editors.clear();
+      rows.refresh();
+    });
 
     update();
   }
 
   @Override
   protected void layoutChildren(double x, double y, double w, double h) {
-    content.resizeRelocate(x, y, w, h);
+    rows.resizeRelocate(x, y, w, h);
   }
 
   private void update() {
-    scrollPane.setContent(createPropertySheetContainer());
+    rows.getItems().setAll(createRows());
   }
 
-  private Node createPropertySheetContainer() {
+  /**
+   * Creates the rows to display. This is cheap, since no editors are created until a row is actually displayed.
+   */
+  private List<Row> createRows() {
+    itemRows.clear();
+    headerRows.clear();
+    String filter = getFilter();
+    List<Row> rowList = new ArrayList<>();
     switch (getSkinnable().getMode()) {
       case CATEGORY:
-        VBox container = new VBox();
-        container.setSpacing(5);
-        container.setFillWidth(true);
         Map<String, List<PropertySheet.Item>> categories = new LinkedHashMap<>();
         for (PropertySheet.Item item : getSkinnable().getItems()) {
-          categories.computeIfAbsent(item.getCategory(), __ -> new ArrayList<>()).add(item);
+          if (matches(item, filter)) {
+            categories.computeIfAbsent(item.getCategory(), __ -> new ArrayList<>()).add(item);
+          }
         }
-        int[] row = {0};
-        PropertyPane pane = new PropertyPane(Collections.emptyList());
         categories.forEach((group, items) -> {
-          Label label = new Label(group);
-          label.getStyleClass().add("h5");
-          VBox box = new VBox(label, new Separator());
-          GridPane.setMargin(box, new Insets(15, 0, 0, 0));
-          box.setFillWidth(true);
-          pane.add(box, 0, row[0], 2, 1);
-          row[0]++;
+          Row header = Row.header(group);
+          headerRows.put(group, header);
+          rowList.add(header);
           for (PropertySheet.Item item : items) {
-            addEditorForItem(pane, row[0], item);
-            row[0]++;
+            rowList.add(createItemRow(item));
           }
         });
-        container.getChildren().add(pane);
-        return container;
+        break;
       case NAME:
         // Fallthrough to sort by name, with no group headings
       default:
-        return new PropertyPane(getSkinnable().getItems());
+        for (PropertySheet.Item item : getSkinnable().getItems()) {
+          if (matches(item, filter)) {
+            rowList.add(createItemRow(item));
+          }
+        }
+        break;
     }
+    // Don't hold on to editors for items that are no longer in the sheet
+    Set<PropertySheet.Item> current = new HashSet<>(getSkinnable().getItems());
+    editors.keySet().retainAll(current);
+    filterNames.keySet().retainAll(current);
+    return rowList;
   }
 
-  private static void addEditorForItem(PropertyPane propertyPane, int row, PropertySheet.Item item) {
-    // setup property label
-    Label label = new Label(item.getName());
-    label.setMinWidth(MIN_COLUMN_WIDTH);
-    GridPane.setMargin(label, new Insets(0, 0, 0, 15));
+  private Row createItemRow(PropertySheet.Item item) {
+    Row row = Row.item(item);
+    itemRows.put(item, row);
+    return row;
+  }
 
-    // show description as a tooltip
-    String description = item.getDescription();
-    if (description != null && !description.chars().allMatch(Character::isWhitespace)) {
-      label.setTooltip(new Tooltip(description));
+  private void itemsChanged(ListChangeListener.Change<? extends PropertySheet.Item> change) {
+    List<PropertySheet.Item> items = getSkinnable().getItems();
+    if (items.isEmpty()) {
+      // Cleared; no need to remove rows one at a time
+      update();
+      return;
     }
+    while (change.next()) {
+      if (change.wasPermutated() || change.wasUpdated()) {
+        update();
+        return;
+      }
+      for (PropertySheet.Item removed : change.getRemoved()) {
+        removeRow(removed);
+      }
+      if (change.wasAdded()) {
+        if (change.getTo() != items.size()) {
+          // Only appends can be handled incrementally without searching for where each row belongs
+          update();
+          return;
+        }
+        String filter = getFilter();
+        for (PropertySheet.Item added : change.getAddedSubList()) {
+          if (matches(added, filter)) {
+            appendRow(added);
+          }
+        }
+      }
+    }
+  }
+
+  private void removeRow(PropertySheet.Item item) {
+    Row row = itemRows.remove(item);
+    editors.remove(item);
+    filterNames.remove(item);
+    if (row == null) {
+      return;
+    }
+    List<Row> rowList = rows.getItems();
+    int index = rowList.indexOf(row);
+    rowList.remove(index);
+    if (getSkinnable().getMode() == PropertySheet.Mode.CATEGORY) {
+      // Remove the group heading if this was the last item in the group
+      boolean groupEmpty = index > 0
+          && rowList.get(index - 1).isHeader()
+          && (index == rowList.size() || rowList.get(index).isHeader());
+      if (groupEmpty) {
+        rowList.remove(index - 1);
+        headerRows.remove(item.getCategory());
+      }
+    }
+  }
+
+  private void appendRow(PropertySheet.Item item) {
+    List<Row> rowList = rows.getItems();
+    Row row = createItemRow(item);
+    if (getSkinnable().getMode() != PropertySheet.Mode.CATEGORY) {
+      rowList.add(row);
+      return;
+    }
+    String group = item.getCategory();
+    Row header = headerRows.get(group);
+    if (header == null) {
+      header = Row.header(group);
+      headerRows.put(group, header);
+      rowList.addAll(List.of(header, row));
+      return;
+    }
+    // Insert after the last row in the group
+    int index = rowList.indexOf(header) + 1;
+    while (index < rowList.size() && !rowList.get(index).isHeader()) {
+      index++;
+    }
+    rowList.add(index, row);
+  }
 
-    propertyPane.add(label, 0, row);
+  private String getFilter() {
+    String filter = getSkinnable().titleFilter().get();
+    return filter == null ? "" : filter.trim().toLowerCase(Locale.getDefault());
+  }
 
-    // setup property editor
-    Node editor = propertyPane.getEditor(item);
+  private boolean matches(PropertySheet.Item item, String filter) {
+    return filter.isEmpty()
+        || filterNames.computeIfAbsent(item, i -> i.getName().toLowerCase(Locale.getDefault())).contains(filter);
+  }
 
-    if (editor instanceof Region && !(editor instanceof ToggleSwitch)) {
-      ((Region) editor).setMinWidth(MIN_COLUMN_WIDTH);
-      ((Region) editor).setMaxWidth(Double.MAX_VALUE);
+  private Node getEditorNode(PropertySheet.Item item) {
+    Node editor = editors.get(item);
+    if (editor == null) {
+      editor = createEditor(item);
+      editors.put(item, editor);
     }
-    label.setLabelFor(editor);
-    propertyPane.add(editor, 1, row);
+    return editor;
+  }
 
-    if (!(editor instanceof ToggleSwitch)) {
+  @SuppressWarnings("unchecked")
+  private Node createEditor(PropertySheet.Item item) {
+    PropertyEditor editor = getSkinnable().getPropertyEditorFactory().call(item);
+    if (editor == null) {
+      editor = new DefaultEditor(item);
+    } else if (!item.isEditable()) {
+      editor.getEditor().setDisable(true);
+    }
+    editor.setValue(item.getValue());
+    Node node = editor.getEditor();
+    if (node instanceof Region && !(node instanceof ToggleSwitch)) {
+      ((Region) node).setMinWidth(MIN_COLUMN_WIDTH);
+      ((Region) node).setMaxWidth(Double.MAX_VALUE);
+    }
+    if (!(node instanceof ToggleSwitch)) {
       // Toggle switches with HGrow set are placed to the far right of the pane, putting them very far
       // away from the name of the item they edit.
-      GridPane.setHgrow(editor, Priority.ALWAYS);
+      GridPane.setHgrow(node, Priority.ALWAYS);
     }
+    return node;
   }
 
-  @SuppressWarnings("PMD.DefaultPackage")
-  private final class PropertyPane extends GridPane {
+  /**
+   * A single row in the sheet. A row is either a group heading or an item.
+   */
+  private static final class Row {
 
-    PropertyPane(Collection<PropertySheet.Item> properties) {
-      this(properties, 0);
-    }
+    final String header;
+    final PropertySheet.Item item;
 
-    PropertyPane(Collection<PropertySheet.Item> properties, int nestingLevel) {
-      setVgap(5);
-      setHgap(5);
-      setPadding(new Insets(5, 15, 5, 15 + nestingLevel * 10));
-      getStyleClass().add("property-pane");
-      setItems(properties);
-      getColumnConstraints().addAll(
-          new ColumnConstraints(MIN_COLUMN_WIDTH, MIN_COLUMN_WIDTH * 1.5, Double.MAX_VALUE),
-          new ColumnConstraints(MIN_COLUMN_WIDTH, MIN_COLUMN_WIDTH, Double.MAX_VALUE)
-      );
-      setMinWidth(MIN_COLUMN_WIDTH * 2.1);
-      setPrefWidth(MIN_COLUMN_WIDTH * 2.6);
+    private Row(String header, PropertySheet.Item item) {
+      this.header = header;
+      this.item = item;
     }
 
-    void setItems(Collection<PropertySheet.Item> properties) {
-      getChildren().clear();
+    static Row header(String header) {
+      return new Row(header, null);
+    }
 
-      String filter = getSkinnable().titleFilter().get();
-      filter = filter == null ? "" : filter.trim().toLowerCase(Locale.getDefault());
+    static Row item(PropertySheet.Item item) {
+      return new Row(null, item);
+    }
 
-      int row = 0;
+    boolean isHeader() {
+      return header != null;
+    }
+  }
 
-      for (PropertySheet.Item item : properties) {
+  /**
+   * A reusable cell for a single row. Each cell only ever has one header and one item layout, which are reused
+   * whenever the cell is given a new row.
+   */
+  private final class SettingsRowCell extends ListCell<Row> {
+
+    private final Label headerLabel = new Label();
+    private final VBox headerBox = new VBox(headerLabel, new Separator());
+    private final Label nameLabel = new Label();
+    private final GridPane itemPane = new GridPane();
+
+    SettingsRowCell() {
+      getStyleClass().add("settings-row");
+      headerLabel.getStyleClass().add("h5");
+      headerBox.setFillWidth(true);
+      headerBox.setPadding(new Insets(15, 15, 0, 15));
+
+      nameLabel.setMinWidth(MIN_COLUMN_WIDTH);
+      GridPane.setMargin(nameLabel, new Insets(0, 0, 0, 15));
+      itemPane.getStyleClass().add("property-pane");
+      itemPane.setHgap(5);
+      itemPane.setPadding(new Insets(0, 15, 0, 15));
+      // Rows are laid out independently, so the label column has a fixed preferred width to keep editors aligned
+      ColumnConstraints labelColumn = new ColumnConstraints(MIN_COLUMN_WIDTH, MIN_COLUMN_WIDTH * 1.5, Double.MAX_VALUE);
+      labelColumn.setHgrow(Priority.NEVER);
+      itemPane.getColumnConstraints().addAll(
+          labelColumn,
+          new ColumnConstraints(MIN_COLUMN_WIDTH, MIN_COLUMN_WIDTH, Double.MAX_VALUE)
+      );
+      itemPane.setMinWidth(MIN_COLUMN_WIDTH * 2.1);
+      itemPane.setPrefWidth(MIN_COLUMN_WIDTH * 2.6);
 
-        // filter properties
-        String title = item.getName();
+      setText(null);
+    }
 
-        if (!filter.isEmpty() && !title.toLowerCase(Locale.getDefault()).contains(filter)) {
-          continue;
-        }
+    @Override
+    protected void updateItem(Row row, boolean empty) {
+      super.updateItem(row, empty);
+      if (empty || row == null) {
+        itemPane.getChildren().clear();
+        setGraphic(null);
+      } else if (row.isHeader()) {
+        itemPane.getChildren().clear();
+        headerLabel.setText(row.header);
+        setGraphic(headerBox);
+      } else {
+        showItem(row.item);
+        setGraphic(itemPane);
+      }
+    }
 
-        addEditorForItem(this, row, item);
+    private void showItem(PropertySheet.Item item) {
+      nameLabel.setText(item.getName());
 
-        row++;
+      // show description as a tooltip
+      String description = item.getDescription();
+      if (description != null && !description.chars().allMatch(Character::isWhitespace)) {
+        nameLabel.setTooltip(new Tooltip(description));
+      } else {
+        nameLabel.setTooltip(null);
       }
 
+      Node editor = getEditorNode(item);
+      nameLabel.setLabelFor(editor);
+      GridPane.setConstraints(nameLabel, 0, 0);
+      GridPane.setConstraints(editor, 1, 0);
+      itemPane.getChildren().setAll(nameLabel, editor);
     }
+  }
 
-    @SuppressWarnings("unchecked")
-    Node getEditor(PropertySheet.Item item) {
-      PropertyEditor editor = getSkinnable().getPropertyEditorFactory().call(item);
-      if (editor == null) {
-        editor = new DefaultEditor(item);
-      } else if (!item.isEditable()) {
-        editor.getEditor().setDisable(true);
-      }
-      editor.setValue(item.getValue());
-      return editor.getEditor();
+  /**
+   * The default editor for properties whose types do not have an editor provided by the property sheet's
+   * {@link PropertySheet#propertyEditorFactory() editor factory}. This editor is read-only.
+   */
+  private static final class DefaultEditor extends AbstractPropertyEditor<Object, TextField> {
+
+    DefaultEditor(PropertySheet.Item item) {
+      super(item, new TextField(), true);
+      getEditor().setEditable(false);
+      getEditor().setDisable(true);
     }
 
     /**
-     * The default editor for properties whose types do not have an editor provided by the property sheet's
-     * {@link PropertySheet#propertyEditorFactory() editor factory}. This editor is read-only.
+     * {@inheritDoc}
      */
-    private class DefaultEditor extends AbstractPropertyEditor<Object, TextField> {
-
-      DefaultEditor(PropertySheet.Item item) {
-        super(item, new TextField(), true);
-        getEditor().setEditable(false);
-        getEditor().setDisable(true);
-      }
-
-      /**
-       * {@inheritDoc}
-       */
-      @Override
-      protected ObservableValue<Object> getObservableValue() {
-        return (ObservableValue) getEditor().textProperty();
-      }
+    @Override
+    protected ObservableValue<Object> getObservableValue() {
+      return (ObservableValue) getEditor().textProperty();
+    }
 
-      /**
-       * {@inheritDoc}
-       */
-      @Override
-      public void setValue(Object value) {
-        getEditor().setText(value == null ? "" : value.toString()); //$NON-NLS-1$
-      }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setValue(Object value) {
+      getEditor().setText(value == null ? "" : value.toString()); //$NON-NLS-1$
     }
   }
 }
@@ -1,17 +1,69 @@
 package edu.wpi.first.desktop.property;
 
+import edu.wpi.first.desktop.util.FxUtils;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
 import javafx.beans.property.Property;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleObjectProperty;
 
 /**
  * A {@link Property} that can be flushed.
  *
+ * <p>By default, flushing sets the value of the backing property immediately, on the thread that called
+ * {@link #flush()}, so any listeners on the backing property also run on that thread. If the listeners do slow work
+ * like writing to disk or reconfiguring a network connection, a {@link #setFlushExecutor(Executor) flush executor}
+ * can be set so that they run in the background instead. Flushes in the background are coalesced: if the property is
+ * flushed several times before the executor gets to it, only the latest value is set on the backing property.</p>
+ *
+ * <p>The progress of flushes is available from {@link #getFlushState()}, or from {@link #flushStateProperty()} for
+ * use in the UI.</p>
+ *
  * @param <T> the type of value in this item
  */
 public class FlushableProperty<T> extends SimpleObjectProperty<T> {
 
+  /**
+   * The states of flushes to the backing property.
+   */
+  public enum FlushState {
+    /**
+     * The property has never been flushed.
+     */
+    IDLE,
+    /**
+     * A value has been flushed, but has not been set on the backing property yet.
+     */
+    PENDING,
+    /**
+     * The most recently flushed value has been set on the backing property.
+     */
+    COMPLETED,
+    /**
+     * Setting the most recently flushed value on the backing property failed.
+     */
+    FAILED
+  }
+
   private final Property<T> property;
 
+  private volatile Executor flushExecutor;
+  private final AtomicReference<Pending<T>> latest = new AtomicReference<>();
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  private final AtomicLong requestedFlushes = new AtomicLong();
+  private volatile long completedFlushes = 0;
+  private volatile Throwable flushFailure;
+
+  // Only created when requested, so properties that nobody watches never post state updates to the FX thread
+  private volatile ReadOnlyObjectWrapper<FlushState> flushState;
+
   /**
    * Create a new FlushableProperty.
    *
@@ -22,11 +74,157 @@ public class FlushableProperty<T> extends SimpleObjectProperty<T> {
     this.property = property;
   }
 
+  /**
+   * Gets the property that this property flushes to.
+   */
+  public Property<T> getFlushTarget() {
+    return property;
+  }
+
   public boolean isChanged() {
-    return !property.getValue().equals(getValue());
+    return !Objects.equals(property.getValue(), getValue());
   }
 
+  /**
+   * Flushes the current value of this property to the backing property. If a flush executor is set, the value is set
+   * on the backing property by that executor and this method returns immediately; otherwise, the value is set before
+   * this method returns.
+   *
+   * @throws RejectedExecutionException if the flush executor did not accept the flush
+   */
   public void flush() {
-    property.setValue(getValue());
+    long flush = requestedFlushes.incrementAndGet();
+    Executor executor = flushExecutor;
+    if (executor == null) {
+      try {
+        property.setValue(getValue());
+        flushFailure = null;
+      } catch (RuntimeException e) {
+        flushFailure = e;
+        throw e;
+      } finally {
+        completedFlushes = flush;
+        fireFlushStateChanged();
+      }
+      return;
+    }
+    latest.set(new Pending<>(getValue(), flush));
+    fireFlushStateChanged();
+    if (draining.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        draining.set(false);
+        Pending<T> rejected = latest.getAndSet(null);
+        if (rejected != null) {
+          flushFailure = e;
+          completedFlushes = rejected.flush;
+          fireFlushStateChanged();
+        }
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Sets the latest flushed value on the backing property, until there are no more flushed values. Only one drain
+   * runs at a time.
+   */
+  private void drain() {
+    do {
+      Pending<T> pending;
+      while ((pending = latest.getAndSet(null)) != null) {
+        try {
+          property.setValue(pending.value);
+          flushFailure = null;
+        } catch (RuntimeException e) {
+          flushFailure = e;
+          Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+        completedFlushes = pending.flush;
+        fireFlushStateChanged();
+      }
+      draining.set(false);
+      // A value may have been flushed after the queue was emptied but before the drain ended; that flush would not
+      // have started a new drain, so pick it up here
+    } while (latest.get() != null && draining.compareAndSet(false, true));
+  }
+
+  /**
+   * Sets the executor to use to set flushed values on the backing property. Listeners on the backing property will
+   * run on this executor. If this is null, values are set immediately when flushed.
+   *
+   * @param flushExecutor the executor to flush values with, or null to flush synchronously
+   */
+  public void setFlushExecutor(Executor flushExecutor) {
+    this.flushExecutor = flushExecutor;
+  }
+
+  public Executor getFlushExecutor() {
+    return flushExecutor;
+  }
+
+  /**
+   * Checks if a flushed value has not been set on the backing property yet. This may be called from any thread.
+   */
+  public boolean isFlushPending() {
+    return completedFlushes < requestedFlushes.get();
+  }
+
+  /**
+   * Gets the state of the most recent flush. This may be called from any thread.
+   */
+  public FlushState getFlushState() {
+    long requested = requestedFlushes.get();
+    long completed = completedFlushes;
+    if (requested == 0) {
+      return FlushState.IDLE;
+    } else if (completed < requested) {
+      return FlushState.PENDING;
+    } else if (flushFailure != null) {
+      return FlushState.FAILED;
+    } else {
+      return FlushState.COMPLETED;
+    }
+  }
+
+  /**
+   * Gets the error thrown when the most recently completed flush failed, or null if it succeeded.
+   */
+  public Throwable getFlushFailure() {
+    return flushFailure;
+  }
+
+  /**
+   * The state of the most recent flush. This is always updated on the JavaFX application thread, so it can be used to
+   * show when a change has been applied.
+   */
+  public ReadOnlyObjectProperty<FlushState> flushStateProperty() {
+    if (flushState == null) {
+      synchronized (this) {
+        if (flushState == null) {
+          flushState = new ReadOnlyObjectWrapper<>(this, "flushState", getFlushState());
+        }
+      }
+    }
+    return flushState.getReadOnlyProperty();
+  }
+
+  private void fireFlushStateChanged() {
+    ReadOnlyObjectWrapper<FlushState> state = flushState;
+    if (state != null) {
+      // Read the state when the update runs, so updates that arrive out of order still end on the latest state
+      FxUtils.runOnFxThread(() -> state.set(getFlushState()));
+    }
+  }
+
+  private static final class Pending<T> {
+    private final T value;
+    private final long flush;
+
+    Pending(T value, long flush) {
+      this.value = value;
+      this.flush = flush;
+    }
   }
 }
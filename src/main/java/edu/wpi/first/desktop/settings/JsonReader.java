@@ -0,0 +1,320 @@
+package edu.wpi.first.desktop.settings;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+/**
+ * Reads JSON from a stream one token at a time, without building a tree of the whole document. Only as much of the
+ * stream as is needed for the next token is read.
+ *
+ * <p>Numbers are read as {@link BigDecimal BigDecimals} so that no precision is lost before they are converted to the
+ * type that is actually needed.</p>
+ */
+final class JsonReader {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader in;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int position = 0;
+  private int limit = 0;
+  private int line = 1;
+  private int column = 1;
+
+  // Whether the next member or element of the current container (and each enclosing one) needs a comma before it
+  private final Deque<Boolean> needsComma = new ArrayDeque<>();
+
+  /**
+   * The kinds of values that can be read.
+   */
+  enum Kind {
+    OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL
+  }
+
+  JsonReader(Reader in) {
+    this.in = in;
+  }
+
+  void beginObject() throws IOException {
+    expect('{');
+    needsComma.push(false);
+  }
+
+  void endObject() throws IOException {
+    expect('}');
+    needsComma.pop();
+    afterValue();
+  }
+
+  /**
+   * Checks if the current object or array has another member or element, consuming the comma before it if there is
+   * one.
+   */
+  boolean hasNext() throws IOException {
+    char c = peekNonWhitespace();
+    if (c == '}' || c == ']') {
+      return false;
+    }
+    if (needsComma.peek()) {
+      expect(',');
+    }
+    return true;
+  }
+
+  String nextName() throws IOException {
+    String name = readString();
+    expect(':');
+    return name;
+  }
+
+  /**
+   * Peeks at the kind of the next value without consuming it.
+   */
+  Kind peek() throws IOException {
+    char c = peekNonWhitespace();
+    switch (c) {
+      case '{':
+        return Kind.OBJECT;
+      case '[':
+        return Kind.ARRAY;
+      case '"':
+        return Kind.STRING;
+      case 't':
+      case 'f':
+        return Kind.BOOLEAN;
+      case 'n':
+        return Kind.NULL;
+      default:
+        if (c == '-' || (c >= '0' && c <= '9')) {
+          return Kind.NUMBER;
+        }
+        throw error("Unexpected character '" + c + "'");
+    }
+  }
+
+  /**
+   * Reads a string, number, boolean, or null value.
+   *
+   * @return a {@code String}, {@code BigDecimal}, {@code Boolean}, or null
+   */
+  Object nextScalar() throws IOException {
+    Kind kind = peek();
+    Object value;
+    switch (kind) {
+      case STRING:
+        value = readString();
+        break;
+      case NUMBER:
+        value = readNumber();
+        break;
+      case BOOLEAN:
+        value = readLiteral(peekNonWhitespace() == 't' ? "true" : "false") == 't';
+        break;
+      case NULL:
+        readLiteral("null");
+        value = null;
+        break;
+      default:
+        throw error("Expected a string, number, boolean, or null, but found "
+            + kind.name().toLowerCase(Locale.ROOT));
+    }
+    afterValue();
+    return value;
+  }
+
+  /**
+   * Skips the next value, including any nested objects or arrays.
+   */
+  void skipValue() throws IOException {
+    Kind kind = peek();
+    if (kind == Kind.OBJECT) {
+      beginObject();
+      while (hasNext()) {
+        nextName();
+        skipValue();
+      }
+      endObject();
+    } else if (kind == Kind.ARRAY) {
+      expect('[');
+      needsComma.push(false);
+      while (hasNext()) {
+        skipValue();
+      }
+      expect(']');
+      needsComma.pop();
+      afterValue();
+    } else {
+      nextScalar();
+    }
+  }
+
+  /**
+   * Checks that there is nothing but whitespace left in the stream.
+   */
+  void endDocument() throws IOException {
+    skipWhitespace();
+    if (fill()) {
+      throw error("Unexpected content after the end of the document");
+    }
+  }
+
+  private void afterValue() {
+    if (!needsComma.isEmpty()) {
+      needsComma.pop();
+      needsComma.push(true);
+    }
+  }
+
+  private String readString() throws IOException {
+    expect('"');
+    StringBuilder builder = new StringBuilder();
+    while (true) {
+      char c = next();
+      if (c == '"') {
+        return builder.toString();
+      } else if (c == '\\') {
+        char escaped = next();
+        switch (escaped) {
+          case '"':
+          case '\\':
+          case '/':
+            builder.append(escaped);
+            break;
+          case 'b':
+            builder.append('\b');
+            break;
+          case 'f':
+            builder.append('\f');
+            break;
+          case 'n':
+            builder.append('\n');
+            break;
+          case 'r':
+            builder.append('\r');
+            break;
+          case 't':
+            builder.append('\t');
+            break;
+          case 'u':
+            builder.append(readUnicodeEscape());
+            break;
+          default:
+            throw error("Invalid escape sequence '\\" + escaped + "'");
+        }
+      } else if (c < 0x20) {
+        throw error("Unescaped control character in string");
+      } else {
+        builder.append(c);
+      }
+    }
+  }
+
+  private char readUnicodeEscape() throws IOException {
+    int value = 0;
+    for (int i = 0; i < 4; i++) {
+      int digit = Character.digit(next(), 16);
+      if (digit < 0) {
+        throw error("Invalid unicode escape sequence");
+      }
+      value = value * 16 + digit;
+    }
+    return (char) value;
+  }
+
+  private BigDecimal readNumber() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    while (fill()) {
+      char c = buffer[position];
+      if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+        builder.append(next());
+      } else {
+        break;
+      }
+    }
+    try {
+      return new BigDecimal(builder.toString());
+    } catch (NumberFormatException e) {
+      throw error("Invalid number '" + builder + "'");
+    }
+  }
+
+  private char readLiteral(String literal) throws IOException {
+    skipWhitespace();
+    for (int i = 0; i < literal.length(); i++) {
+      if (next() != literal.charAt(i)) {
+        throw error("Expected '" + literal + "'");
+      }
+    }
+    return literal.charAt(0);
+  }
+
+  private void expect(char expected) throws IOException {
+    char c = peekNonWhitespace();
+    if (c != expected) {
+      throw error("Expected '" + expected + "' but found '" + c + "'");
+    }
+    next();
+  }
+
+  private char peekNonWhitespace() throws IOException {
+    skipWhitespace();
+    if (!fill()) {
+      throw error("Unexpected end of input");
+    }
+    return buffer[position];
+  }
+
+  private void skipWhitespace() throws IOException {
+    while (fill()) {
+      char c = buffer[position];
+      if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+        next();
+      } else {
+        return;
+      }
+    }
+  }
+
+  private char next() throws IOException {
+    if (!fill()) {
+      throw error("Unexpected end of input");
+    }
+    char c = buffer[position++];
+    if (c == '\n') {
+      line++;
+      column = 1;
+    } else {
+      column++;
+    }
+    return c;
+  }
+
+  /**
+   * Makes sure there is at least one character in the buffer.
+   *
+   * @return false if the end of the stream has been reached
+   */
+  private boolean fill() throws IOException {
+    if (position < limit) {
+      return true;
+    }
+    int read = in.read(buffer, 0, buffer.length);
+    if (read <= 0) {
+      return false;
+    }
+    position = 0;
+    limit = read;
+    return true;
+  }
+
+  /**
+   * Creates an exception for malformed input at the current position.
+   */
+  IOException error(String message) {
+    return new IOException(message + " at line " + line + ", column " + column);
+  }
+}
@@ -0,0 +1,126 @@
+package edu.wpi.first.desktop.settings;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes JSON to a stream one token at a time. Output is indented with two spaces per level. Only the features needed
+ * for settings files are supported: objects, strings, numbers, booleans, and nulls.
+ */
+final class JsonWriter {
+
+  private final Writer out;
+
+  // Whether the current object (and each enclosing object) has had a member written to it yet
+  private final Deque<Boolean> hasMembers = new ArrayDeque<>();
+  private boolean afterName = false;
+
+  JsonWriter(Writer out) {
+    this.out = out;
+  }
+
+  void beginObject() throws IOException {
+    beforeValue();
+    out.write('{');
+    hasMembers.push(false);
+  }
+
+  void endObject() throws IOException {
+    boolean members = hasMembers.pop();
+    if (members) {
+      newline();
+    }
+    out.write('}');
+  }
+
+  void name(String name) throws IOException {
+    if (hasMembers.peek()) {
+      out.write(',');
+    }
+    hasMembers.pop();
+    hasMembers.push(true);
+    newline();
+    string(name);
+    out.write(": ");
+    afterName = true;
+  }
+
+  void value(String value) throws IOException {
+    if (value == null) {
+      nullValue();
+      return;
+    }
+    beforeValue();
+    string(value);
+  }
+
+  void value(boolean value) throws IOException {
+    beforeValue();
+    out.write(value ? "true" : "false");
+  }
+
+  /**
+   * Writes a finite number.
+   */
+  void value(Number value) throws IOException {
+    beforeValue();
+    out.write(value.toString());
+  }
+
+  void nullValue() throws IOException {
+    beforeValue();
+    out.write("null");
+  }
+
+  void flush() throws IOException {
+    out.flush();
+  }
+
+  private void beforeValue() {
+    if (!hasMembers.isEmpty() && !afterName) {
+      throw new IllegalStateException("Object members must have names");
+    }
+    afterName = false;
+  }
+
+  private void newline() throws IOException {
+    out.write('\n');
+    for (int i = 0; i < hasMembers.size(); i++) {
+      out.write("  ");
+    }
+  }
+
+  private void string(String value) throws IOException {
+    out.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          out.write("\\\"");
+          break;
+        case '\\':
+          out.write("\\\\");
+          break;
+        case '\n':
+          out.write("\\n");
+          break;
+        case '\r':
+          out.write("\\r");
+          break;
+        case '\t':
+          out.write("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            out.write(String.format("\\u%04x", (int) c));
+          } else {
+            out.write(c);
+          }
+          break;
+      }
+    }
+    out.write('"');
+  }
+}
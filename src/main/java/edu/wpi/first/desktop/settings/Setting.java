@@ -80,4 +80,22 @@ public class Setting<T> {
   public void setValue(T value) {
     property.setValue(value);
   }
+
+  /**
+   * Gets the type of the values of a setting. This is the type of a {@link #checked checked} setting, or the type of
+   * the setting's current value otherwise.
+   *
+   * @return the type of the setting, or null if the setting is unchecked and its value is null
+   */
+  static Class<?> typeOf(Setting<?> setting) {
+    if (setting instanceof CheckedSetting) {
+      return ((CheckedSetting<?>) setting).getType();
+    }
+    Object value = setting.getValue();
+    if (value instanceof Enum) {
+      // Constants with bodies are instances of anonymous subclasses
+      return ((Enum<?>) value).getDeclaringClass();
+    }
+    return value == null ? null : value.getClass();
+  }
 }
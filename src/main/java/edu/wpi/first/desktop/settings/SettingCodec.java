@@ -0,0 +1,163 @@
+package edu.wpi.first.desktop.settings;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Converts setting values to and from a compact binary form for a {@link SettingsStore}. Codecs are only responsible
+ * for non-null values; null values are handled by the store.
+ *
+ * @param <T> the type of values handled by the codec
+ */
+public interface SettingCodec<T> {
+
+  /**
+   * Writes a value.
+   *
+   * @param value the value to write. This will never be null
+   * @param out   the output to write to
+   *
+   * @throws IOException if the value could not be written
+   */
+  void write(T value, DataOutput out) throws IOException;
+
+  /**
+   * Reads a value written by {@link #write}.
+   *
+   * @param in the input to read from
+   *
+   * @return the read value
+   *
+   * @throws IOException if the value could not be read
+   */
+  T read(DataInput in) throws IOException;
+
+  // Not writeUTF, which cannot write strings longer than 65535 bytes
+  SettingCodec<String> STRING = of(SettingCodec::writeString, SettingCodec::readString);
+  SettingCodec<Boolean> BOOLEAN = of(DataOutput::writeBoolean, DataInput::readBoolean);
+  SettingCodec<Byte> BYTE = of((out, value) -> out.writeByte(value), DataInput::readByte);
+  SettingCodec<Short> SHORT = of((out, value) -> out.writeShort(value), DataInput::readShort);
+  SettingCodec<Integer> INTEGER = of(DataOutput::writeInt, DataInput::readInt);
+  SettingCodec<Long> LONG = of(DataOutput::writeLong, DataInput::readLong);
+  SettingCodec<Float> FLOAT = of(DataOutput::writeFloat, DataInput::readFloat);
+  SettingCodec<Double> DOUBLE = of(DataOutput::writeDouble, DataInput::readDouble);
+
+  /**
+   * Creates a codec from a pair of functions.
+   *
+   * @param writer the function to use to write values
+   * @param reader the function to use to read values
+   * @param <T>    the type of values handled by the codec
+   *
+   * @return a new codec
+   */
+  static <T> SettingCodec<T> of(Writer<? super T> writer, Reader<? extends T> reader) {
+    Objects.requireNonNull(writer, "writer");
+    Objects.requireNonNull(reader, "reader");
+    return new SettingCodec<>() {
+      @Override
+      public void write(T value, DataOutput out) throws IOException {
+        writer.write(out, value);
+      }
+
+      @Override
+      public T read(DataInput in) throws IOException {
+        return reader.read(in);
+      }
+    };
+  }
+
+  private static void writeString(DataOutput out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("Negative string length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates a codec for an enum type. Constants are stored by name so that reordering them does not change stored
+   * values.
+   *
+   * @param type the enum type
+   * @param <E>  the enum type
+   *
+   * @return a new codec
+   */
+  static <E extends Enum<E>> SettingCodec<E> forEnum(Class<E> type) {
+    return of((out, value) -> out.writeUTF(value.name()), in -> Enum.valueOf(type, in.readUTF()));
+  }
+
+  /**
+   * Gets the built-in codec for a type. Strings, primitive wrappers, and enums are supported.
+   *
+   * @param type the type to get the codec for
+   * @param <T>  the type of values
+   *
+   * @return the codec for the type
+   *
+   * @throws IllegalArgumentException if there is no built-in codec for the type
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static <T> SettingCodec<T> forType(Class<T> type) {
+    if (type.isEnum()) {
+      return (SettingCodec<T>) forEnum((Class) type);
+    }
+    SettingCodec<?> codec = Builtins.CODECS.get(type);
+    if (codec == null) {
+      throw new IllegalArgumentException("No built-in codec for " + type.getName());
+    }
+    return (SettingCodec<T>) codec;
+  }
+
+  /**
+   * Writes a value to a data output.
+   *
+   * @param <T> the type of values to write
+   */
+  @FunctionalInterface
+  interface Writer<T> {
+    void write(DataOutput out, T value) throws IOException;
+  }
+
+  /**
+   * Reads a value from a data input.
+   *
+   * @param <T> the type of values to read
+   */
+  @FunctionalInterface
+  interface Reader<T> {
+    T read(DataInput in) throws IOException;
+  }
+
+  /**
+   * Holds the built-in codecs. This is a separate class so the map is not a public constant of the interface.
+   */
+  final class Builtins {
+    static final Map<Class<?>, SettingCodec<?>> CODECS = Map.of(
+        String.class, STRING,
+        Boolean.class, BOOLEAN,
+        Byte.class, BYTE,
+        Short.class, SHORT,
+        Integer.class, INTEGER,
+        Long.class, LONG,
+        Float.class, FLOAT,
+        Double.class, DOUBLE
+    );
+
+    private Builtins() {
+    }
+  }
+}
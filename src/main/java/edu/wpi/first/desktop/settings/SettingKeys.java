@@ -0,0 +1,37 @@
+package edu.wpi.first.desktop.settings;
+
+import edu.wpi.first.desktop.util.UtilityClass;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Builds the keys that identify settings within a tree of categories. A setting's key is made from the names of its
+ * categories, its group, and the setting itself, separated by slashes; for example, a setting "Port" in a group
+ * "Connection" in a category "Network" has the key {@code "Network/Connection/Port"}.
+ */
+final class SettingKeys extends UtilityClass {
+
+  private SettingKeys() {
+  }
+
+  /**
+   * Performs an action for every setting in a category and its subcategories.
+   *
+   * @param category the category to walk
+   * @param action   the action to perform for each setting, given the setting's key and the setting itself
+   */
+  static void forEach(Category category, BiConsumer<String, Setting<?>> action) {
+    forEach(category.getName() + '/', category, action);
+  }
+
+  private static void forEach(String prefix, Category category, BiConsumer<String, Setting<?>> action) {
+    for (Group group : category.getGroups()) {
+      for (Setting<?> setting : group.getSettings()) {
+        action.accept(prefix + group.getName() + '/' + setting.getName(), setting);
+      }
+    }
+    for (Category subcategory : category.getSubcategories()) {
+      forEach(prefix + subcategory.getName() + '/', subcategory, action);
+    }
+  }
+}
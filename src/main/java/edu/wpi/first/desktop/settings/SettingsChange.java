@@ -0,0 +1,88 @@
+package edu.wpi.first.desktop.settings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A set of settings that were changed together by a {@link SettingsTransaction}. Consumers that react to settings
+ * changes with expensive work, such as rebuilding a layout or reconnecting to a server, can listen for these instead
+ * of listening to each setting's property so that they only react once no matter how many settings changed.
+ */
+public final class SettingsChange {
+
+  private final List<String> keys;
+  private final List<Setting<?>> settingList;
+
+  SettingsChange(List<String> keys, List<Setting<?>> settings) {
+    this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+    this.settingList = Collections.unmodifiableList(new ArrayList<>(settings));
+  }
+
+  /**
+   * Gets the keys of the changed settings, in the order in which they were changed. Keys are made from the names of
+   * settings, which need not be unique, so the same key may appear more than once.
+   *
+   * @see SettingsTransaction#add(String, Setting)
+   */
+  public List<String> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Gets the changed settings, in the order in which they were changed.
+   */
+  public List<Setting<?>> getSettings() {
+    return settingList;
+  }
+
+  /**
+   * Gets the setting that changed with the given key. If more than one changed setting has the key, the first one to
+   * change is returned.
+   *
+   * @param key the key of the setting to get
+   *
+   * @return the changed setting, or null if no setting with that key changed
+   */
+  public Setting<?> getSetting(String key) {
+    int index = keys.indexOf(key);
+    return index < 0 ? null : settingList.get(index);
+  }
+
+  /**
+   * Checks if the setting with the given key changed.
+   *
+   * @param key the key to check
+   */
+  public boolean contains(String key) {
+    return keys.contains(key);
+  }
+
+  /**
+   * Checks if a setting changed.
+   *
+   * @param setting the setting to check
+   */
+  public boolean contains(Setting<?> setting) {
+    Objects.requireNonNull(setting, "setting");
+    for (Setting<?> changed : settingList) {
+      if (changed == setting) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if no settings changed.
+   */
+  public boolean isEmpty() {
+    return keys.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "SettingsChange" + keys;
+  }
+}
@@ -1,40 +1,89 @@
 package edu.wpi.first.desktop.settings;
 
 import edu.wpi.first.desktop.component.SettingsSheet;
-import edu.wpi.first.desktop.property.FlushableProperty;
-import edu.wpi.first.desktop.util.TypeUtils;
+import edu.wpi.first.desktop.component.skin.SettingsSheetSkin;
 
 import org.controlsfx.control.PropertySheet;
 import org.controlsfx.property.editor.PropertyEditor;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.SplitPane;
+import javafx.scene.control.TextField;
 import javafx.scene.control.TreeCell;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Screen;
 import javafx.stage.StageStyle;
 import javafx.util.Callback;
 
+/**
+ * A dialog for editing settings. Categories are displayed in a tree; selecting a category displays a page with the
+ * settings for that category.
+ *
+ * <p>Pages are only built the first time their category is selected, and the most recently viewed pages are kept so
+ * that switching back to them does not rebuild their editors. The page after the selected one is built in the
+ * background so it is ready if the user moves on to it.</p>
+ *
+ * <p>A search box above the category tree searches the names and descriptions of every setting in every category,
+ * as well as the names of their groups and categories. Choosing a search result jumps to the category containing
+ * that setting.</p>
+ */
 public final class SettingsDialog extends Dialog<Boolean> {
 
+  /**
+   * The maximum number of category pages to keep after they have been viewed.
+   */
+  private static final int MAX_CACHED_PAGES = 16;
+
   private final TreeItem<Category> rootItem = new TreeItem<>();
   private final TreeView<Category> categories = new TreeView<>(rootItem);
+  private final TextField searchField = new TextField();
+  private final VBox sidebar = new VBox(searchField, categories);
   private final StackPane view = new StackPane();
-  private final SplitPane root = new SplitPane(categories, view);
+  private final SplitPane root = new SplitPane(sidebar, view);
+  private final ListView<SettingsIndex.Result> searchResults = new ListView<>();
 
-  private final SettingsSheet settingsSheet = new SettingsSheet();
+  private final Map<Category, TreeItem<Category>> categoryItems = new HashMap<>();
+  private SettingsIndex searchIndex = SettingsIndex.of(List.of());
+
+  private final ObjectProperty<Callback<PropertySheet.Item, PropertyEditor<?>>> propertyEditorFactory =
+      new SimpleObjectProperty<>(this, "propertyEditorFactory", SettingsSheet.DEFAULT_EDITOR_FACTORY);
+
+  private final ReadOnlyObjectWrapper<SettingsChange> appliedChanges =
+      new ReadOnlyObjectWrapper<>(this, "appliedChanges", null);
+
+  // Access-ordered so the least recently viewed pages are evicted first
+  private final Map<Category, SettingsSheet> pages = new LinkedHashMap<Category, SettingsSheet>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Category, SettingsSheet> eldest) {
+      if (size() > MAX_CACHED_PAGES) {
+        releasePage(eldest.getValue());
+        return true;
+      }
+      return false;
+    }
+  };
 
   public SettingsDialog() {
     initialize();
@@ -64,7 +113,10 @@ public final class SettingsDialog extends Dialog<Boolean> {
       return cell;
     });
     categories.getSelectionModel().selectedItemProperty().addListener((__, old, item) -> {
-      setViewForCategory(item.getValue());
+      if (item != null) {
+        setViewForCategory(item.getValue());
+        prebuildNextPage();
+      }
     });
 
     rootItem.getChildren().addListener((InvalidationListener) __ -> {
@@ -74,6 +126,26 @@ public final class SettingsDialog extends Dialog<Boolean> {
       }
     });
 
+    searchField.setPromptText("Search settings");
+    searchField.getStyleClass().add("settings-search");
+    searchField.textProperty().addListener((__, old, query) -> search(query));
+    searchField.setOnKeyPressed(e -> {
+      if (e.getCode() == KeyCode.ENTER && !searchResults.getItems().isEmpty()) {
+        showSearchResult(searchResults.getItems().get(0));
+      } else if (e.getCode() == KeyCode.ESCAPE) {
+        searchField.clear();
+        e.consume();
+      }
+    });
+    searchResults.getStyleClass().add("settings-search-results");
+    searchResults.setOnMouseClicked(e -> {
+      SettingsIndex.Result result = searchResults.getSelectionModel().getSelectedItem();
+      if (result != null) {
+        showSearchResult(result);
+      }
+    });
+    VBox.setVgrow(categories, Priority.ALWAYS);
+
     categories.setMinWidth(180);
     view.setMinWidth(340);
     getDialogPane().setContent(root);
@@ -94,7 +166,7 @@ public final class SettingsDialog extends Dialog<Boolean> {
   }
 
   public ObjectProperty<Callback<PropertySheet.Item, PropertyEditor<?>>> propertyEditorFactoryProperty() {
-    return settingsSheet.propertyEditorFactory();
+    return propertyEditorFactory;
   }
 
   public void setPropertyEditorFactory(Callback<PropertySheet.Item, PropertyEditor<?>> propertyEditorFactory) {
@@ -109,9 +181,71 @@ public final class SettingsDialog extends Dialog<Boolean> {
     if (category.getGroups().isEmpty()) {
       view.getChildren().setAll(new Label("No settings for " + category.getName()));
     } else {
-      settingsSheet.getItems().clear();
-      settingsSheet.addCategory(category);
-      view.getChildren().setAll(settingsSheet);
+      view.getChildren().setAll(getPage(category));
+    }
+  }
+
+  private void search(String query) {
+    List<SettingsIndex.Result> results = searchIndex.search(query);
+    // Always replaced, so that pressing enter never jumps to a result of an earlier query
+    searchResults.getItems().setAll(results);
+    if (query == null || query.trim().isEmpty()) {
+      TreeItem<Category> selected = categories.getSelectionModel().getSelectedItem();
+      if (selected != null) {
+        setViewForCategory(selected.getValue());
+      }
+    } else if (results.isEmpty()) {
+      view.getChildren().setAll(new Label("No settings match '" + query.trim() + "'"));
+    } else {
+      view.getChildren().setAll(searchResults);
+    }
+  }
+
+  private void showSearchResult(SettingsIndex.Result result) {
+    TreeItem<Category> item = categoryItems.get(result.getCategory());
+    searchField.clear();
+    if (item != null) {
+      categories.getSelectionModel().select(item);
+      setViewForCategory(result.getCategory());
+    }
+  }
+
+  /**
+   * Gets the settings page for a category, building it if it has not been viewed recently.
+   */
+  private SettingsSheet getPage(Category category) {
+    return pages.computeIfAbsent(category, this::buildPage);
+  }
+
+  private SettingsSheet buildPage(Category category) {
+    SettingsSheet sheet = new SettingsSheet(category);
+    sheet.propertyEditorFactory().bind(propertyEditorFactory);
+    return sheet;
+  }
+
+  private static void releasePage(SettingsSheet page) {
+    // Unbind so the factory property doesn't keep evicted pages alive
+    page.propertyEditorFactory().unbind();
+  }
+
+  /**
+   * Builds the page after the currently selected one once the dialog is idle. The page is not in a scene yet, so its
+   * skin is created here; otherwise nothing but the items would be built until it is shown. The skin only creates
+   * editors for the rows that are visible, so those are still created on the first layout after the page is shown.
+   */
+  private void prebuildNextPage() {
+    int next = categories.getSelectionModel().getSelectedIndex() + 1;
+    TreeItem<Category> nextItem = categories.getTreeItem(next);
+    if (nextItem != null && !nextItem.getValue().getGroups().isEmpty()) {
+      Platform.runLater(() -> {
+        Category category = nextItem.getValue();
+        // Not getPage(), which would count as a view and keep an already cached page from being evicted
+        if (!pages.containsKey(category)) {
+          SettingsSheet sheet = buildPage(category);
+          sheet.setSkin(new SettingsSheetSkin(sheet));
+          pages.put(category, sheet);
+        }
+      });
     }
   }
 
@@ -122,9 +256,14 @@ public final class SettingsDialog extends Dialog<Boolean> {
    * @param rootCategories the root categories to display in the settings view
    */
   public void setRootCategories(List<Category> rootCategories) {
+    pages.values().forEach(SettingsDialog::releasePage);
+    pages.clear();
+    categoryItems.clear();
+    searchIndex = SettingsIndex.of(rootCategories);
     rootItem.getChildren().clear();
     for (Category rootCategory : rootCategories) {
       TreeItem<Category> item = new TreeItem<>(rootCategory);
+      categoryItems.put(rootCategory, item);
       addSubcategories(item);
       rootItem.getChildren().add(item);
     }
@@ -135,6 +274,7 @@ public final class SettingsDialog extends Dialog<Boolean> {
         .forEach(category -> {
           rootItem.setExpanded(true);
           TreeItem<Category> item = new TreeItem<>(category);
+          categoryItems.put(category, item);
           addSubcategories(item);
           rootItem.getChildren().add(item);
         });
@@ -143,22 +283,30 @@ public final class SettingsDialog extends Dialog<Boolean> {
   /**
    * Applies the user-made changes to the settings. Most editors update their respective properties immediately,
    * but those backed by flushable properties need to be manually updated using this method.
+   *
+   * <p>All changed settings are applied in a single {@link SettingsTransaction}. If any settings changed,
+   * {@link #appliedChangesProperty() appliedChanges} is then set to a change listing all of them.</p>
    */
   public void applySettings() {
-    applySettings(rootItem);
-  }
-
-  private void applySettings(TreeItem<Category> item) {
-    if (item.getValue() != null) {
-      item.getValue().getGroups()
-          .stream()
-          .map(Group::getSettings)
-          .flatMap(List::stream)
-          .map(Setting::getProperty)
-          .flatMap(TypeUtils.castStream(FlushableProperty.class))
-          .filter(FlushableProperty::isChanged)
-          .forEach(FlushableProperty::flush);
+    SettingsTransaction transaction = new SettingsTransaction();
+    for (TreeItem<Category> item : rootItem.getChildren()) {
+      transaction.addAll(item.getValue());
     }
-    item.getChildren().forEach(this::applySettings);
+    SettingsChange change = transaction.commit();
+    if (!change.isEmpty()) {
+      appliedChanges.set(change);
+    }
+  }
+
+  /**
+   * The settings changed by the most recent call to {@link #applySettings()} that changed any settings. Listeners on
+   * this property are notified once per application, after every changed setting has been updated.
+   */
+  public ReadOnlyObjectProperty<SettingsChange> appliedChangesProperty() {
+    return appliedChanges.getReadOnlyProperty();
+  }
+
+  public SettingsChange getAppliedChanges() {
+    return appliedChanges.get();
   }
 }
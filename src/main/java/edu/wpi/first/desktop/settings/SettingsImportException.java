@@ -0,0 +1,34 @@
+package edu.wpi.first.desktop.settings;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when imported settings have values that cannot be applied to the settings they are for. When this is thrown,
+ * none of the imported settings have been applied.
+ */
+public class SettingsImportException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final List<String> problems;
+
+  /**
+   * Creates a new settings import exception.
+   *
+   * @param problems descriptions of every imported value that could not be applied
+   */
+  public SettingsImportException(List<String> problems) {
+    super(problems.size() == 1 ? problems.get(0) : problems.size() + " settings could not be imported: " + problems);
+    this.problems = Collections.unmodifiableList(new ArrayList<>(problems));
+  }
+
+  /**
+   * Gets descriptions of every imported value that could not be applied.
+   */
+  public List<String> getProblems() {
+    return problems;
+  }
+}
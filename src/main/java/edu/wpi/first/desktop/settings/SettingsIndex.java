@@ -0,0 +1,207 @@
+package edu.wpi.first.desktop.settings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * A full-text search index over every setting in a tree of {@link Category categories}. The index is built once and
+ * covers the names and descriptions of settings, as well as the names of the groups and categories that contain them.
+ *
+ * <p>Queries are split into tokens, and a setting matches if every query token is a prefix of some word in one of the
+ * indexed fields. For example, {@code "rob addr"} matches a setting named "Address" in a group named "Robot
+ * Connection". Results are ranked so that matches on a setting's name come before matches on its group, category, or
+ * description.</p>
+ *
+ * <p>Indices are immutable, so a new index must be created if the categories change.</p>
+ */
+public final class SettingsIndex {
+
+  private static final int NAME_WEIGHT = 8;
+  private static final int GROUP_WEIGHT = 4;
+  private static final int CATEGORY_WEIGHT = 2;
+  private static final int DESCRIPTION_WEIGHT = 1;
+
+  private final List<Result> entries = new ArrayList<>();
+
+  // Maps each word to the best weight it has in each entry, keyed by entry index
+  private final NavigableMap<String, Map<Integer, Integer>> words = new TreeMap<>();
+
+  /**
+   * Creates a search index for a tree of categories, including all subcategories.
+   *
+   * @param rootCategories the root categories to index
+   *
+   * @return a new search index
+   */
+  public static SettingsIndex of(List<Category> rootCategories) {
+    SettingsIndex index = new SettingsIndex();
+    for (Category category : rootCategories) {
+      index.addCategory(category);
+    }
+    return index;
+  }
+
+  private SettingsIndex() {
+  }
+
+  private void addCategory(Category category) {
+    for (Group group : category.getGroups()) {
+      for (Setting<?> setting : group.getSettings()) {
+        int entry = entries.size();
+        entries.add(new Result(category, group, setting));
+        addWords(entry, setting.getName(), NAME_WEIGHT);
+        addWords(entry, group.getName(), GROUP_WEIGHT);
+        addWords(entry, category.getName(), CATEGORY_WEIGHT);
+        addWords(entry, setting.getDescription(), DESCRIPTION_WEIGHT);
+      }
+    }
+    for (Category subcategory : category.getSubcategories()) {
+      addCategory(subcategory);
+    }
+  }
+
+  private void addWords(int entry, String text, int weight) {
+    for (String word : tokenize(text)) {
+      words.computeIfAbsent(word, __ -> new HashMap<>()).merge(entry, weight, Math::max);
+    }
+  }
+
+  /**
+   * Splits text into lowercase words. Any character that is not a letter or digit separates words.
+   */
+  static List<String> tokenize(String text) {
+    if (text == null) {
+      return Collections.emptyList();
+    }
+    List<String> tokens = new ArrayList<>();
+    String lower = text.toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i < lower.length(); i++) {
+      if (Character.isLetterOrDigit(lower.charAt(i))) {
+        if (start < 0) {
+          start = i;
+        }
+      } else if (start >= 0) {
+        tokens.add(lower.substring(start, i));
+        start = -1;
+      }
+    }
+    if (start >= 0) {
+      tokens.add(lower.substring(start));
+    }
+    return tokens;
+  }
+
+  /**
+   * Searches for settings matching a query.
+   *
+   * @param query the text to search for
+   *
+   * @return the matching settings, most relevant first. This is empty if the query has no words
+   */
+  public List<Result> search(String query) {
+    List<String> tokens = tokenize(query);
+    if (tokens.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Map<Integer, Integer> scores = null;
+    for (String token : tokens) {
+      Map<Integer, Integer> tokenScores = scoreToken(token);
+      if (scores == null) {
+        scores = tokenScores;
+      } else {
+        // Every token has to match, so only keep entries that matched all previous tokens
+        scores.keySet().retainAll(tokenScores.keySet());
+        for (Map.Entry<Integer, Integer> score : scores.entrySet()) {
+          score.setValue(score.getValue() + tokenScores.get(score.getKey()));
+        }
+      }
+      if (scores.isEmpty()) {
+        return Collections.emptyList();
+      }
+    }
+    Map<Integer, Integer> finalScores = scores;
+    List<Integer> matches = new ArrayList<>(finalScores.keySet());
+    matches.sort(Comparator.<Integer>comparingInt(finalScores::get).reversed().thenComparing(Comparator.naturalOrder()));
+    List<Result> results = new ArrayList<>(matches.size());
+    for (int match : matches) {
+      results.add(entries.get(match));
+    }
+    return results;
+  }
+
+  /**
+   * Scores every entry that has a word starting with the given token. Exact word matches score higher than prefix
+   * matches.
+   */
+  private Map<Integer, Integer> scoreToken(String token) {
+    Map<Integer, Integer> scores = new HashMap<>();
+    // Every word with the token as a prefix sorts between the token itself and the token followed by the highest char
+    for (Map.Entry<String, Map<Integer, Integer>> word
+        : words.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+      boolean exact = word.getKey().length() == token.length();
+      for (Map.Entry<Integer, Integer> posting : word.getValue().entrySet()) {
+        int score = exact ? posting.getValue() * 2 : posting.getValue();
+        scores.merge(posting.getKey(), score, Math::max);
+      }
+    }
+    return scores;
+  }
+
+  /**
+   * Gets the number of settings in this index.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * A setting matching a search, along with the group and category that contain it.
+   */
+  public static final class Result {
+
+    private final Category category;
+    private final Group group;
+    private final Setting<?> setting;
+
+    Result(Category category, Group group, Setting<?> setting) {
+      this.category = Objects.requireNonNull(category, "category");
+      this.group = Objects.requireNonNull(group, "group");
+      this.setting = Objects.requireNonNull(setting, "setting");
+    }
+
+    /**
+     * Gets the category containing the matching setting.
+     */
+    public Category getCategory() {
+      return category;
+    }
+
+    /**
+     * Gets the group containing the matching setting.
+     */
+    public Group getGroup() {
+      return group;
+    }
+
+    /**
+     * Gets the matching setting.
+     */
+    public Setting<?> getSetting() {
+      return setting;
+    }
+
+    @Override
+    public String toString() {
+      return category.getName() + " > " + group.getName() + " > " + setting.getName();
+    }
+  }
+}
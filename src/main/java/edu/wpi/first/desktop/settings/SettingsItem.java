@@ -23,11 +23,9 @@ public final class SettingsItem implements PropertySheet.Item {
   public SettingsItem(Group group, Setting<?> setting) {
     this.setting = setting;
     this.group = group;
-    if (setting instanceof CheckedSetting) {
-      this.type = ((CheckedSetting<?>) setting).getType();
-    } else {
-      this.type = setting.getValue().getClass();
-    }
+    // The type of an unchecked setting with a null value cannot be known, so it can only get the fallback editor
+    Class<?> settingType = Setting.typeOf(setting);
+    this.type = settingType == null ? Object.class : settingType;
   }
 
   @Override
@@ -58,7 +56,7 @@ public final class SettingsItem implements PropertySheet.Item {
   @Override
   @SuppressWarnings("unchecked")
   public void setValue(Object value) {
-    ((Setting) setting).setValue(value);
+    SettingsJournal.runWithSource(SettingsJournal.Source.EDITOR, () -> ((Setting) setting).setValue(value));
   }
 
   @Override
@@ -0,0 +1,442 @@
+package edu.wpi.first.desktop.settings;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javafx.beans.property.Property;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
+
+/**
+ * Records changes to the values of settings, with support for undoing and redoing them. Each recorded change has a
+ * timestamp and the {@link Source} that made it.
+ *
+ * <p>Changes are kept in a ring buffer with a fixed capacity, so the journal uses the same amount of memory no matter
+ * how long the application runs; once the journal is full, recording a change discards the oldest one. Consecutive
+ * changes to the same setting made by an editor in quick succession, such as typing in a text field, are merged into
+ * a single change so that one undo reverts all of them.</p>
+ *
+ * <p>The journal also keeps track of which settings differ from their default values. This is updated as each change
+ * happens, so {@link #getDifferencesFromDefaults()} never has to look at settings that have not changed.</p>
+ *
+ * <p>Journals are not thread-safe, and should only be used from the thread that changes the settings they track,
+ * which is normally the JavaFX application thread.</p>
+ */
+public final class SettingsJournal {
+
+  /**
+   * Where a change to a setting came from.
+   */
+  public enum Source {
+    /**
+     * The change was made by the user in a settings editor.
+     */
+    EDITOR,
+    /**
+     * The change was made by application code.
+     */
+    CODE,
+    /**
+     * The change was made by importing settings.
+     */
+    IMPORT
+  }
+
+  /**
+   * The default maximum number of changes kept by a journal.
+   */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  /**
+   * Changes made by an editor to the same setting within this amount of time of each other are merged.
+   */
+  static final Duration MERGE_WINDOW = Duration.ofSeconds(1);
+
+  private static final ThreadLocal<Source> currentSource = ThreadLocal.withInitial(() -> Source.CODE);
+
+  private final Clock clock;
+
+  // Ring buffer of changes. The oldest change is at index head, and the first undone change (if any) is `applied`
+  // changes after it
+  private final Entry[] entries;
+  private int head = 0;
+  private int size = 0;
+  private int applied = 0;
+
+  // Set while undoing or redoing, so those changes are not recorded as new changes
+  private boolean replaying = false;
+
+  private final Map<String, Tracked<?>> tracked = new HashMap<>();
+  private final ObservableMap<String, Difference> differences = FXCollections.observableMap(new LinkedHashMap<>());
+  private final ObservableMap<String, Difference> readOnlyDifferences =
+      FXCollections.unmodifiableObservableMap(differences);
+
+  /**
+   * Creates a new journal with the {@link #DEFAULT_CAPACITY default capacity}.
+   */
+  public SettingsJournal() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new journal.
+   *
+   * @param capacity the maximum number of changes to keep
+   *
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public SettingsJournal(int capacity) {
+    this(capacity, Clock.systemUTC());
+  }
+
+  SettingsJournal(int capacity, Clock clock) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive, but was " + capacity);
+    }
+    this.entries = new Entry[capacity];
+    this.clock = Objects.requireNonNull(clock, "clock");
+  }
+
+  /**
+   * Runs a task, attributing every setting change it makes on the current thread to the given source. Changes made
+   * outside of this method are attributed to {@link Source#CODE}.
+   *
+   * @param source the source of the changes made by the task
+   * @param task   the task to run
+   */
+  public static void runWithSource(Source source, Runnable task) {
+    Objects.requireNonNull(source, "source");
+    Objects.requireNonNull(task, "task");
+    Source previous = currentSource.get();
+    currentSource.set(source);
+    try {
+      task.run();
+    } finally {
+      currentSource.set(previous);
+    }
+  }
+
+  /**
+   * Starts recording changes to a setting. The setting's current value is used as its default value.
+   *
+   * @param key     the key identifying the setting
+   * @param setting the setting to track
+   * @param <T>     the type of the setting's value
+   */
+  public <T> void track(String key, Setting<T> setting) {
+    Objects.requireNonNull(setting, "setting");
+    track(key, setting, setting.getValue());
+  }
+
+  /**
+   * Starts recording changes to a setting. Tracking a key that is already tracked replaces the old setting.
+   *
+   * @param key          the key identifying the setting
+   * @param setting      the setting to track
+   * @param defaultValue the default value of the setting
+   * @param <T>          the type of the setting's value
+   */
+  public <T> void track(String key, Setting<T> setting, T defaultValue) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(setting, "setting");
+    untrack(key);
+    Tracked<T> t = new Tracked<>(key, setting, defaultValue);
+    tracked.put(key, t);
+    t.property.addListener(t.listener);
+    updateDifference(t, setting.getValue());
+  }
+
+  /**
+   * Starts recording changes to every setting in a category and its subcategories, using their current values as
+   * their default values. Settings are keyed in the same way as {@link SettingsStore#bindAll(Category)}.
+   *
+   * @param category the category to track the settings of
+   */
+  public void trackAll(Category category) {
+    Objects.requireNonNull(category, "category");
+    SettingKeys.forEach(category, this::track);
+  }
+
+  /**
+   * Stops recording changes to a setting. Changes that have already been recorded are kept.
+   *
+   * @param key the key of the setting to stop tracking
+   */
+  public void untrack(String key) {
+    Tracked<?> t = tracked.remove(key);
+    if (t != null) {
+      t.dispose();
+      differences.remove(key);
+    }
+  }
+
+  private <T> void onChange(Tracked<T> t, T oldValue, T newValue) {
+    updateDifference(t, newValue);
+    if (replaying) {
+      return;
+    }
+    Source source = currentSource.get();
+    Instant now = clock.instant();
+    if (applied > 0) {
+      Entry last = get(applied - 1);
+      if (applied == size && source == Source.EDITOR && last.source == Source.EDITOR && last.key.equals(t.key)
+          && Duration.between(last.timestamp, now).compareTo(MERGE_WINDOW) <= 0) {
+        set(applied - 1, new Entry(now, t.key, t.setting, last.oldValue, newValue, source));
+        return;
+      }
+    }
+    record(new Entry(now, t.key, t.setting, oldValue, newValue, source));
+  }
+
+  private void record(Entry entry) {
+    // Recording a new change discards any changes that were undone
+    size = applied;
+    if (size == entries.length) {
+      entries[head] = null;
+      head = (head + 1) % entries.length;
+      size--;
+    }
+    set(size, entry);
+    size++;
+    applied = size;
+  }
+
+  private <T> void updateDifference(Tracked<T> t, T value) {
+    if (Objects.equals(value, t.defaultValue)) {
+      differences.remove(t.key);
+    } else {
+      differences.put(t.key, new Difference(t.key, t.setting, t.defaultValue, value));
+    }
+  }
+
+  private Entry get(int index) {
+    return entries[(head + index) % entries.length];
+  }
+
+  private void set(int index, Entry entry) {
+    entries[(head + index) % entries.length] = entry;
+  }
+
+  /**
+   * Checks if there is a change that can be undone.
+   */
+  public boolean canUndo() {
+    return applied > 0;
+  }
+
+  /**
+   * Checks if there is an undone change that can be redone.
+   */
+  public boolean canRedo() {
+    return applied < size;
+  }
+
+  /**
+   * Undoes the most recent change by setting its setting back to the value it had before the change.
+   *
+   * @return true if a change was undone, false if there were no changes to undo
+   */
+  public boolean undo() {
+    if (!canUndo()) {
+      return false;
+    }
+    Entry entry = get(applied - 1);
+    replay(entry, entry.oldValue);
+    applied--;
+    return true;
+  }
+
+  /**
+   * Redoes the most recently undone change.
+   *
+   * @return true if a change was redone, false if there were no changes to redo
+   */
+  public boolean redo() {
+    if (!canRedo()) {
+      return false;
+    }
+    Entry entry = get(applied);
+    replay(entry, entry.newValue);
+    applied++;
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void replay(Entry entry, Object value) {
+    replaying = true;
+    try {
+      // Set the property directly, since old values may be null and checked settings do not accept null values
+      ((Property<Object>) entry.setting.getProperty()).setValue(value);
+    } finally {
+      replaying = false;
+    }
+  }
+
+  /**
+   * Gets the recorded changes, oldest first. This includes changes that have been undone.
+   */
+  public List<Entry> getEntries() {
+    List<Entry> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(get(i));
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Gets the number of recorded changes that have not been undone.
+   */
+  public int getAppliedCount() {
+    return applied;
+  }
+
+  /**
+   * Gets the maximum number of changes this journal can hold.
+   */
+  public int getCapacity() {
+    return entries.length;
+  }
+
+  /**
+   * Discards all recorded changes. Settings are still tracked, and their differences from their defaults are kept.
+   */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      set(i, null);
+    }
+    head = 0;
+    size = 0;
+    applied = 0;
+  }
+
+  /**
+   * Gets the tracked settings whose values differ from their defaults, keyed by the settings' keys. The map is
+   * updated as settings change, and cannot be modified directly.
+   */
+  public ObservableMap<String, Difference> getDifferencesFromDefaults() {
+    return readOnlyDifferences;
+  }
+
+  /**
+   * A recorded change to a setting.
+   */
+  public static final class Entry {
+    private final Instant timestamp;
+    private final String key;
+    private final Setting<?> setting;
+    private final Object oldValue;
+    private final Object newValue;
+    private final Source source;
+
+    Entry(Instant timestamp, String key, Setting<?> setting, Object oldValue, Object newValue, Source source) {
+      this.timestamp = timestamp;
+      this.key = key;
+      this.setting = setting;
+      this.oldValue = oldValue;
+      this.newValue = newValue;
+      this.source = source;
+    }
+
+    /**
+     * Gets the time of the change. For merged changes, this is the time of the last change.
+     */
+    public Instant getTimestamp() {
+      return timestamp;
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    public Setting<?> getSetting() {
+      return setting;
+    }
+
+    public Object getOldValue() {
+      return oldValue;
+    }
+
+    public Object getNewValue() {
+      return newValue;
+    }
+
+    public Source getSource() {
+      return source;
+    }
+
+    @Override
+    public String toString() {
+      return timestamp + " " + source + " " + key + ": " + oldValue + " -> " + newValue;
+    }
+  }
+
+  /**
+   * A setting whose value differs from its default value.
+   */
+  public static final class Difference {
+    private final String key;
+    private final Setting<?> setting;
+    private final Object defaultValue;
+    private final Object value;
+
+    Difference(String key, Setting<?> setting, Object defaultValue, Object value) {
+      this.key = key;
+      this.setting = setting;
+      this.defaultValue = defaultValue;
+      this.value = value;
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    public Setting<?> getSetting() {
+      return setting;
+    }
+
+    public Object getDefaultValue() {
+      return defaultValue;
+    }
+
+    /**
+     * Gets the value of the setting at the time this difference was recorded.
+     */
+    public Object getValue() {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return key + ": " + defaultValue + " -> " + value;
+    }
+  }
+
+  private final class Tracked<T> {
+    private final String key;
+    private final Setting<T> setting;
+    private final T defaultValue;
+    private final Property<T> property;
+    private final ChangeListener<T> listener;
+
+    Tracked(String key, Setting<T> setting, T defaultValue) {
+      this.key = key;
+      this.setting = setting;
+      this.defaultValue = defaultValue;
+      this.property = setting.getProperty();
+      this.listener = (__, oldValue, newValue) -> onChange(this, oldValue, newValue);
+    }
+
+    void dispose() {
+      property.removeListener(listener);
+    }
+  }
+}
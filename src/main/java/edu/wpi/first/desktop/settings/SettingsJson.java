@@ -0,0 +1,256 @@
+package edu.wpi.first.desktop.settings;
+
+import edu.wpi.first.desktop.util.UtilityClass;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Exports and imports the values of settings as JSON, for copying settings between computers. The format is an object
+ * with a format version and an object mapping each setting's key (as built by {@link SettingsStore#bindAll}) to its
+ * value:
+ *
+ * <pre>{@code
+ * {
+ *   "version": 1,
+ *   "settings": {
+ *     "Network/Connection/Host": "10.1.90.2",
+ *     "Network/Connection/Port": 5810
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>Strings, booleans, numbers, and enums are supported; settings with other types of values are not exported. Both
+ * directions stream: exporting writes each value as it is read from its setting, and importing reads one value at a
+ * time, so neither ever holds a document tree in memory.</p>
+ */
+public final class SettingsJson extends UtilityClass {
+
+  /**
+   * The version of the format written by {@link #exportSettings}. Newer versions cannot be imported.
+   */
+  public static final int FORMAT_VERSION = 1;
+
+  private SettingsJson() {
+  }
+
+  /**
+   * Exports the values of every setting in a tree of categories.
+   *
+   * @param categories the root categories to export
+   * @param out        the writer to write to. This is flushed, but not closed
+   *
+   * @throws IOException if the settings could not be written
+   */
+  public static void exportSettings(List<Category> categories, Writer out) throws IOException {
+    Objects.requireNonNull(categories, "categories");
+    Objects.requireNonNull(out, "out");
+    JsonWriter json = new JsonWriter(out);
+    json.beginObject();
+    json.name("version");
+    json.value(FORMAT_VERSION);
+    json.name("settings");
+    json.beginObject();
+    for (Category category : categories) {
+      for (Map.Entry<String, Setting<?>> entry : keys(category).entrySet()) {
+        writeValue(json, entry.getKey(), entry.getValue().getValue());
+      }
+    }
+    json.endObject();
+    json.endObject();
+    out.write('\n');
+    json.flush();
+  }
+
+  private static void writeValue(JsonWriter json, String key, Object value) throws IOException {
+    if (value == null) {
+      json.name(key);
+      json.nullValue();
+    } else if (value instanceof String) {
+      json.name(key);
+      json.value((String) value);
+    } else if (value instanceof Boolean) {
+      json.name(key);
+      json.value((boolean) value);
+    } else if (value instanceof Double || value instanceof Float) {
+      json.name(key);
+      double d = ((Number) value).doubleValue();
+      if (Double.isFinite(d)) {
+        json.value((Number) value);
+      } else {
+        // JSON has no representation for these; write them as strings, which are read back in the same way
+        json.value(value.toString());
+      }
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      json.name(key);
+      json.value((Number) value);
+    } else if (value instanceof Enum) {
+      json.name(key);
+      json.value(((Enum<?>) value).name());
+    }
+  }
+
+  /**
+   * Imports setting values into a tree of categories. Imported values for keys that do not match a setting are
+   * ignored. Every value is checked against the type of its setting before any of them are applied; if any are
+   * invalid, none are applied. The values are then applied in a single {@link SettingsTransaction}, with the changes
+   * attributed to {@link SettingsJournal.Source#IMPORT}.
+   *
+   * <p>This should be called from the thread that changes the settings, which is normally the JavaFX application
+   * thread.</p>
+   *
+   * @param in         the reader to read from. This is not closed
+   * @param categories the root categories to import into
+   *
+   * @return the settings that changed
+   *
+   * @throws SettingsImportException if any imported values are invalid for their settings
+   * @throws IOException             if the input could not be read, or is not in the settings format
+   */
+  public static SettingsChange importSettings(Reader in, List<Category> categories) throws IOException {
+    Objects.requireNonNull(in, "in");
+    Objects.requireNonNull(categories, "categories");
+    Map<String, Setting<?>> settings = new HashMap<>();
+    for (Category category : categories) {
+      settings.putAll(keys(category));
+    }
+
+    SettingsTransaction transaction = new SettingsTransaction();
+    List<String> problems = new ArrayList<>();
+    JsonReader json = new JsonReader(in);
+    json.beginObject();
+    while (json.hasNext()) {
+      String name = json.nextName();
+      if ("version".equals(name)) {
+        Object version = json.nextScalar();
+        if (!(version instanceof BigDecimal) || ((BigDecimal) version).intValue() > FORMAT_VERSION) {
+          throw new IOException("Unsupported settings format version: " + version);
+        }
+      } else if ("settings".equals(name) && json.peek() == JsonReader.Kind.OBJECT) {
+        readSettings(json, settings, transaction, problems);
+      } else {
+        json.skipValue();
+      }
+    }
+    json.endObject();
+    json.endDocument();
+
+    if (!problems.isEmpty()) {
+      throw new SettingsImportException(problems);
+    }
+    SettingsChange[] change = new SettingsChange[1];
+    SettingsJournal.runWithSource(SettingsJournal.Source.IMPORT, () -> change[0] = transaction.commit());
+    return change[0];
+  }
+
+  private static void readSettings(JsonReader json,
+                                   Map<String, Setting<?>> settings,
+                                   SettingsTransaction transaction,
+                                   List<String> problems) throws IOException {
+    json.beginObject();
+    while (json.hasNext()) {
+      String key = json.nextName();
+      Setting<?> setting = settings.get(key);
+      if (setting == null) {
+        json.skipValue();
+        continue;
+      }
+      if (json.peek() == JsonReader.Kind.OBJECT || json.peek() == JsonReader.Kind.ARRAY) {
+        json.skipValue();
+        problems.add(key + ": expected a single value");
+        continue;
+      }
+      Object value = json.nextScalar();
+      try {
+        stage(transaction, key, setting, value);
+      } catch (IllegalArgumentException e) {
+        problems.add(key + ": " + e.getMessage());
+      }
+    }
+    json.endObject();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> void stage(SettingsTransaction transaction, String key, Setting<T> setting, Object json) {
+    Class<?> type = Setting.typeOf(setting);
+    if (json == null) {
+      if (setting instanceof CheckedSetting) {
+        throw new IllegalArgumentException("null is not a valid " + type.getSimpleName());
+      }
+      transaction.set(key, setting, null);
+      return;
+    }
+    if (type == null) {
+      throw new IllegalArgumentException("the type of the setting is unknown because its value is null");
+    }
+    transaction.set(key, setting, (T) convert(json, type));
+  }
+
+  /**
+   * Converts a JSON value to a value of the given type.
+   *
+   * @throws IllegalArgumentException if the value cannot be converted
+   */
+  @SuppressWarnings({"unchecked", "rawtypes", "PMD.CyclomaticComplexity"})
+  private static Object convert(Object json, Class<?> type) {
+    try {
+      if (type == String.class && json instanceof String) {
+        return json;
+      } else if (type == Boolean.class && json instanceof Boolean) {
+        return json;
+      } else if (json instanceof BigDecimal) {
+        BigDecimal number = (BigDecimal) json;
+        if (type == Integer.class) {
+          return number.intValueExact();
+        } else if (type == Long.class) {
+          return number.longValueExact();
+        } else if (type == Short.class) {
+          return number.shortValueExact();
+        } else if (type == Byte.class) {
+          return number.byteValueExact();
+        } else if (type == Double.class) {
+          return number.doubleValue();
+        } else if (type == Float.class) {
+          return number.floatValue();
+        }
+      } else if (json instanceof String) {
+        if (type == Double.class) {
+          return Double.valueOf(nonFinite((String) json));
+        } else if (type == Float.class) {
+          return Float.valueOf(nonFinite((String) json));
+        } else if (type.isEnum()) {
+          return Enum.valueOf((Class) type, (String) json);
+        }
+      }
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException(json + " is out of range for " + type.getSimpleName(), e);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("'" + json + "' is not a valid " + type.getSimpleName(), e);
+    }
+    throw new IllegalArgumentException("'" + json + "' is not a valid " + type.getSimpleName());
+  }
+
+  /**
+   * Checks that a string is one of the names of the non-finite floating point values.
+   */
+  private static String nonFinite(String value) {
+    if ("NaN".equals(value) || "Infinity".equals(value) || "-Infinity".equals(value)) {
+      return value;
+    }
+    throw new IllegalArgumentException(value);
+  }
+
+  private static Map<String, Setting<?>> keys(Category category) {
+    Map<String, Setting<?>> keys = new LinkedHashMap<>();
+    SettingKeys.forEach(category, keys::put);
+    return keys;
+  }
+}
@@ -0,0 +1,634 @@
+package edu.wpi.first.desktop.settings;
+
+import edu.wpi.first.desktop.util.Debouncer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import javafx.beans.property.Property;
+import javafx.beans.value.ChangeListener;
+
+/**
+ * Persists the values of {@link Setting settings} to a file. Settings are bound to the store by a unique key; binding
+ * a setting loads its stored value (if there is one), and any later changes to the setting are written back to the
+ * store.
+ *
+ * <p>The store file is an append-only journal of key/value records, where the last record for a key holds its current
+ * value. Each record ends with a checksum; when the file is read, it ends at the first record that is incomplete or
+ * does not match its checksum, such as one that was only partly written when the application was killed. Changes are batched up and only the keys that changed since the last write are appended, so the cost of a
+ * write does not depend on how many settings an application has. Writes happen in the background after settings stop
+ * changing for a short time, or immediately when {@link #flush()} is called. When superseded records take up more
+ * than half the file, the journal is compacted by rewriting it with only the latest record for each key.</p>
+ *
+ * <p>The file is memory-mapped when the store is opened. Only the keys are read at that point; a value is only
+ * decoded when a setting is bound to its key, so settings that are never used cost nothing to load. Keys for settings
+ * that are not bound are still kept when the file is compacted. Compacting copies the mapped values into memory and
+ * writes them to a new file, which then replaces the journal. A file cannot be replaced while it is mapped on Windows,
+ * and a mapping is only released when it is garbage collected, so there the first compaction may fail; the old
+ * journal stays in use, and compaction is tried again on the next write.</p>
+ *
+ * <p>Stores are thread-safe. Changes to bound settings are encoded on the thread that made the change and written on
+ * a background thread. Errors during background writes are passed to that thread's uncaught exception handler; errors
+ * during explicit calls to {@link #flush()} or {@link #compact()} are thrown to the caller. If the changes are written
+ * but the automatic compaction after a write fails, the write still succeeds and the compaction error is passed to the
+ * current thread's uncaught exception handler.</p>
+ */
+public final class SettingsStore implements AutoCloseable {
+
+  private static final int MAGIC = 0x57504953; // "WPIS"
+  private static final byte VERSION = 2;
+  private static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+  private static final int MAX_KEY_LENGTH = 0xFFFF;
+  // Key length, value length, and checksum
+  private static final int RECORD_OVERHEAD = Short.BYTES + Integer.BYTES + Integer.BYTES;
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte PRESENT_VALUE = 1;
+
+  /**
+   * Journals smaller than this are never compacted.
+   */
+  static final long MIN_COMPACTION_SIZE = 64 * 1024;
+
+  /**
+   * The default amount of time to wait after the last change to a setting before writing changes.
+   */
+  public static final Duration DEFAULT_WRITE_DELAY = Duration.ofMillis(500);
+
+  private final Path file;
+  private final Debouncer writer;
+
+  // Guards the file, the index, and the bindings
+  private final Object fileLock = new Object();
+  private FileChannel channel;
+  private MappedByteBuffer mapped;
+  private long writePosition;
+  private long liveBytes;
+  private boolean closed = false;
+  private final Map<String, Slot> index = new HashMap<>();
+  private final Map<String, Binding<?>> bindings = new HashMap<>();
+
+  // Encoded values that have changed since the last write. Guarded separately from the file so that changing settings
+  // never waits on a write in progress
+  private final Object dirtyLock = new Object();
+  private Map<String, byte[]> dirty = new LinkedHashMap<>();
+
+  /**
+   * Opens a settings store, creating the file if it does not exist. Changes are written after the
+   * {@link #DEFAULT_WRITE_DELAY default delay}.
+   *
+   * @param file the file to store settings in
+   *
+   * @return the opened store
+   *
+   * @throws IOException if the file could not be opened or is not a settings store
+   */
+  public static SettingsStore open(Path file) throws IOException {
+    return open(file, DEFAULT_WRITE_DELAY);
+  }
+
+  /**
+   * Opens a settings store, creating the file if it does not exist.
+   *
+   * @param file       the file to store settings in
+   * @param writeDelay the amount of time to wait after the last change to a setting before writing changes
+   *
+   * @return the opened store
+   *
+   * @throws IOException if the file could not be opened or is not a settings store
+   */
+  public static SettingsStore open(Path file, Duration writeDelay) throws IOException {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(writeDelay, "writeDelay");
+    SettingsStore store = new SettingsStore(file, writeDelay);
+    store.load();
+    return store;
+  }
+
+  private SettingsStore(Path file, Duration writeDelay) {
+    this.file = file.toAbsolutePath();
+    this.writer = new Debouncer(this::flushInBackground, writeDelay);
+  }
+
+  private void load() throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long size = channel.size();
+    if (size == 0) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put(VERSION).flip();
+      writeFully(header, 0);
+      writePosition = HEADER_SIZE;
+      return;
+    }
+    if (size > Integer.MAX_VALUE) {
+      channel.close();
+      throw new IOException("Settings file is too large: " + file);
+    }
+    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    if (size < HEADER_SIZE || mapped.getInt(0) != MAGIC || mapped.get(Integer.BYTES) != VERSION) {
+      channel.close();
+      throw new IOException("Not a settings file: " + file);
+    }
+    int end = scan();
+    writePosition = end;
+    if (end < size) {
+      // The last record was only partly written, most likely because the application was killed in the middle of a
+      // write. Rewrite the file without it so the next write does not leave garbage behind it
+      try {
+        compactLocked();
+      } catch (IOException e) {
+        truncateTail(end);
+      }
+    }
+  }
+
+  /**
+   * Removes the invalid records at the end of the file, if they could not be removed by compacting it.
+   */
+  private void truncateTail(int end) {
+    try {
+      channel.truncate(end);
+    } catch (IOException e) {
+      // The file is still mapped on Windows. Later records are written over the invalid ones, and the file is read up
+      // to the first invalid record, so what is left of them after the last write is ignored
+    }
+  }
+
+  /**
+   * Reads the keys of every valid record in the mapped file into the index. Values are not decoded.
+   *
+   * @return the position just after the last valid record
+   */
+  private int scan() {
+    ByteBuffer buffer = mapped.duplicate();
+    int limit = buffer.limit();
+    int position = HEADER_SIZE;
+    CRC32 crc = new CRC32();
+    while (position + Short.BYTES <= limit) {
+      int keyLength = buffer.getShort(position) & MAX_KEY_LENGTH;
+      int keyStart = position + Short.BYTES;
+      int valueStart = keyStart + keyLength + Integer.BYTES;
+      if (valueStart > limit) {
+        break;
+      }
+      int valueLength = buffer.getInt(valueStart - Integer.BYTES);
+      if (valueLength < 0 || valueLength > limit - valueStart - Integer.BYTES) {
+        break;
+      }
+      int checksumStart = valueStart + valueLength;
+      crc.reset();
+      crc.update(buffer.duplicate().position(position).limit(checksumStart));
+      if ((int) crc.getValue() != buffer.getInt(checksumStart)) {
+        // Most likely a partly written record, or the zeros after the end of a file that was extended but not written
+        break;
+      }
+      byte[] keyBytes = new byte[keyLength];
+      buffer.position(keyStart);
+      buffer.get(keyBytes);
+      putSlot(new String(keyBytes, StandardCharsets.UTF_8), new Slot(valueStart, valueLength, keyLength));
+      position = checksumStart + Integer.BYTES;
+    }
+    return position;
+  }
+
+  /**
+   * Binds a setting to a key using the built-in codec for the setting's type. The type is the type of a
+   * {@link Setting#checked checked setting}, or the type of the setting's current value otherwise.
+   *
+   * @param key     the key to store the setting's value under
+   * @param setting the setting to bind
+   *
+   * @throws IllegalArgumentException if the setting's type cannot be determined or has no built-in codec
+   * @see #bind(String, Setting, SettingCodec)
+   */
+  @SuppressWarnings("unchecked")
+  public void bind(String key, Setting<?> setting) {
+    Objects.requireNonNull(setting, "setting");
+    bind(key, (Setting<Object>) setting, SettingCodec.forType((Class<Object>) typeOf(setting)));
+  }
+
+  private static Class<?> typeOf(Setting<?> setting) {
+    Class<?> type = Setting.typeOf(setting);
+    if (type == null) {
+      throw new IllegalArgumentException(
+          "Cannot determine the type of setting '" + setting.getName() + "' because its value is null");
+    }
+    return type;
+  }
+
+  /**
+   * Binds a setting to a key. If the store has a value for the key, the setting is set to that value; if the stored
+   * value cannot be read by the codec, the setting keeps its current value and the stored value will be replaced the
+   * next time the setting changes. Binding a key that is already bound replaces the old binding.
+   *
+   * @param key     the key to store the setting's value under
+   * @param setting the setting to bind
+   * @param codec   the codec to use to read and write the setting's value
+   * @param <T>     the type of the setting's value
+   *
+   * @throws IllegalArgumentException if the key is longer than 65535 bytes when encoded as UTF-8
+   * @throws IllegalStateException    if the store is closed
+   */
+  public <T> void bind(String key, Setting<T> setting, SettingCodec<T> codec) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(setting, "setting");
+    Objects.requireNonNull(codec, "codec");
+    if (key.getBytes(StandardCharsets.UTF_8).length > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException("Key is too long: " + key);
+    }
+    byte[] stored;
+    synchronized (fileLock) {
+      checkOpen();
+      unbind(key);
+      Slot slot = index.get(key);
+      stored = slot == null ? null : slot.read(mapped);
+    }
+    if (stored != null) {
+      try {
+        setting.setValue(decode(stored, codec));
+      } catch (IOException | RuntimeException e) {
+        // The stored value was written by an incompatible codec, or is for a setting of a different type. Keep the
+        // current value
+      }
+    }
+    Property<T> property = setting.getProperty();
+    ChangeListener<T> listener = (__, old, value) -> markDirty(key, encode(value, codec));
+    synchronized (fileLock) {
+      property.addListener(listener);
+      bindings.put(key, new Binding<>(property, listener));
+    }
+  }
+
+  /**
+   * Binds every setting in a category and its subcategories. Each setting is bound to a key made from the names of
+   * its categories, its group, and the setting itself, separated by slashes; for example, a setting "Port" in a group
+   * "Connection" in a category "Network" is bound to the key {@code "Network/Connection/Port"}.
+   *
+   * @param category the category to bind the settings of
+   *
+   * @see #bind(String, Setting)
+   */
+  public void bindAll(Category category) {
+    Objects.requireNonNull(category, "category");
+    SettingKeys.forEach(category, this::bind);
+  }
+
+  /**
+   * Unbinds the setting bound to a key. Later changes to the setting will not be stored. Its stored value is kept.
+   *
+   * @param key the key to unbind
+   */
+  public void unbind(String key) {
+    synchronized (fileLock) {
+      Binding<?> binding = bindings.remove(key);
+      if (binding != null) {
+        binding.dispose();
+      }
+    }
+  }
+
+  /**
+   * Checks if the store has a value for a key, either in the file or waiting to be written.
+   *
+   * @param key the key to check
+   */
+  public boolean containsKey(String key) {
+    synchronized (dirtyLock) {
+      if (dirty.containsKey(key)) {
+        return true;
+      }
+    }
+    synchronized (fileLock) {
+      return index.containsKey(key);
+    }
+  }
+
+  private void markDirty(String key, byte[] value) {
+    synchronized (dirtyLock) {
+      // Remove first so that the write order follows the order of the latest changes
+      dirty.remove(key);
+      dirty.put(key, value);
+    }
+    writer.run();
+  }
+
+  /**
+   * Writes all pending changes to the file immediately.
+   *
+   * @throws IOException if the changes could not be written. The changes will be retried on the next write
+   */
+  public void flush() throws IOException {
+    Map<String, byte[]> changes;
+    synchronized (dirtyLock) {
+      if (dirty.isEmpty()) {
+        return;
+      }
+      changes = dirty;
+      dirty = new LinkedHashMap<>();
+    }
+    synchronized (fileLock) {
+      try {
+        checkOpen();
+        append(changes);
+      } catch (IOException | RuntimeException e) {
+        requeue(changes);
+        throw e;
+      }
+      if (shouldCompact()) {
+        try {
+          compactLocked();
+        } catch (IOException | RuntimeException e) {
+          // The changes were written, so this is not a failure of the flush. The old journal is still in use, and
+          // compaction will be tried again on the next write
+          Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+      }
+    }
+  }
+
+  private void flushInBackground() {
+    try {
+      flush();
+    } catch (IOException | RuntimeException e) {
+      Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+    }
+  }
+
+  /**
+   * Puts changes that failed to write back in the dirty map, unless they have been changed again since.
+   */
+  private void requeue(Map<String, byte[]> changes) {
+    synchronized (dirtyLock) {
+      Map<String, byte[]> merged = new LinkedHashMap<>(changes);
+      merged.putAll(dirty);
+      dirty = merged;
+    }
+  }
+
+  private void append(Map<String, byte[]> changes) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    List<Map.Entry<String, Slot>> written = new ArrayList<>(changes.size());
+    long position = writePosition;
+    for (Map.Entry<String, byte[]> change : changes.entrySet()) {
+      byte[] key = change.getKey().getBytes(StandardCharsets.UTF_8);
+      byte[] value = change.getValue();
+      writeRecord(bytes, key, value);
+      Slot slot = new Slot(value, key.length);
+      written.add(Map.entry(change.getKey(), slot));
+      position += slot.recordSize();
+    }
+    writeFully(ByteBuffer.wrap(bytes.toByteArray()), writePosition);
+    channel.force(false);
+    writePosition = position;
+    for (Map.Entry<String, Slot> entry : written) {
+      putSlot(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Writes a record, followed by the checksum of everything before it in the record.
+   */
+  private static void writeRecord(ByteArrayOutputStream out, byte[] key, byte[] value) {
+    ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + key.length + value.length);
+    record.putShort((short) key.length).put(key).putInt(value.length).put(value);
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), 0, record.position());
+    record.putInt((int) crc.getValue());
+    out.write(record.array(), 0, record.capacity());
+  }
+
+  private void writeFully(ByteBuffer buffer, long position) throws IOException {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      offset += channel.write(buffer, offset);
+    }
+  }
+
+  private void putSlot(String key, Slot slot) {
+    Slot old = index.put(key, slot);
+    if (old != null) {
+      liveBytes -= old.recordSize();
+    }
+    liveBytes += slot.recordSize();
+  }
+
+  private boolean shouldCompact() {
+    return writePosition >= MIN_COMPACTION_SIZE && writePosition > 2 * (liveBytes + HEADER_SIZE);
+  }
+
+  /**
+   * Rewrites the file with only the latest value for each key. This normally happens automatically when the file has
+   * grown to twice the size of its live data.
+   *
+   * @throws IOException if the file could not be rewritten. The existing file is left in place
+   */
+  public void compact() throws IOException {
+    flush();
+    synchronized (fileLock) {
+      checkOpen();
+      compactLocked();
+    }
+  }
+
+  private void compactLocked() throws IOException {
+    // Windows does not allow a mapped file to be replaced, so stop using the mapping first
+    detachMapping();
+
+    Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    FileChannel out = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    boolean replaced = false;
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream header = new DataOutputStream(bytes);
+      header.writeInt(MAGIC);
+      header.writeByte(VERSION);
+      for (Map.Entry<String, Slot> entry : index.entrySet()) {
+        writeRecord(bytes, entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue().heap);
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+      while (buffer.hasRemaining()) {
+        out.write(buffer);
+      }
+      out.force(true);
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      replaced = true;
+    } finally {
+      if (!replaced) {
+        // The old journal is still in place and still open, so later writes are appended to it
+        out.close();
+        Files.deleteIfExists(temp);
+      }
+    }
+
+    // The channel for the new file stays open across the move, so the store always has an open channel
+    FileChannel old = channel;
+    channel = out;
+    writePosition = out.size();
+    old.close();
+  }
+
+  /**
+   * Copies every value that is still only in the mapped file into memory, then stops using the mapping. The mapping
+   * itself is released when it is garbage collected.
+   */
+  private void detachMapping() {
+    if (mapped == null) {
+      return;
+    }
+    for (Map.Entry<String, Slot> entry : index.entrySet()) {
+      Slot slot = entry.getValue();
+      if (slot.heap == null) {
+        entry.setValue(new Slot(slot.read(mapped), slot.keyLength));
+      }
+    }
+    mapped = null;
+  }
+
+  /**
+   * Gets the current size of the store file, in bytes.
+   */
+  long getFileSize() {
+    synchronized (fileLock) {
+      return writePosition;
+    }
+  }
+
+  /**
+   * Gets the path to the store file.
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("The settings store is closed");
+    }
+  }
+
+  /**
+   * Writes any pending changes, unbinds all settings, and closes the file. Does nothing if the store is already
+   * closed.
+   *
+   * @throws IOException if pending changes could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    writer.cancel();
+    synchronized (fileLock) {
+      if (closed) {
+        return;
+      }
+      for (Binding<?> binding : bindings.values()) {
+        binding.dispose();
+      }
+      bindings.clear();
+    }
+    try {
+      flush();
+    } finally {
+      synchronized (fileLock) {
+        closed = true;
+        mapped = null; //NOPMD let the mapping be garbage collected even if the store is not
+        index.clear();
+        channel.close();
+      }
+    }
+  }
+
+  private static <T> byte[] encode(T value, SettingCodec<T> codec) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      if (value == null) {
+        out.writeByte(NULL_VALUE);
+      } else {
+        out.writeByte(PRESENT_VALUE);
+        codec.write(value, out);
+      }
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      // Not possible when writing to a byte array, unless the codec itself throws
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T decode(byte[] bytes, SettingCodec<T> codec) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    if (in.readByte() == NULL_VALUE) {
+      return null;
+    }
+    return codec.read(in);
+  }
+
+  /**
+   * The location of the latest value for a key: either a range of the mapped file, or a value written since the file
+   * was mapped.
+   */
+  private static final class Slot {
+    private final int offset;
+    private final int length;
+    private final int keyLength;
+    private final byte[] heap;
+
+    Slot(int offset, int length, int keyLength) {
+      this.offset = offset;
+      this.length = length;
+      this.keyLength = keyLength;
+      this.heap = null;
+    }
+
+    Slot(byte[] value, int keyLength) {
+      this.offset = -1;
+      this.length = value.length;
+      this.keyLength = keyLength;
+      this.heap = value;
+    }
+
+    byte[] read(ByteBuffer mapped) {
+      if (heap != null) {
+        return heap;
+      }
+      byte[] value = new byte[length];
+      mapped.duplicate().position(offset).get(value);
+      return value;
+    }
+
+    long recordSize() {
+      return RECORD_OVERHEAD + keyLength + length;
+    }
+  }
+
+  private static final class Binding<T> {
+    private final Property<T> property;
+    private final ChangeListener<T> listener;
+
+    Binding(Property<T> property, ChangeListener<T> listener) {
+      this.property = property;
+      this.listener = listener;
+    }
+
+    void dispose() {
+      property.removeListener(listener);
+    }
+  }
+}
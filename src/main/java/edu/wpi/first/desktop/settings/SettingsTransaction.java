@@ -0,0 +1,300 @@
+package edu.wpi.first.desktop.settings;
+
+import edu.wpi.first.desktop.property.FlushableProperty;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javafx.beans.property.Property;
+
+/**
+ * Applies pending changes to a set of settings all at once. Settings whose properties are
+ * {@link FlushableProperty flushable} and have been {@link FlushableProperty#isChanged() changed} are flushed when the
+ * transaction is committed, and settings given new values with {@link #set(String, Setting, Object) set()} are set;
+ * the result of the commit is a single {@link SettingsChange} listing every setting that changed.
+ *
+ * <p>Every changed setting is found before any of them are flushed, so listeners on one setting that look at another
+ * setting never cause that setting to be skipped or flushed twice. If flushing a setting fails, every setting that was
+ * already flushed by the transaction is restored to its previous value and the failure is rethrown, so either all of
+ * the changes are applied or none of them are. Properties with a
+ * {@link FlushableProperty#setFlushExecutor flush executor} are only queued to be flushed in the background, so
+ * failures to set them are reported by the property instead.</p>
+ *
+ * <p>JavaFX notifies the listeners on each setting's property as soon as that setting is flushed, and there is no way
+ * to hold those notifications back. Listeners that react to a change with expensive work, such as re-laying out a
+ * view or reconnecting to a server, should pass that work to {@link #runAfterCommit(Runnable)} instead of doing it
+ * directly. During a commit, each reaction is then run once after every setting has been flushed, no matter how many
+ * of the settings it listens to have changed; outside of a commit, it runs immediately. Code that needs to know which
+ * settings changed can use the {@code SettingsChange} returned by the commit instead, such as with
+ * {@link SettingsDialog#appliedChangesProperty()}, which is only notified after every setting has been flushed.</p>
+ *
+ * <pre><code>
+ * Runnable reconnect = this::reconnect;
+ * host.getProperty().addListener(__ -&gt; SettingsTransaction.runAfterCommit(reconnect));
+ * port.getProperty().addListener(__ -&gt; SettingsTransaction.runAfterCommit(reconnect));
+ * </code></pre>
+ */
+public final class SettingsTransaction {
+
+  // The reactions held back by the commit running on the current thread, or null if no commit is running
+  private static final ThreadLocal<Set<Runnable>> deferredReactions = new ThreadLocal<>();
+
+  // Keyed by identity rather than by key, since keys are built from names that need not be unique
+  private final Map<Setting<?>, Entry<?>> entries = new IdentityHashMap<>();
+  private final List<Entry<?>> order = new ArrayList<>();
+  private boolean committed = false;
+
+  /**
+   * Creates a new, empty transaction.
+   */
+  public SettingsTransaction() { //NOPMD explicit so that it can be documented
+  }
+
+  /**
+   * Adds a setting to this transaction. Adding a setting that is already in this transaction has no effect.
+   *
+   * @param key     the key identifying the setting in the resulting {@link SettingsChange}
+   * @param setting the setting to add
+   *
+   * @return this transaction
+   *
+   * @throws IllegalStateException if this transaction has already been committed
+   */
+  public SettingsTransaction add(String key, Setting<?> setting) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(setting, "setting");
+    checkNotCommitted();
+    entry(key, setting);
+    return this;
+  }
+
+  /**
+   * Adds a setting to this transaction, to be set to a new value when the transaction is committed. If the setting's
+   * property is flushable, the new value is also flushed. If the setting is already in this transaction, it keeps its
+   * key and is given the new value.
+   *
+   * @param key     the key identifying the setting in the resulting {@link SettingsChange}
+   * @param setting the setting to set
+   * @param value   the new value of the setting
+   * @param <T>     the type of the setting's value
+   *
+   * @return this transaction
+   *
+   * @throws IllegalStateException if this transaction has already been committed
+   */
+  public <T> SettingsTransaction set(String key, Setting<T> setting, T value) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(setting, "setting");
+    checkNotCommitted();
+    entry(key, setting).stage(value);
+    return this;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Entry<T> entry(String key, Setting<T> setting) {
+    Entry<T> entry = (Entry<T>) entries.get(setting);
+    if (entry == null) {
+      entry = new Entry<>(key, setting);
+      entries.put(setting, entry);
+      order.add(entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Adds every setting in a category and its subcategories to this transaction. Settings are keyed in the same way
+   * as {@link SettingsStore#bindAll(Category)}.
+   *
+   * @param category the category to add the settings of
+   *
+   * @return this transaction
+   *
+   * @throws IllegalStateException if this transaction has already been committed
+   */
+  public SettingsTransaction addAll(Category category) {
+    Objects.requireNonNull(category, "category");
+    checkNotCommitted();
+    SettingKeys.forEach(category, this::add);
+    return this;
+  }
+
+  /**
+   * Runs a reaction to a change to a setting. If a transaction is being committed on the current thread, the reaction
+   * is held back until every setting in the transaction has been flushed, and a reaction that is passed to this
+   * method several times during the commit is only run once. Otherwise, the reaction is run immediately.
+   *
+   * <p>Reactions are compared with {@code equals()}, and a lambda or method reference is a new object every time it
+   * is evaluated, so a reaction should be created once and stored, as in the example in the class documentation.
+   * Reactions to settings flushed by a {@link FlushableProperty#setFlushExecutor flush executor} run on that executor,
+   * and are not held back.</p>
+   *
+   * @param reaction the reaction to run
+   */
+  public static void runAfterCommit(Runnable reaction) {
+    Objects.requireNonNull(reaction, "reaction");
+    Set<Runnable> deferred = deferredReactions.get();
+    if (deferred == null) {
+      reaction.run();
+    } else {
+      deferred.add(reaction);
+    }
+  }
+
+  /**
+   * Sets every setting given a new value and flushes every changed setting in this transaction, then runs the
+   * reactions held back by {@link #runAfterCommit(Runnable)}. If a reaction throws an exception, it is passed to the
+   * current thread's uncaught exception handler and the other reactions still run. A transaction can only be committed
+   * once.
+   *
+   * @return the settings that changed. This is empty if none of the settings had pending changes
+   *
+   * @throws IllegalStateException if this transaction has already been committed
+   */
+  public SettingsChange commit() {
+    checkNotCommitted();
+    committed = true;
+    if (deferredReactions.get() != null) {
+      // Committed by a listener during another commit; that commit runs the reactions once it has finished
+      return apply();
+    }
+    Set<Runnable> deferred = new LinkedHashSet<>();
+    deferredReactions.set(deferred);
+    try {
+      return apply();
+    } finally {
+      // Also after a failed commit, since the settings were changed and then restored
+      deferredReactions.remove();
+      for (Runnable reaction : deferred) {
+        try {
+          reaction.run();
+        } catch (RuntimeException e) {
+          Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+      }
+    }
+  }
+
+  private SettingsChange apply() {
+
+    List<String> changedKeys = new ArrayList<>();
+    List<Setting<?>> changedSettings = new ArrayList<>();
+    List<FlushableProperty<?>> pending = new ArrayList<>();
+    List<Entry<?>> toSet = new ArrayList<>();
+    for (Entry<?> entry : order) {
+      if (!entry.staged) {
+        Property<?> property = entry.setting.getProperty();
+        if (property instanceof FlushableProperty && ((FlushableProperty<?>) property).isChanged()) {
+          changedKeys.add(entry.key);
+          changedSettings.add(entry.setting);
+          pending.add((FlushableProperty<?>) property);
+        }
+      }
+    }
+    for (Entry<?> entry : order) {
+      if (entry.staged && entry.isChange()) {
+        changedKeys.add(entry.key);
+        changedSettings.add(entry.setting);
+        toSet.add(entry);
+      }
+    }
+
+    // Undo actions for everything applied so far, in the order they were applied
+    List<Restore<?>> applied = new ArrayList<>(pending.size() + toSet.size() * 2);
+    try {
+      for (Entry<?> change : toSet) {
+        change.apply(applied);
+      }
+      for (FlushableProperty<?> property : pending) {
+        flush(property, applied);
+      }
+    } catch (RuntimeException e) {
+      for (int i = applied.size() - 1; i >= 0; i--) {
+        try {
+          applied.get(i).restore();
+        } catch (RuntimeException restoreFailure) {
+          e.addSuppressed(restoreFailure);
+        }
+      }
+      throw e;
+    }
+    return new SettingsChange(changedKeys, changedSettings);
+  }
+
+  private static <T> void flush(FlushableProperty<T> property, List<Restore<?>> applied) {
+    Restore<T> restore = new Restore<>(property.getFlushTarget());
+    property.flush();
+    applied.add(restore);
+  }
+
+  /**
+   * Checks if this transaction has been committed.
+   */
+  public boolean isCommitted() {
+    return committed;
+  }
+
+  private void checkNotCommitted() {
+    if (committed) {
+      throw new IllegalStateException("The transaction has already been committed");
+    }
+  }
+
+  /**
+   * A property that has been changed, along with its value from before the change.
+   */
+  private static final class Restore<T> {
+    private final Property<T> target;
+    private final T previousValue;
+
+    Restore(Property<T> target) {
+      this.target = target;
+      this.previousValue = target.getValue();
+    }
+
+    void restore() {
+      target.setValue(previousValue);
+    }
+  }
+
+  /**
+   * A setting in a transaction, along with the new value it was given, if any.
+   */
+  private static final class Entry<T> {
+    private final String key;
+    private final Setting<T> setting;
+    private boolean staged = false;
+    private T value;
+
+    Entry(String key, Setting<T> setting) {
+      this.key = key;
+      this.setting = setting;
+    }
+
+    void stage(T value) {
+      this.staged = true;
+      this.value = value;
+    }
+
+    boolean isChange() {
+      Property<T> property = setting.getProperty();
+      if (property instanceof FlushableProperty) {
+        return !Objects.equals(((FlushableProperty<T>) property).getFlushTarget().getValue(), value);
+      }
+      return !Objects.equals(property.getValue(), value);
+    }
+
+    void apply(List<Restore<?>> applied) {
+      Restore<T> restore = new Restore<>(setting.getProperty());
+      setting.setValue(value);
+      applied.add(restore);
+      if (setting.getProperty() instanceof FlushableProperty) {
+        flush((FlushableProperty<T>) setting.getProperty(), applied);
+      }
+    }
+  }
+}
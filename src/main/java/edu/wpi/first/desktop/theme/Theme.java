@@ -58,6 +58,24 @@ public final class Theme {
     return new Theme(name, paths.stream().map(reference::getResource).collect(Collectors.toList()));
   }
 
+  /**
+   * Creates a theme with stylesheets relative to some class, merged into a single stylesheet the first time the theme
+   * is created. This is functionally identical to {@link #relativeToClass(String, Class, String...)}, but is cheaper
+   * to apply to scenes when the theme is made up of many stylesheets.
+   *
+   * @param name      the name of the theme
+   * @param reference a class in the JAR file to use as a reference
+   * @param paths     the paths to the stylesheets, relative to the reference class
+   *
+   * @return a new theme object with a single bundled stylesheet
+   *
+   * @throws java.io.UncheckedIOException if the stylesheets could not be bundled
+   * @see ThemeBundler
+   */
+  public static Theme bundledRelativeToClass(String name, Class<?> reference, String... paths) {
+    return ThemeBundler.bundle(relativeToClass(name, reference, paths));
+  }
+
   /**
    * Creates a new theme.
    *
@@ -134,7 +152,20 @@ public final class Theme {
    * @param scene the scene to which to apply this theme
    */
   public void applyTo(Scene scene) {
+    applyTo(scene, -1);
+  }
+
+  /**
+   * Applies this theme to a scene whose nodes the caller has already counted, so they are not counted again for the
+   * JFR event.
+   *
+   * @param scene     the scene to which to apply this theme
+   * @param nodeCount the number of nodes in the scene graph, or -1 to count them only if the JFR event is recorded
+   */
+  void applyTo(Scene scene, int nodeCount) {
+    Object event = ThemeEvents.beginApply();
     scene.getStylesheets().setAll(styleSheetPaths);
+    ThemeEvents.commitApply(event, this, "Scene", scene.getRoot(), nodeCount);
   }
 
   /**
@@ -143,6 +174,19 @@ public final class Theme {
    * @param parent the node to which to apply this theme
    */
   public void applyTo(Parent parent) {
+    applyTo(parent, -1);
+  }
+
+  /**
+   * Applies this theme to a parent node whose subtree the caller has already counted, so it is not counted again for
+   * the JFR event.
+   *
+   * @param parent    the node to which to apply this theme
+   * @param nodeCount the number of nodes in the subtree, or -1 to count them only if the JFR event is recorded
+   */
+  void applyTo(Parent parent, int nodeCount) {
+    Object event = ThemeEvents.beginApply();
     parent.getStylesheets().setAll(styleSheetPaths);
+    ThemeEvents.commitApply(event, this, parent.getClass().getName(), parent, nodeCount);
   }
 }
@@ -0,0 +1,49 @@
+package edu.wpi.first.desktop.theme;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for applying a theme to a single scene or node. Only use through {@link ThemeEvents}.
+ */
+@Name("edu.wpi.first.desktop.theme.ThemeApply")
+@Label("Theme Apply")
+@Category({"WPILib", "Theme"})
+@Description("Stylesheets set on a scene or node by a theme")
+final class ThemeApplyEvent extends Event {
+
+  @Label("Theme")
+  String theme;
+
+  @Label("Target")
+  @Description("The type of target the theme was applied to")
+  String target;
+
+  @Label("Node Count")
+  @Description("The number of nodes in the target's scene graph")
+  int nodeCount;
+
+  static Object beginIfEnabled() {
+    ThemeApplyEvent event = new ThemeApplyEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  static void end(Object event) {
+    ((ThemeApplyEvent) event).end();
+  }
+
+  static void commit(Object event, String theme, String target, int nodeCount) {
+    ThemeApplyEvent applyEvent = (ThemeApplyEvent) event;
+    applyEvent.theme = theme;
+    applyEvent.target = target;
+    applyEvent.nodeCount = nodeCount;
+    applyEvent.commit();
+  }
+}
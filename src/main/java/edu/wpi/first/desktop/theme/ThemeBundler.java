@@ -0,0 +1,255 @@
+package edu.wpi.first.desktop.theme;
+
+import edu.wpi.first.desktop.util.ShutdownHooks;
+import edu.wpi.first.desktop.util.UtilityClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Merges the stylesheets of a {@link Theme} into a single stylesheet. JavaFX resolves, parses, and performs cascade
+ * lookups for each stylesheet on a scene individually, so themes composed of many small stylesheets are cheaper to
+ * apply once they have been merged.
+ *
+ * <p>Stylesheets are concatenated in the order they appear in the theme, so the cascade is unchanged. Relative
+ * {@code url()} references are rewritten to absolute URLs so images and fonts still resolve from the merged file, and
+ * {@code @import} rules are replaced with the contents of the stylesheets they import, which is where JavaFX places
+ * the imported rules. A stylesheet that appears more than once (either the same path or identical contents once URLs
+ * are resolved) is only included at its last position, since its rules would take precedence from there anyway.</p>
+ *
+ * <p>Bundles can be created at runtime with {@link #bundle(Theme)} or at build time by running this class with an
+ * output file followed by the stylesheet URLs to merge, then loading the output with
+ * {@link Theme#relativeToClass(String, Class, String...)}.</p>
+ *
+ * <p>Bundles created at runtime are written to a temporary directory shared by every bundle in the process, which is
+ * deleted by a {@link ShutdownHooks shutdown hook}.</p>
+ */
+public final class ThemeBundler extends UtilityClass {
+
+  private static final Pattern URL_PATTERN = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+  private static final Pattern IMPORT_STRING_PATTERN = Pattern.compile("@import\\s+(['\"])([^'\"]+)\\1");
+  private static final Pattern IMPORT_PATTERN = Pattern.compile("^[ \\t]*@import[^;]*;[ \\t]*$", Pattern.MULTILINE);
+  private static final Pattern IMPORT_URL_PATTERN =
+      Pattern.compile("@import\\s+(?:url\\(\\s*)?(['\"]?)([^'\")\\s;]+)\\1");
+
+  // Bundles are cached by the stylesheets they were created from, since Theme does not define equality and themes
+  // with the same stylesheets are often created more than once
+  private static final Map<List<String>, Theme> bundles = new ConcurrentHashMap<>();
+
+  // Created when the first bundle is written
+  private static Path bundleDirectory;
+
+  private ThemeBundler() {
+  }
+
+  /**
+   * Gets a theme equivalent to the given one with all its stylesheets merged into a single stylesheet. The bundle is
+   * created the first time this is called for a list of stylesheets and is reused afterwards, even for different
+   * theme objects. Themes with fewer than two stylesheets are returned as-is.
+   *
+   * @param theme the theme to bundle
+   *
+   * @return a theme with the same name and a single merged stylesheet
+   *
+   * @throws UncheckedIOException if any stylesheet could not be read or the bundle could not be written
+   */
+  public static Theme bundle(Theme theme) {
+    if (theme.getStyleSheetPaths().size() < 2) {
+      return theme;
+    }
+    List<String> styleSheetPaths = Collections.unmodifiableList(new ArrayList<>(theme.getStyleSheetPaths()));
+    Theme bundle = bundles.computeIfAbsent(styleSheetPaths, paths -> {
+      Path file = null;
+      try {
+        file = Files.createTempFile(getBundleDirectory(), "theme-bundle-", ".css");
+        writeBundle(paths, file);
+        return new Theme(theme.getName(), file.toUri().toURL());
+      } catch (IOException e) {
+        deleteQuietly(file);
+        throw new UncheckedIOException("Could not bundle theme '" + theme.getName() + "'", e);
+      }
+    });
+    if (bundle.getName().equals(theme.getName())) {
+      return bundle;
+    }
+    return new Theme(theme.getName(), bundle.getStyleSheetPaths().toArray(new String[0]));
+  }
+
+  private static synchronized Path getBundleDirectory() throws IOException {
+    if (bundleDirectory == null) {
+      Path directory = Files.createTempDirectory("theme-bundles-");
+      ShutdownHooks.addHook("Theme bundles", ShutdownHooks.Phase.LATE, ShutdownHooks.DEFAULT_HOOK_TIMEOUT,
+          () -> deleteDirectory(directory));
+      bundleDirectory = directory;
+    }
+    return bundleDirectory;
+  }
+
+  private static void deleteDirectory(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      // Delete the files before the directory that contains them
+      files.sorted(Comparator.reverseOrder()).forEach(ThemeBundler::deleteQuietly);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // Only temporary files are deleted, so there is nothing more to do
+    }
+  }
+
+  /**
+   * Merges stylesheets into a single file.
+   *
+   * @param styleSheetPaths the URLs of the stylesheets to merge, in cascade order
+   * @param output          the file to write the merged stylesheet to
+   *
+   * @throws IOException if a stylesheet could not be read or the output file could not be written
+   */
+  public static void writeBundle(List<String> styleSheetPaths, Path output) throws IOException {
+    try (OutputStream out = Files.newOutputStream(output)) {
+      out.write(merge(styleSheetPaths).getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Merges the contents of stylesheets into a single stylesheet.
+   *
+   * @param styleSheetPaths the URLs of the stylesheets to merge, in cascade order
+   *
+   * @return the contents of the merged stylesheet
+   *
+   * @throws IOException if a stylesheet could not be read
+   */
+  public static String merge(List<String> styleSheetPaths) throws IOException {
+    Map<String, String> loaded = new HashMap<>();
+    for (String path : styleSheetPaths) {
+      if (!loaded.containsKey(path)) {
+        loaded.put(path, load(path, new HashSet<>()));
+      }
+    }
+    // Walk backwards so that only the last copy of each stylesheet is kept
+    Set<String> seenContents = new HashSet<>();
+    Deque<String> bodies = new ArrayDeque<>();
+    for (int i = styleSheetPaths.size() - 1; i >= 0; i--) {
+      String path = styleSheetPaths.get(i);
+      String contents = loaded.get(path);
+      if (seenContents.add(contents)) {
+        bodies.addFirst("/* " + path + " */\n" + contents);
+      }
+    }
+    StringBuilder merged = new StringBuilder();
+    for (String body : bodies) {
+      merged.append(body).append('\n');
+    }
+    return merged.toString();
+  }
+
+  /**
+   * Reads a stylesheet, resolves its URLs, and replaces its imports with the stylesheets they import.
+   *
+   * @param path      the URL of the stylesheet
+   * @param importing the stylesheets currently being imported, to stop import cycles
+   */
+  private static String load(String path, Set<String> importing) throws IOException {
+    importing.add(path);
+    Matcher importMatcher = IMPORT_PATTERN.matcher(absolutizeUrls(read(path), path));
+    StringBuilder result = new StringBuilder();
+    while (importMatcher.find()) {
+      Matcher urlMatcher = IMPORT_URL_PATTERN.matcher(importMatcher.group());
+      String replacement;
+      if (!urlMatcher.find()) {
+        // Not an import we understand; leave it for JavaFX
+        replacement = importMatcher.group();
+      } else if (importing.contains(urlMatcher.group(2))) {
+        // An import cycle. Everything in the cycle is already included
+        replacement = "";
+      } else {
+        String imported = urlMatcher.group(2);
+        replacement = "/* " + imported + " */\n" + load(imported, importing);
+      }
+      importMatcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    }
+    importMatcher.appendTail(result);
+    importing.remove(path);
+    return result.toString();
+  }
+
+  private static String read(String path) throws IOException {
+    try (InputStream in = new URL(path).openStream()) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static String absolutizeUrls(String contents, String base) throws MalformedURLException {
+    URL baseUrl = new URL(base);
+    String withUrls = replaceReferences(URL_PATTERN.matcher(contents), baseUrl, "url(", ")");
+    // @import may also refer to a stylesheet with a plain string instead of url()
+    return replaceReferences(IMPORT_STRING_PATTERN.matcher(withUrls), baseUrl, "@import ", "");
+  }
+
+  private static String replaceReferences(Matcher matcher, URL base, String prefix, String suffix) {
+    StringBuilder result = new StringBuilder();
+    while (matcher.find()) {
+      String quote = matcher.group(1);
+      String resolved = resolve(base, matcher.group(2).trim());
+      matcher.appendReplacement(result, Matcher.quoteReplacement(prefix + quote + resolved + quote + suffix));
+    }
+    matcher.appendTail(result);
+    return result.toString();
+  }
+
+  private static String resolve(URL base, String reference) {
+    try {
+      // Unlike URI.resolve, this also handles jar: URLs
+      return new URL(base, reference).toExternalForm();
+    } catch (MalformedURLException e) {
+      // Leave anything we can't parse untouched; JavaFX will report it when the stylesheet is loaded
+      return reference;
+    }
+  }
+
+  /**
+   * Bundles stylesheets at build time.
+   *
+   * <p>Usage: {@code ThemeBundler <output file> <stylesheet URL>...}</p>
+   *
+   * @param args the output file, followed by the URLs of the stylesheets to merge
+   *
+   * @throws IOException if a stylesheet could not be read or the output file could not be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Usage: ThemeBundler <output file> <stylesheet URL>...");
+    }
+    writeBundle(List.of(args).subList(1, args.length), Paths.get(args[0]));
+  }
+
+}
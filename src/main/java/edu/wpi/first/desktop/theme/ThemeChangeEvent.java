@@ -0,0 +1,68 @@
+package edu.wpi.first.desktop.theme;
+
+import java.time.Duration;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event for a {@link ThemeManager} changing the theme of everything it manages. Only use through
+ * {@link ThemeEvents}.
+ */
+@Name("edu.wpi.first.desktop.theme.ThemeChange")
+@Label("Theme Change")
+@Category({"WPILib", "Theme"})
+@Description("A theme manager applied a new theme to its scenes and nodes")
+final class ThemeChangeEvent extends Event {
+
+  @Label("Theme")
+  String theme;
+
+  @Label("Scene Count")
+  int sceneCount;
+
+  @Label("Node Count")
+  int nodeCount;
+
+  @Label("Restyled Node Count")
+  @Description("The total number of nodes in the scene graphs of the managed scenes and nodes")
+  int restyledNodeCount;
+
+  @Label("Apply Duration")
+  @Description("Time spent setting stylesheets on every scene and node")
+  @Timespan(Timespan.NANOSECONDS)
+  long applyDuration;
+
+  @Label("Max Scene Duration")
+  @Timespan(Timespan.NANOSECONDS)
+  long maxSceneDuration;
+
+  @Label("Max Node Duration")
+  @Timespan(Timespan.NANOSECONDS)
+  long maxNodeDuration;
+
+  @Label("Time To Pulse")
+  @Description("Time until the next pulse finished laying out the managed scenes, or -1 if unknown")
+  @Timespan(Timespan.NANOSECONDS)
+  long timeToPulse;
+
+  static void commit(ThemeMetrics metrics) {
+    ThemeChangeEvent event = new ThemeChangeEvent();
+    if (!event.shouldCommit()) {
+      return;
+    }
+    event.theme = metrics.getThemeName();
+    event.sceneCount = metrics.getSceneCount();
+    event.nodeCount = metrics.getNodeCount();
+    event.restyledNodeCount = metrics.getRestyledNodeCount();
+    event.applyDuration = metrics.getApplyDuration().toNanos();
+    event.maxSceneDuration = metrics.getMaxSceneDuration().toNanos();
+    event.maxNodeDuration = metrics.getMaxNodeDuration().toNanos();
+    event.timeToPulse = metrics.getTimeToPulse().map(Duration::toNanos).orElse(-1L);
+    event.commit();
+  }
+}
@@ -1,18 +1,26 @@
 package edu.wpi.first.desktop.theme;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+/**
+ * A container for the themes available to an application. Theme names are unique within a container.
+ */
 public final class ThemeContainer {
 
   private final ObservableList<Theme> themes = FXCollections.observableArrayList();
   private final ObservableList<Theme> themesUnmodifiable = FXCollections.unmodifiableObservableList(themes);
 
+  // Index themes by name so lookups do not need to scan the list
+  private final Map<String, Theme> themesByName = new HashMap<>();
+
   public ThemeContainer() {
-    themes.add(Theme.MODENA);
+    addTheme(Theme.MODENA);
   }
 
   /**
@@ -20,10 +28,15 @@ public final class ThemeContainer {
    *
    * @param theme the theme to add
    *
-   * @throws NullPointerException if the theme is null
+   * @throws NullPointerException     if the theme is null
+   * @throws IllegalArgumentException if this container already has a theme with the same name
    */
   public void addTheme(Theme theme) {
     Objects.requireNonNull(theme, "Theme cannot be null");
+    Theme existing = themesByName.putIfAbsent(theme.getName(), theme);
+    if (existing != null) {
+      throw new IllegalArgumentException("A theme named '" + theme.getName() + "' is already present");
+    }
     themes.add(theme);
   }
 
@@ -32,7 +45,8 @@ public final class ThemeContainer {
    *
    * @param themes the themes to add
    *
-   * @throws NullPointerException if {@code themes} is null or contains a null element
+   * @throws NullPointerException     if {@code themes} is null or contains a null element
+   * @throws IllegalArgumentException if any theme has the same name as one already in this container
    */
   public void addThemes(Theme... themes) {
     for (Theme theme : themes) {
@@ -45,7 +59,8 @@ public final class ThemeContainer {
    *
    * @param themes the themes to add
    *
-   * @throws NullPointerException if {@code themes} is null or contains a null element
+   * @throws NullPointerException     if {@code themes} is null or contains a null element
+   * @throws IllegalArgumentException if any theme has the same name as one already in this container
    */
   public void addThemes(Iterable<Theme> themes) {
     for (Theme theme : themes) {
@@ -59,7 +74,9 @@ public final class ThemeContainer {
    * @param theme the theme to remove
    */
   public void removeTheme(Theme theme) {
-    themes.remove(theme);
+    if (theme != null && themesByName.remove(theme.getName(), theme)) {
+      themes.remove(theme);
+    }
   }
 
   /**
@@ -102,9 +119,18 @@ public final class ThemeContainer {
    *        is present
    */
   public Optional<Theme> getTheme(String name) {
-    return themes.stream()
-        .filter(t -> t.getName().equals(name))
-        .findFirst();
+    return Optional.ofNullable(themesByName.get(name));
+  }
+
+  /**
+   * Checks if this container has a theme with the specified name.
+   *
+   * @param name the name of the theme to check for. This is case-sensitive.
+   *
+   * @return true if a theme with the given name is present, false if not
+   */
+  public boolean hasTheme(String name) {
+    return themesByName.containsKey(name);
   }
 
 }
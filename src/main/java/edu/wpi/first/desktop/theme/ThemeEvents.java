@@ -0,0 +1,89 @@
+package edu.wpi.first.desktop.theme;
+
+import edu.wpi.first.desktop.util.UtilityClass;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+/**
+ * Emits JFR events for theme changes. JFR is an optional dependency; when the {@code jdk.jfr} module is not available
+ * at runtime, every method in this class is a no-op. Events are passed around as plain objects so that the JFR event
+ * classes are only loaded when JFR is present.
+ */
+final class ThemeEvents extends UtilityClass {
+
+  private static final boolean jfrAvailable = isJfrAvailable();
+
+  private static boolean isJfrAvailable() {
+    Optional<Module> jfr = ModuleLayer.boot().findModule("jdk.jfr");
+    return jfr.isPresent() && ThemeEvents.class.getModule().canRead(jfr.get());
+  }
+
+  /**
+   * Starts timing the application of a theme to a single scene or node.
+   *
+   * @return the event to pass to {@link #commitApply}, or null if the event is not being recorded
+   */
+  static Object beginApply() {
+    return jfrAvailable ? ThemeApplyEvent.beginIfEnabled() : null;
+  }
+
+  /**
+   * Finishes timing the application of a theme to a single scene or node.
+   *
+   * @param event     the event returned by {@link #beginApply()}
+   * @param theme     the theme that was applied
+   * @param target    the type of the target the theme was applied to
+   * @param root      the root node of the target's scene graph
+   * @param nodeCount the number of nodes in the target's scene graph, or -1 if the caller has not counted them
+   */
+  static void commitApply(Object event, Theme theme, String target, Parent root, int nodeCount) {
+    if (event != null) {
+      // End the event first so that counting the nodes is not timed as part of applying the theme
+      ThemeApplyEvent.end(event);
+      ThemeApplyEvent.commit(event, theme.getName(), target, nodeCount < 0 ? countNodes(root) : nodeCount);
+    }
+  }
+
+  /**
+   * Records a completed theme change.
+   *
+   * @param metrics the metrics for the theme change
+   */
+  static void commitChange(ThemeMetrics metrics) {
+    if (jfrAvailable) {
+      ThemeChangeEvent.commit(metrics);
+    }
+  }
+
+  /**
+   * Counts the nodes in a scene graph.
+   *
+   * @param root the root node of the scene graph
+   *
+   * @return the number of nodes in the scene graph, including the root
+   */
+  static int countNodes(Parent root) {
+    if (root == null) {
+      return 0;
+    }
+    int count = 0;
+    // Iterate instead of recursing to avoid overflowing the stack on very deep scene graphs
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      Node node = stack.pop();
+      count++;
+      if (node instanceof Parent) {
+        for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+          stack.push(child);
+        }
+      }
+    }
+    return count;
+  }
+}
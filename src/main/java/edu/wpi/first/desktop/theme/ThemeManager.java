@@ -1,14 +1,20 @@
 package edu.wpi.first.desktop.theme;
 
+import edu.wpi.first.desktop.util.WeakRegistry;
+
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Objects;
 import java.util.Set;
-import java.util.WeakHashMap;
 
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.stage.Window;
 
 /**
  * Manages themes on various scenes and nodes. Setting the theme of a theme manager will immediately apply the theme to
@@ -16,14 +22,18 @@ import javafx.scene.Scene;
  * Adding scenes and nodes after a theme has been set will immediately apply that theme.
  *
  * <p>The default theme is {@link Theme#MODENA Modena}.</p>
+ *
+ * <p>Every theme change is timed, and the results are available from {@link #metricsProperty()} and as JFR events
+ * when a flight recording is running.</p>
  */
 public final class ThemeManager {
 
   // Use weak references to let the scenes and nodes get garbage collected
-  private final Set<Scene> scenes = Collections.newSetFromMap(new WeakHashMap<>());
-  private final Set<Parent> nodes = Collections.newSetFromMap(new WeakHashMap<>());
+  private final WeakRegistry<Scene> scenes = new WeakRegistry<>();
+  private final WeakRegistry<Parent> nodes = new WeakRegistry<>();
 
   private final ObjectProperty<Theme> theme = new SimpleObjectProperty<>(this, "theme", Theme.MODENA);
+  private final ReadOnlyObjectWrapper<ThemeMetrics> metrics = new ReadOnlyObjectWrapper<>(this, "metrics");
 
   /**
    * Creates a new theme manager that by default has nothing to manage. Scenes and nodes can be managed by calling
@@ -31,12 +41,10 @@ public final class ThemeManager {
    */
   public ThemeManager() {
     theme.addListener((__, old, theme) -> {
-      for (Scene scene : scenes) {
-        applyThemeOrDefault(theme, scene);
-      }
-      for (Parent node : nodes) {
-        applyThemeOrDefault(theme, node);
-      }
+      ThemeChange change = new ThemeChange(Objects.requireNonNullElse(theme, Theme.MODENA));
+      scenes.forEach(change::applyTo);
+      nodes.forEach(change::applyTo);
+      change.finish();
     });
   }
 
@@ -80,6 +88,46 @@ public final class ThemeManager {
     Theme.MODENA.applyTo(node);
   }
 
+  /**
+   * Gets the number of scenes and nodes currently managed by this theme manager. This may briefly include scenes and
+   * nodes that have been garbage collected but not yet cleaned up.
+   *
+   * @return the number of managed scenes and nodes
+   */
+  public int getLiveTargetCount() {
+    return scenes.getLiveCount() + nodes.getLiveCount();
+  }
+
+  /**
+   * Gets the total number of managed scenes and nodes that have been garbage collected without being explicitly
+   * removed from this theme manager.
+   *
+   * @return the number of collected scenes and nodes
+   */
+  public long getCollectedTargetCount() {
+    return scenes.getCollectedCount() + nodes.getCollectedCount();
+  }
+
+  /**
+   * Gets the metrics for the most recent theme change. The value is null until the theme is first changed. The metrics
+   * are first published immediately after the theme has been applied, then updated with the
+   * {@link ThemeMetrics#getTimeToPulse() time to the next pulse} once that pulse completes.
+   *
+   * @return the metrics property
+   */
+  public ReadOnlyObjectProperty<ThemeMetrics> metricsProperty() {
+    return metrics.getReadOnlyProperty();
+  }
+
+  /**
+   * Gets the metrics for the most recent theme change, or null if the theme has not been changed.
+   *
+   * @return the metrics for the most recent theme change
+   */
+  public ThemeMetrics getMetrics() {
+    return metrics.get();
+  }
+
   /**
    * Gets the theme used by this manager and all managed scenes and nodes.
    *
@@ -109,4 +157,105 @@ public final class ThemeManager {
   private static void applyThemeOrDefault(Theme theme, Parent node) {
     Objects.requireNonNullElse(theme, Theme.MODENA).applyTo(node);
   }
+
+  /**
+   * Applies a theme to every managed scene and node and records how long it took.
+   */
+  private final class ThemeChange {
+
+    private final Theme theme;
+    private final long start = System.nanoTime();
+    private final Set<Scene> showingScenes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private int sceneCount;
+    private int nodeCount;
+    private int restyledNodeCount;
+    private long applyNanos;
+    private long maxSceneNanos;
+    private long maxNodeNanos;
+
+    private ThemeMetrics initialMetrics;
+    private int pendingScenes;
+
+    ThemeChange(Theme theme) {
+      this.theme = theme;
+    }
+
+    void applyTo(Scene scene) {
+      // Counted once, outside the timed section, and shared with the JFR event
+      int restyled = ThemeEvents.countNodes(scene.getRoot());
+      long begin = System.nanoTime();
+      theme.applyTo(scene, restyled);
+      long elapsed = System.nanoTime() - begin;
+      sceneCount++;
+      applyNanos += elapsed;
+      maxSceneNanos = Math.max(maxSceneNanos, elapsed);
+      restyledNodeCount += restyled;
+      trackPulse(scene);
+    }
+
+    void applyTo(Parent node) {
+      int restyled = ThemeEvents.countNodes(node);
+      long begin = System.nanoTime();
+      theme.applyTo(node, restyled);
+      long elapsed = System.nanoTime() - begin;
+      nodeCount++;
+      applyNanos += elapsed;
+      maxNodeNanos = Math.max(maxNodeNanos, elapsed);
+      restyledNodeCount += restyled;
+      trackPulse(node.getScene());
+    }
+
+    private void trackPulse(Scene scene) {
+      if (scene == null) {
+        return;
+      }
+      Window window = scene.getWindow();
+      if (window != null && window.isShowing()) {
+        showingScenes.add(scene);
+      }
+    }
+
+    void finish() {
+      initialMetrics = new ThemeMetrics(
+          theme.getName(), sceneCount, nodeCount, restyledNodeCount, applyNanos, maxSceneNanos, maxNodeNanos, -1);
+      metrics.set(initialMetrics);
+      if (showingScenes.isEmpty() || !Platform.isFxApplicationThread()) {
+        // No pulse will lay out the managed scenes, or we can't safely listen for one
+        ThemeEvents.commitChange(initialMetrics);
+        return;
+      }
+      pendingScenes = showingScenes.size();
+      for (Scene scene : showingScenes) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+          private boolean fired;
+
+          @Override
+          public void run() {
+            if (fired) {
+              return;
+            }
+            fired = true;
+            // Scenes iterate over their pulse listeners, so defer removal to avoid concurrent modification
+            Runnable listener = this;
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener));
+            pulseCompleted();
+          }
+        });
+      }
+    }
+
+    private void pulseCompleted() {
+      pendingScenes--;
+      if (pendingScenes != 0) {
+        return;
+      }
+      ThemeMetrics finalMetrics = initialMetrics.withPulseNanos(System.nanoTime() - start);
+      if (metrics.get() == initialMetrics) {
+        // Only update if the theme hasn't been changed again in the meantime
+        metrics.set(finalMetrics);
+      }
+      ThemeEvents.commitChange(finalMetrics);
+    }
+  }
 }
@@ -0,0 +1,115 @@
+package edu.wpi.first.desktop.theme;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of how long a {@link ThemeManager} took to apply a theme to all the scenes and nodes it
+ * manages.
+ *
+ * @see ThemeManager#metricsProperty()
+ */
+public final class ThemeMetrics {
+
+  private final String themeName;
+  private final int sceneCount;
+  private final int nodeCount;
+  private final int restyledNodeCount;
+  private final long applyNanos;
+  private final long maxSceneNanos;
+  private final long maxNodeNanos;
+  private final long pulseNanos;
+
+  ThemeMetrics(String themeName,
+               int sceneCount,
+               int nodeCount,
+               int restyledNodeCount,
+               long applyNanos,
+               long maxSceneNanos,
+               long maxNodeNanos,
+               long pulseNanos) {
+    this.themeName = themeName;
+    this.sceneCount = sceneCount;
+    this.nodeCount = nodeCount;
+    this.restyledNodeCount = restyledNodeCount;
+    this.applyNanos = applyNanos;
+    this.maxSceneNanos = maxSceneNanos;
+    this.maxNodeNanos = maxNodeNanos;
+    this.pulseNanos = pulseNanos;
+  }
+
+  /**
+   * Creates a copy of this snapshot with the time until the next pulse completed filled in.
+   */
+  ThemeMetrics withPulseNanos(long pulseNanos) {
+    return new ThemeMetrics(
+        themeName, sceneCount, nodeCount, restyledNodeCount, applyNanos, maxSceneNanos, maxNodeNanos, pulseNanos);
+  }
+
+  /**
+   * Gets the name of the theme that was applied.
+   */
+  public String getThemeName() {
+    return themeName;
+  }
+
+  /**
+   * Gets the number of managed scenes the theme was applied to.
+   */
+  public int getSceneCount() {
+    return sceneCount;
+  }
+
+  /**
+   * Gets the number of managed nodes the theme was applied to. This does not include scenes.
+   */
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Gets the total number of nodes in the scene graphs of all the managed scenes and nodes. All these nodes have
+   * their styles recomputed on the next pulse.
+   */
+  public int getRestyledNodeCount() {
+    return restyledNodeCount;
+  }
+
+  /**
+   * Gets the total time spent setting stylesheets on every managed scene and node.
+   */
+  public Duration getApplyDuration() {
+    return Duration.ofNanos(applyNanos);
+  }
+
+  /**
+   * Gets the longest time spent setting the stylesheets on a single scene.
+   */
+  public Duration getMaxSceneDuration() {
+    return Duration.ofNanos(maxSceneNanos);
+  }
+
+  /**
+   * Gets the longest time spent setting the stylesheets on a single node.
+   */
+  public Duration getMaxNodeDuration() {
+    return Duration.ofNanos(maxNodeNanos);
+  }
+
+  /**
+   * Gets the time from the start of the theme change until the next pulse finished laying out the managed scenes.
+   * This includes the time JavaFX spent applying CSS. The optional is empty until that pulse has completed, or if
+   * none of the managed scenes and nodes are attached to a scene.
+   */
+  public Optional<Duration> getTimeToPulse() {
+    return pulseNanos < 0 ? Optional.empty() : Optional.of(Duration.ofNanos(pulseNanos));
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ThemeMetrics(theme=%s, scenes=%d, nodes=%d, restyledNodes=%d, apply=%s, maxScene=%s, maxNode=%s, pulse=%s)",
+        themeName, sceneCount, nodeCount, restyledNodeCount, getApplyDuration(), getMaxSceneDuration(),
+        getMaxNodeDuration(), getTimeToPulse().map(Duration::toString).orElse("pending"));
+  }
+}
@@ -2,41 +2,281 @@ package edu.wpi.first.desktop.util;
 
 import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A simple class for debouncing method calls. Debouncing is used to prevent an expensive method from being called
  * in rapid succession, only allowing it to run after a certain amount of time has passed without it being called
  * again.
+ *
+ * <p>By default, the target runs on the trailing edge of a burst of calls, once the debounce delay has passed since
+ * the last call. A debouncer can instead run its target on the leading edge, as soon as the first call in a burst is
+ * made, or on both edges. Under continuous calls (for example, while a slider is being dragged) a burst never ends, so
+ * a trailing-edge target would never run; giving the debouncer a maximum wait makes it run the target at least that
+ * often while calls keep coming. To run a target at a steady rate instead, use a {@link Throttler}.</p>
+ *
+ * <p>All debouncers and throttlers share a single timer thread, and their targets are run on a small shared pool of
+ * daemon threads, so creating many debouncers does not create many threads. Debouncers hold no resources while they
+ * are not waiting to run their target, so one that is no longer used is simply garbage collected along with its owner.
+ * Timing is accurate to about 10 milliseconds.</p>
+ *
+ * <p>Debouncers are thread-safe and lock-free, so they can be called from many threads at once (for example, from
+ * several network listeners). The target never runs concurrently with itself, and a call made while the target is
+ * running causes it to run again afterwards.</p>
  */
 public final class Debouncer implements Runnable {
 
-  private ScheduledFuture<?> future = null;
-  private final ScheduledExecutorService executorService;
+  /**
+   * The edges of a burst of calls on which a debouncer runs its target.
+   */
+  public enum Edge {
+    /**
+     * Run the target as soon as the first call in a burst is made. Later calls in the burst are ignored, unless the
+     * maximum wait passes.
+     */
+    LEADING,
+    /**
+     * Run the target once the debounce delay has passed without another call.
+     */
+    TRAILING,
+    /**
+     * Run the target on the first call in a burst, and again at the end of the burst if there were more calls after
+     * the first.
+     */
+    BOTH
+  }
+
+  // The state is packed into a single long so that it can be changed with one compare-and-set: the low bits hold
+  // IDLE, ARMED, or RUNNING and the rest hold a generation that is incremented by cancel(), so that a timer or run
+  // that belongs to a cancelled burst cannot change the state of a later one. Cancelling a running target keeps the
+  // RUNNING state, so that no new burst can start until the target returns
+  private static final long IDLE = 0;
+  private static final long ARMED = 1;
+  private static final long RUNNING = 2;
+  private static final int STATE_BITS = 2;
+  private static final long STATE_MASK = (1 << STATE_BITS) - 1;
+
+  private final TimingWheel timer;
+  private final AtomicLong state = new AtomicLong(IDLE);
+  private volatile TimingWheel.Timeout timeout = null;
 
   private final Runnable target;
   private final Duration debounceDelay;
+  private final Edge edge;
+  private final Duration maxWait;
+  private final long delayNanos;
+  private final long maxWaitNanos;
+
+  // Written by every call
+  private volatile long lastCallNanos;
+  // True if there have been calls since the target last ran
+  private volatile boolean pending = false;
+
+  // The start of the current max wait period. Only accessed by whichever thread is handling the current burst
+  private long windowStartNanos;
 
   /**
-   * Creates a new debouncer.
+   * Creates a new debouncer that runs its target on the trailing edge.
    *
    * @param target        the target function that should be debounced
    * @param debounceDelay the maximum time delta between calls that should be allowed
    */
   public Debouncer(Runnable target, Duration debounceDelay) {
+    this(target, debounceDelay, Edge.TRAILING);
+  }
+
+  /**
+   * Creates a new debouncer with no maximum wait.
+   *
+   * @param target        the target function that should be debounced
+   * @param debounceDelay the maximum time delta between calls that should be allowed
+   * @param edge          the edges of a burst of calls on which to run the target
+   */
+  public Debouncer(Runnable target, Duration debounceDelay, Edge edge) {
+    this(target, debounceDelay, edge, null);
+  }
+
+  /**
+   * Creates a new debouncer.
+   *
+   * @param target        the target function that should be debounced
+   * @param debounceDelay the maximum time delta between calls that should be allowed
+   * @param edge          the edges of a burst of calls on which to run the target
+   * @param maxWait       the maximum time to wait before running the target while calls keep being made, or null to
+   *                      wait for the calls to stop, no matter how long that takes
+   *
+   * @throws IllegalArgumentException if the maximum wait is shorter than the debounce delay
+   */
+  public Debouncer(Runnable target, Duration debounceDelay, Edge edge, Duration maxWait) {
+    this(target, debounceDelay, edge, maxWait, TimingWheel.shared());
+  }
+
+  /**
+   * Creates a new debouncer that uses the given timing wheel in place of the shared one. Should only be used in tests.
+   */
+  Debouncer(Runnable target, Duration debounceDelay, Edge edge, Duration maxWait, TimingWheel timer) {
+    this.timer = Objects.requireNonNull(timer, "timer");
     this.target = Objects.requireNonNull(target, "target");
     this.debounceDelay = Objects.requireNonNull(debounceDelay, "debounceDelay");
-    executorService = ThreadUtils.newDaemonScheduledExecutorService();
+    this.edge = Objects.requireNonNull(edge, "edge");
+    if (maxWait != null && maxWait.compareTo(debounceDelay) < 0) {
+      throw new IllegalArgumentException(
+          "Maximum wait " + maxWait + " is shorter than the debounce delay " + debounceDelay);
+    }
+    this.maxWait = maxWait;
+    this.delayNanos = debounceDelay.toNanos();
+    this.maxWaitNanos = maxWait == null ? Long.MAX_VALUE : maxWait.toNanos();
   }
 
+  /**
+   * Calls the debounced target. This is safe to call from any number of threads at once; a call made while the
+   * debouncer is already waiting only records the time of the call, and does not lock or allocate.
+   */
   @Override
   public void run() {
-    if (future != null && !future.isDone()) {
-      future.cancel(false);
+    long now = timer.nanoTime();
+    lastCallNanos = now;
+    if (!pending) {
+      pending = true;
+    }
+    long current = state.get();
+    while (stateOf(current) == IDLE) {
+      if (state.compareAndSet(current, current | ARMED)) {
+        startBurst(generationOf(current), now);
+        return;
+      }
+      current = state.get();
+    }
+    // Already armed or running; the thread handling the burst will see this call
+  }
+
+  /**
+   * Starts handling a burst of calls. Only the thread that moved the debouncer from idle to armed calls this; from
+   * then on, the burst is handled by a chain of timer tasks that each schedule the next, so the target never runs
+   * concurrently with itself.
+   */
+  private void startBurst(long generation, long now) {
+    windowStartNanos = now;
+    if (edge == Edge.TRAILING) {
+      arm(generation, now);
+    } else {
+      pending = false;
+      timer.execute(() -> leadingEdge(generation));
+    }
+  }
+
+  private void leadingEdge(long generation) {
+    if (runTarget(generation)) {
+      arm(generation, timer.nanoTime());
     }
-    future = executorService.schedule(target, debounceDelay.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private void arm(long generation, long now) {
+    if (generationOf(state.get()) != generation) {
+      return;
+    }
+    long deadline = Math.min(lastCallNanos + delayNanos, saturatedAdd(windowStartNanos, maxWaitNanos));
+    timeout = timer.schedule(() -> expired(generation), deadline - now, TimeUnit.NANOSECONDS);
+  }
+
+  private void expired(long generation) {
+    if (state.get() != pack(generation, ARMED)) {
+      // Cancelled
+      return;
+    }
+    long now = timer.nanoTime();
+    long lastCall = lastCallNanos;
+    if (now - lastCall < delayNanos) {
+      // Calls were made since the timer was armed, so the burst is not over yet
+      if (now - windowStartNanos >= maxWaitNanos) {
+        windowStartNanos = now;
+        if (pending) {
+          pending = false;
+          if (!runTarget(generation)) {
+            return;
+          }
+          now = timer.nanoTime();
+        }
+      }
+      arm(generation, now);
+      return;
+    }
+
+    // The burst is over
+    if (pending && edge != Edge.LEADING) {
+      pending = false;
+      if (!runTarget(generation)) {
+        return;
+      }
+    } else if (edge == Edge.LEADING) {
+      pending = false;
+    }
+    long idle = pack(generation, IDLE);
+    if (!state.compareAndSet(pack(generation, ARMED), idle)) {
+      return;
+    }
+    // A call made after the burst ended may have seen the debouncer as still armed and left it to this thread
+    boolean calledSince = edge == Edge.LEADING ? lastCallNanos != lastCall : pending;
+    if (calledSince && state.compareAndSet(idle, pack(generation, ARMED))) {
+      startBurst(generation, timer.nanoTime());
+    }
+  }
+
+  /**
+   * Runs the target on the current thread.
+   *
+   * @return true if the debouncer was not cancelled before or while the target ran
+   */
+  private boolean runTarget(long generation) {
+    if (!state.compareAndSet(pack(generation, ARMED), pack(generation, RUNNING))) {
+      return false;
+    }
+    try {
+      target.run();
+    } catch (Throwable e) { //NOPMD
+      // Including errors, which would otherwise leave the debouncer running forever
+      Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+    }
+    if (state.compareAndSet(pack(generation, RUNNING), pack(generation, ARMED))) {
+      return true;
+    }
+    finishCancelledRun();
+    return false;
+  }
+
+  /**
+   * Called when the debouncer was cancelled while the target was running. The state is still RUNNING in a later
+   * generation, so this thread still owns it; calls made since the cancellation were left to this thread, and start a
+   * new burst now that the target has returned.
+   */
+  private void finishCancelledRun() {
+    long current;
+    long idle;
+    do {
+      current = state.get();
+      idle = pack(generationOf(current), IDLE);
+    } while (!state.compareAndSet(current, idle));
+    if (pending && state.compareAndSet(idle, idle | ARMED)) {
+      startBurst(generationOf(idle), timer.nanoTime());
+    }
+  }
+
+  private static long pack(long generation, long state) {
+    return (generation << STATE_BITS) | state;
+  }
+
+  private static long generationOf(long state) {
+    return state >>> STATE_BITS;
+  }
+
+  private static long stateOf(long state) {
+    return state & STATE_MASK;
+  }
+
+  private static long saturatedAdd(long a, long b) {
+    long sum = a + b;
+    return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
   }
 
   /**
@@ -47,11 +287,36 @@ public final class Debouncer implements Runnable {
   }
 
   /**
-   * Cancels the debouncer. The target will not run unless {@link #run()} is called later.
+   * Gets the edges of a burst of calls on which the target runs.
+   */
+  public Edge getEdge() {
+    return edge;
+  }
+
+  /**
+   * Gets the maximum time to wait before running the target while calls keep being made, or null if there is no
+   * maximum.
+   */
+  public Duration getMaxWait() {
+    return maxWait;
+  }
+
+  /**
+   * Cancels the debouncer. The target will not run unless {@link #run()} is called later. This has no effect on a
+   * target that has already started running; if {@link #run()} is called before it returns, the new burst starts
+   * once it has returned.
    */
   public void cancel() {
-    if (future != null) {
-      future.cancel(true);
+    pending = false;
+    long current;
+    long cancelled;
+    do {
+      current = state.get();
+      cancelled = pack(generationOf(current) + 1, stateOf(current) == RUNNING ? RUNNING : IDLE);
+    } while (!state.compareAndSet(current, cancelled));
+    TimingWheel.Timeout armed = timeout;
+    if (armed != null) {
+      armed.cancel();
     }
   }
 }
@@ -0,0 +1,282 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of the executors created by {@link ThreadUtils}, so that their statistics can be reported and they can
+ * all be shut down when the application exits. Executors are removed from the registry when they terminate.
+ *
+ * <p>The registry only holds executors weakly, so it does not keep an executor that has been dropped without being
+ * shut down from being garbage collected once its threads have exited.</p>
+ */
+final class ExecutorRegistry extends UtilityClass {
+
+  /**
+   * How long to wait for executors to finish their tasks when the application shuts down.
+   */
+  static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(2);
+
+  private static final WeakRegistry<Instrumented> executors = new WeakRegistry<>();
+  private static final AtomicBoolean hookAdded = new AtomicBoolean(false);
+
+  /**
+   * An executor that keeps statistics about its tasks.
+   */
+  interface Instrumented {
+    String getName();
+
+    ExecutorStats getStats();
+
+    ThreadPoolExecutor getExecutor();
+  }
+
+  static ThreadPoolExecutor newThreadPool(String name, int threads) {
+    InstrumentedThreadPool executor = new InstrumentedThreadPool(
+        name, threads, threads, Duration.ofSeconds(30), new LinkedBlockingQueue<>(),
+        ThreadUtils.namedDaemonThreadFactory(name));
+    // Let idle threads exit, so an executor that is only used occasionally does not hold on to them
+    executor.allowCoreThreadTimeOut(true);
+    return register(executor);
+  }
+
+  /**
+   * Creates an executor that starts a new thread for each task, unless an idle thread is available.
+   *
+   * @param name          the name of the executor
+   * @param threadFactory the factory to create threads with
+   * @param keepAlive     how long idle threads wait for a new task before exiting
+   */
+  static ThreadPoolExecutor newUnboundedThreadPool(String name, ThreadFactory threadFactory, Duration keepAlive) {
+    return register(new InstrumentedThreadPool(
+        name, 0, Integer.MAX_VALUE, keepAlive, new SynchronousQueue<>(), threadFactory));
+  }
+
+  static ScheduledThreadPoolExecutor newScheduledThreadPool(String name, int threads) {
+    return register(new InstrumentedScheduledThreadPool(name, threads));
+  }
+
+  private static <E extends ThreadPoolExecutor & Instrumented> E register(E executor) {
+    executors.add(executor);
+    // Late, so that hooks in earlier phases can still submit tasks; the timeout leaves time to interrupt stragglers
+    if (hookAdded.compareAndSet(false, true)
+        && !ShutdownHooks.tryAddHook("Executors", ShutdownHooks.Phase.LATE, SHUTDOWN_TIMEOUT.plusSeconds(1),
+            () -> shutdownAll(SHUTDOWN_TIMEOUT))) {
+      // The hooks are already running, so the hook was not added; let a later executor try again
+      hookAdded.set(false);
+    }
+    return executor;
+  }
+
+  static List<ExecutorStats> getStats() {
+    List<ExecutorStats> stats = new ArrayList<>();
+    executors.forEach(executor -> stats.add(executor.getStats()));
+    stats.sort(Comparator.comparing(ExecutorStats::getName));
+    return stats;
+  }
+
+  /**
+   * Shuts down every registered executor, letting them finish the tasks they have already accepted. Executors that
+   * have not finished when the timeout passes are interrupted.
+   *
+   * @return true if every executor terminated within the timeout
+   */
+  static boolean shutdownAll(Duration timeout) throws InterruptedException {
+    List<Instrumented> toShutDown = new ArrayList<>();
+    executors.forEach(toShutDown::add);
+    for (Instrumented executor : toShutDown) {
+      executor.getExecutor().shutdown();
+    }
+    long deadline = System.nanoTime() + timeout.toNanos();
+    boolean terminated = true;
+    for (Instrumented executor : toShutDown) {
+      long remaining = deadline - System.nanoTime();
+      if (!executor.getExecutor().awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+        executor.getExecutor().shutdownNow();
+        terminated = false;
+      }
+    }
+    return terminated;
+  }
+
+  /**
+   * Counts rejected tasks before passing them to the default handler, which throws an exception.
+   */
+  private static final class CountingRejectionHandler implements RejectedExecutionHandler {
+    private final RejectedExecutionHandler delegate = new ThreadPoolExecutor.AbortPolicy();
+    final LongAdder rejected = new LongAdder();
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+      rejected.increment();
+      delegate.rejectedExecution(task, executor);
+    }
+  }
+
+  /**
+   * A task that remembers when it was submitted.
+   */
+  private static final class TimedTask implements Runnable {
+    final Runnable task;
+    final long submittedNanos = System.nanoTime();
+
+    TimedTask(Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      task.run();
+    }
+  }
+
+  private static final class InstrumentedThreadPool extends ThreadPoolExecutor implements Instrumented {
+    private final String name;
+    private final CountingRejectionHandler rejectionHandler;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+
+    InstrumentedThreadPool(String name,
+                           int coreThreads,
+                           int maxThreads,
+                           Duration keepAlive,
+                           BlockingQueue<Runnable> queue,
+                           ThreadFactory threadFactory) {
+      this(name, coreThreads, maxThreads, keepAlive, queue, threadFactory, new CountingRejectionHandler());
+    }
+
+    private InstrumentedThreadPool(String name,
+                                   int coreThreads,
+                                   int maxThreads,
+                                   Duration keepAlive,
+                                   BlockingQueue<Runnable> queue,
+                                   ThreadFactory threadFactory,
+                                   CountingRejectionHandler rejectionHandler) {
+      super(coreThreads, maxThreads, keepAlive.toNanos(), TimeUnit.NANOSECONDS, queue, threadFactory,
+          rejectionHandler);
+      this.name = name;
+      this.rejectionHandler = rejectionHandler;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      super.execute(new TimedTask(command));
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable error) {
+      super.afterExecute(task, error);
+      completed.increment();
+      if (task instanceof TimedTask) {
+        totalLatencyNanos.add(System.nanoTime() - ((TimedTask) task).submittedNanos);
+      }
+    }
+
+    @Override
+    protected void terminated() {
+      super.terminated();
+      executors.remove(this);
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ThreadPoolExecutor getExecutor() {
+      return this;
+    }
+
+    @Override
+    public ExecutorStats getStats() {
+      return stats(name, this, completed, totalLatencyNanos, rejectionHandler);
+    }
+  }
+
+  private static final class InstrumentedScheduledThreadPool extends ScheduledThreadPoolExecutor
+      implements Instrumented {
+    private final String name;
+    private final CountingRejectionHandler rejectionHandler;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+
+    InstrumentedScheduledThreadPool(String name, int threads) {
+      this(name, threads, new CountingRejectionHandler());
+    }
+
+    private InstrumentedScheduledThreadPool(String name, int threads, CountingRejectionHandler rejectionHandler) {
+      super(threads, ThreadUtils.namedDaemonThreadFactory(name), rejectionHandler);
+      this.name = name;
+      this.rejectionHandler = rejectionHandler;
+      // Cancelled tasks would otherwise stay in the queue, and be counted as queued, until their delay passed
+      setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable task) {
+      super.beforeExecute(thread, task);
+      startNanos.set(System.nanoTime());
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable error) {
+      super.afterExecute(task, error);
+      completed.increment();
+      Long start = startNanos.get();
+      if (start != null) {
+        totalLatencyNanos.add(System.nanoTime() - start);
+      }
+    }
+
+    @Override
+    protected void terminated() {
+      super.terminated();
+      executors.remove(this);
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ThreadPoolExecutor getExecutor() {
+      return this;
+    }
+
+    @Override
+    public ExecutorStats getStats() {
+      return stats(name, this, completed, totalLatencyNanos, rejectionHandler);
+    }
+  }
+
+  private static ExecutorStats stats(String name,
+                                     ThreadPoolExecutor executor,
+                                     LongAdder completed,
+                                     LongAdder totalLatencyNanos,
+                                     CountingRejectionHandler rejectionHandler) {
+    long completedCount = completed.sum();
+    return new ExecutorStats(
+        name,
+        executor.getActiveCount(),
+        executor.getQueue().size(),
+        completedCount,
+        rejectionHandler.rejected.sum(),
+        completedCount == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.sum() / completedCount)
+    );
+  }
+}
@@ -0,0 +1,84 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the statistics for an executor created by {@link ThreadUtils}.
+ *
+ * @see ThreadUtils#getExecutorStats()
+ */
+public final class ExecutorStats {
+
+  private final String name;
+  private final int activeCount;
+  private final int queuedCount;
+  private final long completedCount;
+  private final long rejectedCount;
+  private final Duration averageLatency;
+
+  ExecutorStats(String name,
+                int activeCount,
+                int queuedCount,
+                long completedCount,
+                long rejectedCount,
+                Duration averageLatency) {
+    this.name = name;
+    this.activeCount = activeCount;
+    this.queuedCount = queuedCount;
+    this.completedCount = completedCount;
+    this.rejectedCount = rejectedCount;
+    this.averageLatency = averageLatency;
+  }
+
+  /**
+   * Gets the name of the executor. This is also the prefix of the names of its threads.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the number of tasks that are running.
+   */
+  public int getActiveCount() {
+    return activeCount;
+  }
+
+  /**
+   * Gets the number of tasks waiting to run. For scheduled executors, this includes tasks waiting for their delay to
+   * pass.
+   */
+  public int getQueuedCount() {
+    return queuedCount;
+  }
+
+  /**
+   * Gets the number of tasks that have finished running, whether or not they threw an exception.
+   */
+  public long getCompletedCount() {
+    return completedCount;
+  }
+
+  /**
+   * Gets the number of tasks that were rejected, either because the executor was shut down or because its queue was
+   * full.
+   */
+  public long getRejectedCount() {
+    return rejectedCount;
+  }
+
+  /**
+   * Gets the average time from a task being submitted to it finishing. For scheduled executors, this is measured from
+   * when the task starts running, since a scheduled task is not expected to start until its delay has passed.
+   */
+  public Duration getAverageLatency() {
+    return averageLatency;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ExecutorStats(name=%s, active=%d, queued=%d, completed=%d, rejected=%d, averageLatency=%s)",
+        name, activeCount, queuedCount, completedCount, rejectedCount, averageLatency);
+  }
+}
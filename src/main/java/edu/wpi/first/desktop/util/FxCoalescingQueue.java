@@ -0,0 +1,181 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * A queue of updates to run on the JavaFX application thread, where only the latest update posted for each key is
+ * run. This is intended for sources that produce updates much faster than they can be shown, such as telemetry: each
+ * source posts its updates under its own key, and if several are posted before the application thread gets to them,
+ * only the last one is run.
+ *
+ * <p>Instead of sending every update through its own {@link javafx.application.Platform#runLater runLater} call, the
+ * queue is drained once per pulse, just before the scene graph is rendered. Each drain stops when it has run for
+ * longer than a time budget, leaving the remaining updates for the next pulse, so that a flood of updates cannot
+ * stop the application from responding to input. Updates are run in the order their keys were first posted, so every
+ * key is eventually drained. No pulses are requested while the queue is empty.</p>
+ *
+ * <p>Updates can be posted from any thread. If an update throws an exception, it is handled by the application
+ * thread's {@link java.lang.Thread.UncaughtExceptionHandler UncaughtExceptionHandler} and the remaining updates still
+ * run.</p>
+ *
+ * @param <K> the type of the keys that updates are posted with
+ */
+public final class FxCoalescingQueue<K> {
+
+  /**
+   * The default time budget of 4 milliseconds per pulse, or about a quarter of a pulse at 60 frames per second.
+   */
+  public static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(4);
+
+  // Each key is in the queue of keys only while it has a pending update
+  private final Queue<K> keys = new ConcurrentLinkedQueue<>();
+  private final Map<K, Runnable> pending = new ConcurrentHashMap<>();
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  private final Runnable requestPulses;
+  private volatile long timeBudgetNanos;
+
+  // Only accessed on the application thread
+  private AnimationTimer pulseTimer;
+
+  /**
+   * Creates a new queue with the {@link #DEFAULT_TIME_BUDGET default time budget}.
+   */
+  public FxCoalescingQueue() {
+    this(DEFAULT_TIME_BUDGET);
+  }
+
+  /**
+   * Creates a new queue.
+   *
+   * @param timeBudget the maximum time to spend running updates in each pulse
+   */
+  public FxCoalescingQueue(Duration timeBudget) {
+    this(timeBudget, null);
+  }
+
+  /**
+   * Creates a new queue that calls a function instead of starting to drain on pulses, for testing without a running
+   * JavaFX toolkit.
+   */
+  FxCoalescingQueue(Duration timeBudget, Runnable requestPulses) {
+    setTimeBudget(timeBudget);
+    this.requestPulses = requestPulses == null ? () -> FxUtils.runOnFxThread(this::startPulses) : requestPulses;
+  }
+
+  /**
+   * Posts an update to run on the application thread. This replaces any update for the same key that has not run yet.
+   *
+   * @param key    the key to post the update for
+   * @param update the update to run
+   */
+  public void post(K key, Runnable update) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(update, "update");
+    if (pending.put(key, update) == null) {
+      keys.add(key);
+    }
+    if (draining.compareAndSet(false, true)) {
+      requestPulses.run();
+    }
+  }
+
+  /**
+   * Removes the pending update for a key, if it has not run yet.
+   *
+   * @param key the key to remove the update for
+   *
+   * @return true if an update was removed, false if there was no pending update for the key
+   */
+  public boolean remove(K key) {
+    Objects.requireNonNull(key, "key");
+    // The key is left in the queue of keys, and is skipped when it is reached
+    return pending.remove(key) != null;
+  }
+
+  /**
+   * Gets the number of keys that have updates waiting to run.
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Gets the maximum time to spend running updates in each pulse.
+   */
+  public Duration getTimeBudget() {
+    return Duration.ofNanos(timeBudgetNanos);
+  }
+
+  /**
+   * Sets the maximum time to spend running updates in each pulse. At least one update is run in each pulse, however
+   * long it takes.
+   *
+   * @param timeBudget the maximum time to spend running updates in each pulse
+   */
+  public void setTimeBudget(Duration timeBudget) {
+    Objects.requireNonNull(timeBudget, "timeBudget");
+    if (timeBudget.isNegative()) {
+      throw new IllegalArgumentException("Time budget cannot be negative: " + timeBudget);
+    }
+    this.timeBudgetNanos = timeBudget.toNanos();
+  }
+
+  private void startPulses() {
+    if (pulseTimer == null) {
+      pulseTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+          onPulse();
+        }
+      };
+    }
+    pulseTimer.start();
+  }
+
+  private void onPulse() {
+    if (drain()) {
+      return;
+    }
+    // Stop requesting pulses while there is nothing to do
+    pulseTimer.stop();
+    draining.set(false);
+    if (!keys.isEmpty() && draining.compareAndSet(false, true)) {
+      // An update was posted after the queue was drained, but before the flag was cleared
+      pulseTimer.start();
+    }
+  }
+
+  /**
+   * Runs pending updates until the queue is empty or the time budget has been used.
+   *
+   * @return true if there are updates remaining
+   */
+  boolean drain() {
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    K key;
+    while ((key = keys.poll()) != null) {
+      Runnable update = pending.remove(key);
+      if (update == null) {
+        // Removed before it could run
+        continue;
+      }
+      try {
+        update.run();
+      } catch (RuntimeException e) {
+        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+      }
+      if (System.nanoTime() - deadline >= 0) {
+        break;
+      }
+    }
+    return !keys.isEmpty();
+  }
+}
@@ -0,0 +1,21 @@
+package edu.wpi.first.desktop.util;
+
+/**
+ * The priority of a task run on the JavaFX application thread with {@link FxUtils#runLater(FxPriority, Runnable)}.
+ * Higher priority tasks are always run before lower priority ones.
+ */
+public enum FxPriority {
+  /**
+   * For work the user is waiting to see, such as the response to input.
+   */
+  INTERACTIVE,
+  /**
+   * For ordinary work.
+   */
+  NORMAL,
+  /**
+   * For bulk work that can wait, such as refreshing data in the background. Background tasks only run when no
+   * interactive or normal tasks are waiting.
+   */
+  BACKGROUND
+}
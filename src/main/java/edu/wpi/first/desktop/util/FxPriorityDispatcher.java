@@ -0,0 +1,268 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javafx.application.Platform;
+
+/**
+ * Runs tasks on the JavaFX application thread in order of {@link FxPriority priority}. Each priority has its own
+ * lane, and tasks in a lane run in the order they were posted. All the lanes are served by a single drain task posted
+ * with {@link Platform#runLater}, which always takes the next task from the highest priority lane that has one. Each
+ * drain stops when it has run for longer than a time budget, and the remaining tasks are left for a new drain task at
+ * the back of the JavaFX event queue, so input events and rendering are not held up by a long backlog of work.
+ *
+ * <p>The depth of each lane and how long its tasks waited to run are tracked, and can be read with
+ * {@link #getStats(FxPriority)}.</p>
+ *
+ * <p>Tasks can be posted from any thread. If a task throws an exception, it is handled by the application thread's
+ * {@link java.lang.Thread.UncaughtExceptionHandler UncaughtExceptionHandler} and the remaining tasks still run.</p>
+ */
+public final class FxPriorityDispatcher {
+
+  /**
+   * The default time budget of 8 milliseconds per drain, or about half of a pulse at 60 frames per second.
+   */
+  public static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(8);
+
+  private static final FxPriority[] PRIORITIES = FxPriority.values();
+
+  private final Map<FxPriority, Lane> lanes = new EnumMap<>(FxPriority.class);
+  private final AtomicBoolean drainPosted = new AtomicBoolean(false);
+  private final Executor fxExecutor;
+  private volatile long timeBudgetNanos;
+
+  /**
+   * Creates a new dispatcher with the {@link #DEFAULT_TIME_BUDGET default time budget}.
+   */
+  public FxPriorityDispatcher() {
+    this(DEFAULT_TIME_BUDGET);
+  }
+
+  /**
+   * Creates a new dispatcher.
+   *
+   * @param timeBudget the maximum time to spend running tasks in each drain
+   */
+  public FxPriorityDispatcher(Duration timeBudget) {
+    this(timeBudget, Platform::runLater);
+  }
+
+  /**
+   * Creates a dispatcher that posts its drain task with an executor other than {@link Platform#runLater}, for testing
+   * without a running JavaFX toolkit.
+   */
+  FxPriorityDispatcher(Duration timeBudget, Executor fxExecutor) {
+    setTimeBudget(timeBudget);
+    this.fxExecutor = Objects.requireNonNull(fxExecutor, "fxExecutor");
+    for (FxPriority priority : PRIORITIES) {
+      lanes.put(priority, new Lane());
+    }
+  }
+
+  /**
+   * Posts a task to run on the application thread. Unlike {@link FxUtils#runOnFxThread(Runnable)}, the task is always
+   * queued, even if this is called from the application thread.
+   *
+   * @param priority the priority of the task
+   * @param task     the task to run
+   */
+  public void post(FxPriority priority, Runnable task) {
+    Objects.requireNonNull(priority, "priority");
+    Objects.requireNonNull(task, "task");
+    Lane lane = lanes.get(priority);
+    lane.depth.incrementAndGet();
+    lane.tasks.add(new Task(task, System.nanoTime()));
+    if (drainPosted.compareAndSet(false, true)) {
+      fxExecutor.execute(this::drain);
+    }
+  }
+
+  /**
+   * Gets the maximum time to spend running tasks in each drain.
+   */
+  public Duration getTimeBudget() {
+    return Duration.ofNanos(timeBudgetNanos);
+  }
+
+  /**
+   * Sets the maximum time to spend running tasks in each drain. At least one task is run in each drain, however long
+   * it takes.
+   *
+   * @param timeBudget the maximum time to spend running tasks in each drain
+   */
+  public void setTimeBudget(Duration timeBudget) {
+    Objects.requireNonNull(timeBudget, "timeBudget");
+    if (timeBudget.isNegative()) {
+      throw new IllegalArgumentException("Time budget cannot be negative: " + timeBudget);
+    }
+    this.timeBudgetNanos = timeBudget.toNanos();
+  }
+
+  /**
+   * Gets a snapshot of the statistics for a lane.
+   *
+   * @param priority the priority of the lane to get the statistics for
+   */
+  public LaneStats getStats(FxPriority priority) {
+    Objects.requireNonNull(priority, "priority");
+    Lane lane = lanes.get(priority);
+    return new LaneStats(
+        priority,
+        lane.depth.get(),
+        lane.completed.sum(),
+        lane.totalWaitNanos.sum(),
+        lane.maxWaitNanos.get()
+    );
+  }
+
+  /**
+   * Resets the completed task counts and wait times of every lane. Queue depths are not affected.
+   */
+  public void resetStats() {
+    for (Lane lane : lanes.values()) {
+      lane.completed.reset();
+      lane.totalWaitNanos.reset();
+      lane.maxWaitNanos.set(0);
+    }
+  }
+
+  private void drain() {
+    long start = System.nanoTime();
+    long deadline = start + timeBudgetNanos;
+    while (true) {
+      Lane lane = nextLane();
+      if (lane == null) {
+        drainPosted.set(false);
+        if (nextLane() != null && drainPosted.compareAndSet(false, true)) {
+          // A task was posted after the lanes were found to be empty, but before the flag was cleared
+          fxExecutor.execute(this::drain);
+        }
+        return;
+      }
+      Task task = lane.tasks.poll();
+      lane.depth.decrementAndGet();
+      long now = System.nanoTime();
+      lane.recordWait(now - task.postedNanos);
+      try {
+        task.runnable.run();
+      } catch (Throwable e) { //NOPMD
+        // Errors too, since letting anything escape would leave drainPosted set and no drain would ever be posted again
+        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+      }
+      lane.completed.increment();
+      if (System.nanoTime() - deadline >= 0) {
+        // Out of time; let the application handle input and render before continuing
+        fxExecutor.execute(this::drain);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Gets the highest priority lane that has a task waiting, or null if all the lanes are empty. Only the drain task
+   * takes tasks from the lanes, so a lane found here will still have a task when it is polled.
+   */
+  private Lane nextLane() {
+    for (FxPriority priority : PRIORITIES) {
+      Lane lane = lanes.get(priority);
+      if (!lane.tasks.isEmpty()) {
+        return lane;
+      }
+    }
+    return null;
+  }
+
+  private static final class Task {
+    final Runnable runnable;
+    final long postedNanos;
+
+    Task(Runnable runnable, long postedNanos) {
+      this.runnable = runnable;
+      this.postedNanos = postedNanos;
+    }
+  }
+
+  private static final class Lane {
+    final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+    // Tracked separately because ConcurrentLinkedQueue.size() is linear
+    final AtomicInteger depth = new AtomicInteger();
+    final LongAdder completed = new LongAdder();
+    final LongAdder totalWaitNanos = new LongAdder();
+    final AtomicLong maxWaitNanos = new AtomicLong();
+
+    void recordWait(long waitNanos) {
+      totalWaitNanos.add(waitNanos);
+      maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+  }
+
+  /**
+   * A snapshot of the statistics for one lane of a dispatcher.
+   */
+  public static final class LaneStats {
+    private final FxPriority priority;
+    private final int queueDepth;
+    private final long completedCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    LaneStats(FxPriority priority, int queueDepth, long completedCount, long totalWaitNanos, long maxWaitNanos) {
+      this.priority = priority;
+      this.queueDepth = queueDepth;
+      this.completedCount = completedCount;
+      this.totalWaitNanos = totalWaitNanos;
+      this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * Gets the priority of the lane.
+     */
+    public FxPriority getPriority() {
+      return priority;
+    }
+
+    /**
+     * Gets the number of tasks waiting to run in the lane.
+     */
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+
+    /**
+     * Gets the number of tasks from the lane that have run.
+     */
+    public long getCompletedCount() {
+      return completedCount;
+    }
+
+    /**
+     * Gets the average time the tasks from the lane waited between being posted and starting to run.
+     */
+    public Duration getAverageWait() {
+      return completedCount == 0 ? Duration.ZERO : Duration.ofNanos(totalWaitNanos / completedCount);
+    }
+
+    /**
+     * Gets the longest time a task from the lane waited between being posted and starting to run.
+     */
+    public Duration getMaxWait() {
+      return Duration.ofNanos(maxWaitNanos);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("LaneStats(priority=%s, queueDepth=%d, completed=%d, averageWait=%s, maxWait=%s)",
+          priority, queueDepth, completedCount, getAverageWait(), getMaxWait());
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package edu.wpi.first.desktop.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event for a stall of the JavaFX application thread. Only use through {@link FxThreadWatchdog}.
+ */
+@Name("edu.wpi.first.desktop.util.FxStall")
+@Label("FX Thread Stall")
+@Category({"WPILib", "JavaFX"})
+@Description("The JavaFX application thread did not run a heartbeat within the stall threshold")
+final class FxStallEvent extends Event {
+
+  @Label("Delay")
+  @Description("How long the heartbeat had been waiting to run when the stall was detected")
+  @Timespan(Timespan.NANOSECONDS)
+  long delay;
+
+  // Not named stackTrace, which is the name of the implicit field for the stack trace of the recording thread
+  @Label("FX Stack Trace")
+  @Description("The stack trace of the application thread when the stall was detected")
+  String fxStackTrace;
+
+  static void commit(long delayNanos, StackTraceElement[] stackTrace) {
+    FxStallEvent event = new FxStallEvent();
+    if (!event.isEnabled()) {
+      return;
+    }
+    event.delay = delayNanos;
+    StringBuilder trace = new StringBuilder();
+    for (StackTraceElement element : stackTrace) {
+      trace.append("at ").append(element).append('\n');
+    }
+    event.fxStackTrace = trace.toString();
+    event.commit();
+  }
+}
@@ -0,0 +1,170 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A task queued to run on the JavaFX application thread. Use {@link FxUtils#submit(Supplier)} to create one. The
+ * result of the task is available through a {@link CompletableFuture}, and the task can be cancelled for as long as it
+ * has not started running.
+ *
+ * <p>Unlike {@link FxUtils#runAndWait(Runnable)}, waiting for a task can be limited by a timeout, so a thread that
+ * needs the application thread to do something will not hang forever if the application thread is blocked or has
+ * stopped, for example during shutdown:</p>
+ * <pre>{@code
+ * FxTask<String> task = FxUtils.submit(() -> textField.getText());
+ * if (task.awaitOrCancel(Duration.ofSeconds(1)) == FxTask.Outcome.RAN) {
+ *   String text = task.getResult().join();
+ * }
+ * }</pre>
+ *
+ * @param <T> the type of the result of the task
+ */
+public final class FxTask<T> {
+
+  /**
+   * The outcome of waiting for a task.
+   */
+  public enum Outcome {
+    /**
+     * The task ran to completion, either returning a result or throwing an exception.
+     */
+    RAN,
+    /**
+     * The task did not finish before the timeout.
+     */
+    TIMED_OUT,
+    /**
+     * The task was cancelled before it started running.
+     */
+    CANCELLED
+  }
+
+  private final Supplier<T> task;
+  private final CompletableFuture<T> result = new CompletableFuture<>();
+  // Claimed by whichever of running and cancelling happens first
+  private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+  private FxTask(Supplier<T> task) {
+    this.task = task;
+  }
+
+  /**
+   * Queues a task with an executor other than {@link javafx.application.Platform#runLater}, for testing without a
+   * running JavaFX toolkit.
+   */
+  static <T> FxTask<T> submit(Supplier<T> task, Executor fxExecutor) {
+    Objects.requireNonNull(task, "Null task");
+    FxTask<T> fxTask = new FxTask<>(task);
+    fxExecutor.execute(fxTask::run);
+    return fxTask;
+  }
+
+  /**
+   * Creates a task and runs it immediately on the current thread.
+   */
+  static <T> FxTask<T> runNow(Supplier<T> task) {
+    Objects.requireNonNull(task, "Null task");
+    FxTask<T> fxTask = new FxTask<>(task);
+    fxTask.run();
+    return fxTask;
+  }
+
+  private void run() {
+    if (!claimed.compareAndSet(false, true) || result.isCancelled()) {
+      // Cancelled
+      return;
+    }
+    try {
+      result.complete(task.get());
+    } catch (Throwable e) { //NOPMD
+      result.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Gets the result of the task. This is completed with the value returned by the task, exceptionally with any
+   * exception it throws, or with a {@link CancellationException} if the task is cancelled. Cancelling this future
+   * before the task starts running also stops it from running.
+   */
+  public CompletableFuture<T> getResult() {
+    return result;
+  }
+
+  /**
+   * Cancels the task if it has not started running yet.
+   *
+   * @return true if the task was cancelled and will not run, false if it had already started or was already cancelled
+   */
+  public boolean cancel() {
+    if (claimed.compareAndSet(false, true)) {
+      result.cancel(false);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the task was cancelled.
+   */
+  public boolean isCancelled() {
+    return result.isCancelled();
+  }
+
+  /**
+   * Waits for the task to finish. The task is left queued or running if it does not finish in time.
+   *
+   * @param timeout the maximum time to wait
+   *
+   * @return the outcome of the task
+   *
+   * @throws InterruptedException if the calling thread was interrupted while waiting
+   */
+  public Outcome await(Duration timeout) throws InterruptedException {
+    Objects.requireNonNull(timeout, "timeout");
+    try {
+      result.get(Math.max(0, timeout.toNanos()), TimeUnit.NANOSECONDS);
+      return Outcome.RAN;
+    } catch (CancellationException e) {
+      return Outcome.CANCELLED;
+    } catch (ExecutionException e) {
+      return Outcome.RAN;
+    } catch (TimeoutException e) {
+      return Outcome.TIMED_OUT;
+    }
+  }
+
+  /**
+   * Waits for the task to finish, cancelling it if it has not started running by the time the timeout passes or the
+   * calling thread is interrupted. A task that has already started running when the timeout passes is left to finish
+   * in the background.
+   *
+   * @param timeout the maximum time to wait
+   *
+   * @return the outcome of the task. This is {@link Outcome#TIMED_OUT TIMED_OUT} if the task did not finish in time,
+   *         whether or not it could be cancelled; use {@link #getResult()} to find out if it finished later
+   *
+   * @throws InterruptedException if the calling thread was interrupted while waiting
+   */
+  public Outcome awaitOrCancel(Duration timeout) throws InterruptedException {
+    Outcome outcome;
+    try {
+      outcome = await(timeout);
+    } catch (InterruptedException e) {
+      cancel();
+      throw e;
+    }
+    if (outcome == Outcome.TIMED_OUT) {
+      cancel();
+    }
+    return outcome;
+  }
+}
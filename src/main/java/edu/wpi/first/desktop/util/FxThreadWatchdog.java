@@ -0,0 +1,305 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javafx.application.Platform;
+
+/**
+ * Detects when the JavaFX application thread is blocked. While the watchdog is running, it posts a heartbeat to the
+ * application thread with {@link Platform#runLater} at a fixed interval and measures how long each one takes to run.
+ * If a heartbeat has been waiting for longer than the stall threshold, the application thread's stack trace is
+ * captured and reported to the stall listeners, and as a {@code edu.wpi.first.desktop.util.FxStall} JFR event when
+ * JFR is recording. Each stall is only reported once, however long it lasts.
+ *
+ * <p>The watchdog only has one heartbeat waiting at a time, so a blocked application thread does not fill up with
+ * heartbeats, and while the application thread is healthy the only cost is one small task per interval. Stack traces
+ * are only captured when a stall is detected. This makes it cheap enough to leave running in production.</p>
+ *
+ * <pre>{@code
+ * FxThreadWatchdog watchdog = new FxThreadWatchdog(Duration.ofMillis(100), Duration.ofMillis(500));
+ * watchdog.addStallListener(stall -> log.warning("FX thread stalled for " + stall.getDelay()));
+ * watchdog.start();
+ * }</pre>
+ */
+public final class FxThreadWatchdog {
+
+  /**
+   * The default interval between heartbeats, 100 milliseconds.
+   */
+  public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(100);
+
+  /**
+   * The default stall threshold, 500 milliseconds.
+   */
+  public static final Duration DEFAULT_THRESHOLD = Duration.ofMillis(500);
+
+  private static final String FX_THREAD_NAME = "JavaFX Application Thread";
+
+  private static final boolean jfrAvailable = isJfrAvailable();
+
+  private final Duration interval;
+  private final Duration threshold;
+  private final long thresholdNanos;
+  private final Executor fxExecutor;
+  private final LongSupplier clock;
+  private final List<Consumer<Stall>> stallListeners = new CopyOnWriteArrayList<>();
+
+  private ScheduledExecutorService scheduler;
+  private ScheduledFuture<?> check;
+
+  private volatile Thread fxThread;
+  // The time the waiting heartbeat was posted, or 0 if no heartbeat is waiting
+  private volatile long heartbeatPostedNanos = 0;
+  private volatile boolean stallReported = false;
+  private volatile long lastDelayNanos = 0;
+  // Only written by the application thread and the watchdog thread, respectively
+  private volatile long heartbeatCount = 0;
+  private volatile long stallCount = 0;
+
+  /**
+   * Creates a new watchdog with the default interval and threshold. The watchdog does nothing until it is
+   * {@link #start() started}.
+   */
+  public FxThreadWatchdog() {
+    this(DEFAULT_INTERVAL, DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Creates a new watchdog. The watchdog does nothing until it is {@link #start() started}.
+   *
+   * @param interval  the interval between heartbeats
+   * @param threshold how long a heartbeat must wait before the application thread is considered stalled
+   */
+  public FxThreadWatchdog(Duration interval, Duration threshold) {
+    this(interval, threshold, Platform::runLater, System::nanoTime);
+  }
+
+  /**
+   * Creates a watchdog that posts heartbeats with an executor other than {@link Platform#runLater} and measures them
+   * with a clock other than {@link System#nanoTime()}, for testing without a running JavaFX toolkit. Tests can call
+   * {@link #check()} directly instead of starting the watchdog. Should only be used in tests.
+   */
+  FxThreadWatchdog(Duration interval, Duration threshold, Executor fxExecutor, LongSupplier clock) {
+    this.interval = Objects.requireNonNull(interval, "interval");
+    this.threshold = Objects.requireNonNull(threshold, "threshold");
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("Interval must be positive: " + interval);
+    }
+    if (threshold.isNegative() || threshold.isZero()) {
+      throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+    }
+    this.thresholdNanos = threshold.toNanos();
+    this.fxExecutor = Objects.requireNonNull(fxExecutor, "fxExecutor");
+    this.clock = Objects.requireNonNull(clock, "clock");
+  }
+
+  /**
+   * Starts posting heartbeats. This has no effect if the watchdog is already running.
+   */
+  public synchronized void start() {
+    if (scheduler != null) {
+      return;
+    }
+    scheduler = ThreadUtils.newDaemonScheduledExecutorService("FX-Watchdog");
+    long intervalNanos = interval.toNanos();
+    check = scheduler.scheduleAtFixedRate(this::check, 0, intervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Stops posting heartbeats and shuts down the watchdog's thread. The watchdog can be started again later.
+   */
+  public synchronized void stop() {
+    if (scheduler == null) {
+      return;
+    }
+    check.cancel(false);
+    scheduler.shutdown();
+    scheduler = null;
+    check = null;
+    heartbeatPostedNanos = 0;
+  }
+
+  /**
+   * Checks if the watchdog is running.
+   */
+  public synchronized boolean isRunning() {
+    return scheduler != null;
+  }
+
+  /**
+   * Adds a listener to be notified when a stall is detected. Listeners are called on the watchdog's thread, not the
+   * application thread (which is, after all, stalled).
+   *
+   * @param listener the listener to add
+   */
+  public void addStallListener(Consumer<Stall> listener) {
+    stallListeners.add(Objects.requireNonNull(listener, "listener"));
+  }
+
+  /**
+   * Removes a stall listener.
+   *
+   * @param listener the listener to remove
+   */
+  public void removeStallListener(Consumer<Stall> listener) {
+    stallListeners.remove(listener);
+  }
+
+  /**
+   * Gets the interval between heartbeats.
+   */
+  public Duration getInterval() {
+    return interval;
+  }
+
+  /**
+   * Gets how long a heartbeat must wait before the application thread is considered stalled.
+   */
+  public Duration getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Gets how long the most recent heartbeat waited before it ran.
+   */
+  public Duration getLastDelay() {
+    return Duration.ofNanos(lastDelayNanos);
+  }
+
+  /**
+   * Gets the number of heartbeats that have run.
+   */
+  public long getHeartbeatCount() {
+    return heartbeatCount;
+  }
+
+  /**
+   * Gets the number of stalls that have been detected.
+   */
+  public long getStallCount() {
+    return stallCount;
+  }
+
+  /**
+   * Posts a heartbeat if none is waiting, or checks how long the waiting one has waited. Only called on the watchdog
+   * thread, or by tests that drive the watchdog manually.
+   */
+  void check() {
+    long now = clock.getAsLong();
+    long posted = heartbeatPostedNanos;
+    if (posted == 0) {
+      heartbeatPostedNanos = now;
+      stallReported = false;
+      try {
+        fxExecutor.execute(() -> heartbeat(now));
+      } catch (IllegalStateException e) {
+        // The JavaFX toolkit is not running (yet, or any more), so there is nothing to watch
+        heartbeatPostedNanos = 0;
+      }
+      return;
+    }
+    long delay = now - posted;
+    if (delay >= thresholdNanos && !stallReported) {
+      stallReported = true;
+      reportStall(delay);
+    }
+  }
+
+  private void heartbeat(long postedNanos) {
+    fxThread = Thread.currentThread();
+    lastDelayNanos = clock.getAsLong() - postedNanos;
+    heartbeatCount++;
+    heartbeatPostedNanos = 0;
+  }
+
+  private void reportStall(long delayNanos) {
+    stallCount++;
+    Thread thread = findFxThread();
+    StackTraceElement[] stackTrace = thread == null ? new StackTraceElement[0] : thread.getStackTrace();
+    if (jfrAvailable) {
+      FxStallEvent.commit(delayNanos, stackTrace);
+    }
+    Stall stall = new Stall(Instant.now(), Duration.ofNanos(delayNanos), stackTrace);
+    for (Consumer<Stall> listener : stallListeners) {
+      try {
+        listener.accept(stall);
+      } catch (RuntimeException e) {
+        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+      }
+    }
+  }
+
+  private Thread findFxThread() {
+    Thread thread = fxThread;
+    if (thread != null) {
+      return thread;
+    }
+    // No heartbeat has run yet, so the thread has to be found by name
+    for (Map.Entry<Thread, StackTraceElement[]> entry : Thread.getAllStackTraces().entrySet()) {
+      if (FX_THREAD_NAME.equals(entry.getKey().getName())) {
+        return entry.getKey();
+      }
+    }
+    return null;
+  }
+
+  private static boolean isJfrAvailable() {
+    Optional<Module> jfr = ModuleLayer.boot().findModule("jdk.jfr");
+    return jfr.isPresent() && FxThreadWatchdog.class.getModule().canRead(jfr.get());
+  }
+
+  /**
+   * A detected stall of the application thread.
+   */
+  public static final class Stall {
+    private final Instant detectedAt;
+    private final Duration delay;
+    private final StackTraceElement[] stackTrace;
+
+    Stall(Instant detectedAt, Duration delay, StackTraceElement[] stackTrace) {
+      this.detectedAt = detectedAt;
+      this.delay = delay;
+      this.stackTrace = stackTrace;
+    }
+
+    /**
+     * Gets the time the stall was detected.
+     */
+    public Instant getDetectedAt() {
+      return detectedAt;
+    }
+
+    /**
+     * Gets how long the application thread had been stalled when the stall was detected. The stall may have gone on
+     * for longer.
+     */
+    public Duration getDelay() {
+      return delay;
+    }
+
+    /**
+     * Gets the stack trace of the application thread when the stall was detected. This is empty if the application
+     * thread could not be found.
+     */
+    public StackTraceElement[] getStackTrace() {
+      return stackTrace.clone();
+    }
+
+    @Override
+    public String toString() {
+      return "Stall(detectedAt=" + detectedAt + ", delay=" + delay + ")";
+    }
+  }
+}
@@ -1,7 +1,9 @@
 package edu.wpi.first.desktop.util;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.Supplier;
 
@@ -61,12 +63,46 @@ public final class FxUtils extends UtilityClass {
     runOnFxThread(batchRunnables(tasks));
   }
 
+  /**
+   * Runs an update on the application thread, replacing any update posted with the same key that has not run yet.
+   * Updates are drained once per pulse from a single shared {@link FxCoalescingQueue}, so posting thousands of updates
+   * per second does not flood the JavaFX event queue. Use a separate queue to give a set of updates its own time
+   * budget.
+   *
+   * @param key    the key identifying what the update is for, such as the data source or control being updated
+   * @param update the update to run
+   */
+  public static void runCoalesced(Object key, Runnable update) {
+    SharedQueue.INSTANCE.post(key, update);
+  }
+
+  /**
+   * Schedules a task to run later on the application thread, ahead of any waiting tasks with lower priorities. The
+   * task is always queued, even if this is called from the application thread. Tasks are run by a single shared
+   * {@link FxPriorityDispatcher}.
+   *
+   * @param priority the priority of the task
+   * @param task     the task to run
+   */
+  public static void runLater(FxPriority priority, Runnable task) {
+    SharedDispatcher.INSTANCE.post(priority, task);
+  }
+
+  /**
+   * Gets the dispatcher used by {@link #runLater(FxPriority, Runnable)}, for example to read the statistics for each
+   * priority or to change its time budget.
+   */
+  public static FxPriorityDispatcher getPriorityDispatcher() {
+    return SharedDispatcher.INSTANCE;
+  }
+
   /**
    * Runs a task on the FX thread and blocks until the task completes or throws an error.
    *
    * @param task the task to run
    *
    * @throws InterruptedException if the calling thread was interrupted while waiting for the task to complete
+   * @see #runAndWait(Runnable, Duration)
    */
   public static void runAndWait(Runnable task) throws InterruptedException {
     // Code taken verbatim from the now-inaccessible method
@@ -88,6 +124,59 @@ public final class FxUtils extends UtilityClass {
     }
   }
 
+  /**
+   * Runs a task on the FX thread and blocks until the task completes, the timeout passes, or the calling thread is
+   * interrupted. If the task has not started running when the timeout passes or the thread is interrupted, it is
+   * cancelled and will not run. If this is called from the application thread, the task is run immediately.
+   *
+   * @param task    the task to run
+   * @param timeout the maximum time to wait for the task to complete
+   *
+   * @return whether the task ran or timed out
+   *
+   * @throws InterruptedException if the calling thread was interrupted while waiting for the task to complete
+   * @throws RuntimeException     if the task threw an exception, it is rethrown on the calling thread
+   * @see FxTask#awaitOrCancel(Duration)
+   */
+  public static FxTask.Outcome runAndWait(Runnable task, Duration timeout) throws InterruptedException {
+    Objects.requireNonNull(task, "Null task");
+    Objects.requireNonNull(timeout, "timeout");
+    Supplier<Void> supplier = () -> {
+      task.run();
+      return null;
+    };
+    FxTask<Void> fxTask = Platform.isFxApplicationThread() ? FxTask.runNow(supplier) : submit(supplier);
+    FxTask.Outcome outcome = fxTask.awaitOrCancel(timeout);
+    if (outcome == FxTask.Outcome.RAN && fxTask.getResult().isCompletedExceptionally()) {
+      try {
+        fxTask.getResult().join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        } else if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw e;
+      }
+    }
+    return outcome;
+  }
+
+  /**
+   * Queues a task to run on the application thread. Unlike {@link #runOnFxThread(Supplier)}, the task is always queued,
+   * even if this is called from the application thread, and it can be cancelled until it starts running. The returned
+   * task can be waited for with a timeout; do not wait for it on the application thread, since it cannot run until
+   * the application thread is free.
+   *
+   * @param <T>  the type of objects returned by the task
+   * @param task the task to run
+   *
+   * @return the queued task
+   */
+  public static <T> FxTask<T> submit(Supplier<T> task) {
+    return FxTask.submit(task, Platform::runLater);
+  }
+
   /**
    * Schedules a batch of tasks to run later on the application thread and blocks until all tasks have completed.
    *
@@ -133,4 +222,18 @@ public final class FxUtils extends UtilityClass {
   public static void requestClose(Window window) {
     window.fireEvent(new WindowEvent(window, WindowEvent.WINDOW_CLOSE_REQUEST));
   }
+
+  /**
+   * Holds the queue used by {@link #runCoalesced}, so it is only created when first used.
+   */
+  private static final class SharedQueue {
+    static final FxCoalescingQueue<Object> INSTANCE = new FxCoalescingQueue<>();
+  }
+
+  /**
+   * Holds the dispatcher used by {@link #runLater(FxPriority, Runnable)}, so it is only created when first used.
+   */
+  private static final class SharedDispatcher {
+    static final FxPriorityDispatcher INSTANCE = new FxPriorityDispatcher();
+  }
 }
@@ -1,22 +1,53 @@
 package edu.wpi.first.desktop.util;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javafx.application.Application;
 
 /**
- * Handles shutdown hooks to run when the application closes. Hooks are run in the order in which they are added.
+ * Handles shutdown hooks to run when the application closes.
  *
  * <p>Application classes should call {@link #runAllHooks() ShutdownHooks.runAllHooks()} in their
  * {@link Application#stop() stop()} method.</p>
  *
+ * <p>Hooks are run in {@link Phase phases}, and every hook in one phase finishes before the next phase starts. Hooks
+ * added with {@link #addHook(Hook)} are in the {@link Phase#SEQUENTIAL sequential} phase: they run one at a time, in
+ * the order in which they are added, on the thread that calls {@link #runAllHooks()}, so they may use state that is
+ * confined to that thread, such as the JavaFX scene graph when called from {@code stop()}.</p>
+ *
+ * <p>Hooks in the other phases run in parallel on background daemon threads. Hooks that depend on each other, such
+ * as one that writes settings and one that closes the connection they are written to, should be added to different
+ * phases. Since the thread calling {@link #runAllHooks()} is blocked until they finish, these hooks must not wait for
+ * that thread; in particular, they cannot wait for tasks on the JavaFX application thread. Each of these hooks has a
+ * timeout, and all the hooks together have a deadline, so that one slow hook cannot stop the application from exiting.
+ * A hook that runs past its timeout or the deadline is interrupted and left behind. Phases that have not started when
+ * the deadline passes are skipped. {@link #runAllHooks(Duration)} returns a {@link ShutdownReport report} of how long
+ * each hook took.</p>
+ *
  * <p>This class exists mostly because hooks registered via {@link Runtime#addShutdownHook} are not guaranteed to run
  * when shutting down a JavaFX application, and because they run in a nondeterministic order.
  */
 public final class ShutdownHooks extends UtilityClass {
 
-  private static final Queue<Hook> hooks = new ConcurrentLinkedQueue<>();
+  /**
+   * The default time a hook is allowed to run for.
+   */
+  public static final Duration DEFAULT_HOOK_TIMEOUT = Duration.ofSeconds(5);
+
+  /**
+   * The default time all the hooks together are allowed to run for.
+   */
+  public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(10);
+
+  private static final Queue<Registration> hooks = new ConcurrentLinkedQueue<>();
   private static volatile boolean runningHooks = false;
 
   @FunctionalInterface
@@ -25,13 +56,79 @@ public final class ShutdownHooks extends UtilityClass {
   }
 
   /**
-   * Adds a hook to be run at shutdown. If the hooks are already running, this has no effect.
+   * The phases that hooks are run in, in order.
+   */
+  public enum Phase {
+    /**
+     * For hooks that must run before anything is torn down, such as saving the state of the application. Hooks in
+     * this phase run in parallel.
+     */
+    EARLY,
+    /**
+     * For hooks added with {@link #addHook(Hook)}. Hooks in this phase run one at a time, in the order in which they
+     * were added, on the thread that calls {@link #runAllHooks()}. They are never interrupted and always run, even if
+     * they take longer than their timeout or the deadline has passed, but the time they take counts against the
+     * deadline for the later phases.
+     */
+    SEQUENTIAL,
+    /**
+     * For most hooks that can run in parallel with each other.
+     */
+    NORMAL,
+    /**
+     * For hooks that release resources the other hooks may use, such as shutting down executors. Hooks in this phase
+     * run in parallel.
+     */
+    LATE
+  }
+
+  /**
+   * Adds a hook to be run at shutdown in the {@link Phase#SEQUENTIAL sequential} phase, after the hooks that were
+   * added before it. If the hooks are already running, this has no effect.
    */
   public static void addHook(Hook hook) {
+    addHook(Phase.SEQUENTIAL, hook);
+  }
+
+  /**
+   * Adds a hook to be run at shutdown in the given phase, with the {@link #DEFAULT_HOOK_TIMEOUT default timeout}. If
+   * the hooks are already running, this has no effect.
+   */
+  public static void addHook(Phase phase, Hook hook) {
+    addHook(null, phase, DEFAULT_HOOK_TIMEOUT, hook);
+  }
+
+  /**
+   * Adds a hook to be run at shutdown. If the hooks are already running, this has no effect.
+   *
+   * @param name    the name of the hook, used in the {@link ShutdownReport shutdown report}. If null, the name of the
+   *                hook's class is used
+   * @param phase   the phase to run the hook in
+   * @param timeout how long the hook is allowed to run for before it is interrupted. This is not enforced for hooks
+   *                in the {@link Phase#SEQUENTIAL sequential} phase
+   * @param hook    the hook to run
+   */
+  public static void addHook(String name, Phase phase, Duration timeout, Hook hook) {
+    tryAddHook(name, phase, timeout, hook);
+  }
+
+  /**
+   * Adds a hook to be run at shutdown, like {@link #addHook(String, Phase, Duration, Hook)}.
+   *
+   * @return true if the hook was added, or false if the hooks are already running
+   */
+  static boolean tryAddHook(String name, Phase phase, Duration timeout, Hook hook) {
+    Objects.requireNonNull(phase, "phase");
+    Objects.requireNonNull(timeout, "timeout");
+    Objects.requireNonNull(hook, "hook");
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("Timeout must be positive, but was " + timeout);
+    }
     if (runningHooks) {
-      return;
+      return false;
     }
-    hooks.add(hook);
+    hooks.add(new Registration(name == null ? hook.getClass().getName() : name, phase, timeout, hook));
+    return true;
   }
 
   /**
@@ -41,22 +138,54 @@ public final class ShutdownHooks extends UtilityClass {
     if (runningHooks) {
       return;
     }
-    hooks.remove(hook);
+    hooks.removeIf(registration -> registration.hook.equals(hook));
   }
 
   /**
-   * Runs all hooks. If a hook throws an exception, it is handled by the current thread's
-   * {@link java.lang.Thread.UncaughtExceptionHandler UncaughtExceptionHandler}.
+   * Runs all hooks, giving them the {@link #DEFAULT_DEADLINE default deadline} to finish. If a hook throws an
+   * exception, it is handled by the current thread's {@link java.lang.Thread.UncaughtExceptionHandler
+   * UncaughtExceptionHandler}.
    */
   public static void runAllHooks() {
+    runAllHooks(DEFAULT_DEADLINE);
+  }
+
+  /**
+   * Runs all hooks. If a hook throws an exception, it is handled by the current thread's
+   * {@link java.lang.Thread.UncaughtExceptionHandler UncaughtExceptionHandler}. If the current thread is interrupted
+   * while waiting for hooks, it keeps waiting until they finish or time out, and its interrupt status is set again
+   * before this method returns.
+   *
+   * @param deadline how long all the hooks together are allowed to run for
+   *
+   * @return a report of how long each hook took
+   */
+  public static ShutdownReport runAllHooks(Duration deadline) {
+    Objects.requireNonNull(deadline, "deadline");
     runningHooks = true;
-    for (Hook hook : hooks) {
-      try {
-        hook.run();
-      } catch (Exception e) {
-        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+    Run run = new Run(deadline);
+    try {
+      for (Phase phase : Phase.values()) {
+        List<Registration> inPhase = new ArrayList<>();
+        for (Registration registration : hooks) {
+          if (registration.phase == phase) {
+            inPhase.add(registration);
+          }
+        }
+        if (phase == Phase.SEQUENTIAL) {
+          run.runSequentially(inPhase);
+        } else if (run.isPastDeadline()) {
+          run.skip(inPhase);
+        } else {
+          run.runInParallel(inPhase);
+        }
+      }
+    } finally {
+      if (run.interrupted) {
+        Thread.currentThread().interrupt();
       }
     }
+    return run.report();
   }
 
   /**
@@ -78,4 +207,138 @@ public final class ShutdownHooks extends UtilityClass {
     hooks.clear();
   }
 
+  private static void handleError(Throwable error) {
+    Thread current = Thread.currentThread();
+    current.getUncaughtExceptionHandler().uncaughtException(current, error);
+  }
+
+  private static final class Registration {
+    final String name;
+    final Phase phase;
+    final Duration timeout;
+    final Hook hook;
+
+    Registration(String name, Phase phase, Duration timeout, Hook hook) {
+      this.name = name;
+      this.phase = phase;
+      this.timeout = timeout;
+      this.hook = hook;
+    }
+
+    ShutdownReport.HookResult result(ShutdownReport.Status status, long durationNanos) {
+      return new ShutdownReport.HookResult(name, phase, status, Duration.ofNanos(durationNanos));
+    }
+  }
+
+  /**
+   * A single call to {@link #runAllHooks(Duration)}.
+   */
+  private static final class Run {
+    private final long startNanos = System.nanoTime();
+    private final long deadlineNanos;
+    private final ThreadFactory threadFactory = ThreadUtils.namedDaemonThreadFactory("ShutdownHook");
+    private final List<ShutdownReport.HookResult> results = new ArrayList<>();
+    // Set if the calling thread was interrupted while waiting, so the interrupt can be restored at the end
+    boolean interrupted = false;
+
+    Run(Duration deadline) {
+      this.deadlineNanos = startNanos + deadline.toNanos();
+    }
+
+    boolean isPastDeadline() {
+      return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    void skip(List<Registration> registrations) {
+      for (Registration registration : registrations) {
+        results.add(registration.result(ShutdownReport.Status.SKIPPED, 0));
+      }
+    }
+
+    void runSequentially(List<Registration> registrations) {
+      for (Registration registration : registrations) {
+        long start = System.nanoTime();
+        try {
+          registration.hook.run();
+          results.add(registration.result(ShutdownReport.Status.COMPLETED, System.nanoTime() - start));
+        } catch (Throwable e) { //NOPMD
+          results.add(registration.result(ShutdownReport.Status.FAILED, System.nanoTime() - start));
+          handleError(e);
+        }
+      }
+    }
+
+    void runInParallel(List<Registration> registrations) {
+      List<Execution> executions = new ArrayList<>(registrations.size());
+      for (Registration registration : registrations) {
+        Execution execution = new Execution(registration);
+        executions.add(execution);
+        execution.thread = threadFactory.newThread(execution);
+        execution.thread.start();
+      }
+      for (Execution execution : executions) {
+        long hookDeadline = execution.startNanos + execution.registration.timeout.toNanos();
+        long waitUntil = hookDeadline - deadlineNanos < 0 ? hookDeadline : deadlineNanos;
+        if (!await(execution, waitUntil)) {
+          execution.thread.interrupt();
+          results.add(execution.registration.result(
+              ShutdownReport.Status.TIMED_OUT, System.nanoTime() - execution.startNanos));
+        } else if (execution.error == null) {
+          results.add(execution.registration.result(ShutdownReport.Status.COMPLETED, execution.durationNanos));
+        } else {
+          results.add(execution.registration.result(ShutdownReport.Status.FAILED, execution.durationNanos));
+          handleError(execution.error);
+        }
+      }
+    }
+
+    /**
+     * Waits for a hook to finish, until the given {@link System#nanoTime()} time. Interrupts do not stop the wait.
+     *
+     * @return true if the hook finished
+     */
+    private boolean await(Execution execution, long untilNanos) {
+      while (true) {
+        try {
+          return execution.done.await(Math.max(0, untilNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+
+    ShutdownReport report() {
+      return new ShutdownReport(results, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+  }
+
+  /**
+   * A single run of a hook on its own thread.
+   */
+  private static final class Execution implements Runnable {
+    final Registration registration;
+    final long startNanos = System.nanoTime();
+    final CountDownLatch done = new CountDownLatch(1);
+    Thread thread;
+    // Both written before counting down the latch, so they are visible after waiting on it
+    Throwable error;
+    long durationNanos;
+
+    Execution(Registration registration) {
+      this.registration = registration;
+    }
+
+    @Override
+    public void run() {
+      try {
+        registration.hook.run();
+      } catch (Throwable e) { //NOPMD
+        error = e;
+      } finally {
+        durationNanos = System.nanoTime() - startNanos;
+        done.countDown();
+      }
+    }
+  }
+
 }
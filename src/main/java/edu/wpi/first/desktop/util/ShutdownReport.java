@@ -0,0 +1,123 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reports how each shutdown hook went when {@link ShutdownHooks#runAllHooks(Duration) the hooks were run}.
+ */
+public final class ShutdownReport {
+
+  private final List<HookResult> results;
+  private final Duration totalDuration;
+
+  ShutdownReport(List<HookResult> results, Duration totalDuration) {
+    this.results = Collections.unmodifiableList(results);
+    this.totalDuration = totalDuration;
+  }
+
+  /**
+   * The outcome of running a single hook.
+   */
+  public enum Status {
+    /**
+     * The hook finished normally.
+     */
+    COMPLETED,
+    /**
+     * The hook threw an exception.
+     */
+    FAILED,
+    /**
+     * The hook did not finish within its timeout or the overall deadline, and was interrupted.
+     */
+    TIMED_OUT,
+    /**
+     * The hook was not run, because the overall deadline passed before its phase started.
+     */
+    SKIPPED
+  }
+
+  /**
+   * Gets the results for every hook, in the order in which their phases ran.
+   */
+  public List<HookResult> getResults() {
+    return results;
+  }
+
+  /**
+   * Gets how long it took to run all the hooks.
+   */
+  public Duration getTotalDuration() {
+    return totalDuration;
+  }
+
+  /**
+   * Checks if every hook completed normally.
+   */
+  public boolean isSuccessful() {
+    return results.stream().allMatch(result -> result.getStatus() == Status.COMPLETED);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(64 * (results.size() + 1));
+    builder.append("ShutdownReport(total=").append(totalDuration).append(')');
+    for (HookResult result : results) {
+      builder.append(System.lineSeparator()).append("  ").append(result);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * The result of running a single shutdown hook.
+   */
+  public static final class HookResult {
+    private final String name;
+    private final ShutdownHooks.Phase phase;
+    private final Status status;
+    private final Duration duration;
+
+    HookResult(String name, ShutdownHooks.Phase phase, Status status, Duration duration) {
+      this.name = name;
+      this.phase = phase;
+      this.status = status;
+      this.duration = duration;
+    }
+
+    /**
+     * Gets the name of the hook.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Gets the phase the hook ran in.
+     */
+    public ShutdownHooks.Phase getPhase() {
+      return phase;
+    }
+
+    /**
+     * Gets the outcome of running the hook.
+     */
+    public Status getStatus() {
+      return status;
+    }
+
+    /**
+     * Gets how long the hook ran for. For hooks that timed out, this is how long they ran before being interrupted;
+     * for skipped hooks, this is zero.
+     */
+    public Duration getDuration() {
+      return duration;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s [%s] %s in %s", name, phase, status, duration);
+    }
+  }
+}
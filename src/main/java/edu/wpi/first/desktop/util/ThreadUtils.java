@@ -1,11 +1,27 @@
 package edu.wpi.first.desktop.util;
 
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utilities dealing with threading.
+ *
+ * <p>Executors created by this class use named daemon threads, and are kept in a process-wide registry: their
+ * statistics can be read with {@link #getExecutorStats()}, and they are all shut down by a
+ * {@link ShutdownHooks shutdown hook} when the application exits. The registry only holds executors weakly, so an
+ * executor that is no longer used can be garbage collected once its idle threads exit, even if it was never shut
+ * down.</p>
+ *
+ * <p>On Java 21 and newer, {@link #newVirtualThreadExecutor(String)} runs tasks on virtual threads, which makes it
+ * cheap to run many tasks that spend most of their time blocked, such as loading files or talking to the network.
+ * On older runtimes it falls back to daemon platform threads, so code can use it without checking the Java version.
+ * Its executors can be passed anywhere an executor is accepted, such as to
+ * {@link edu.wpi.first.desktop.property.FlushableProperty#setFlushExecutor FlushableProperty.setFlushExecutor}.</p>
  */
 public final class ThreadUtils extends UtilityClass {
 
@@ -16,9 +32,87 @@ public final class ThreadUtils extends UtilityClass {
 
   /**
    * A single-threaded ScheduledExecutorService that uses a daemon thread instead of one the doesn't respect shutdown.
+   * The thread is named {@code Scheduled-N}; prefer {@link #newDaemonScheduledExecutorService(String)} to give it a
+   * name that says what it is for.
    */
   public static ScheduledExecutorService newDaemonScheduledExecutorService() {
-    return Executors.newSingleThreadScheduledExecutor(DAEMON_THREAD_FACTORY);
+    return newDaemonScheduledExecutorService("Scheduled");
+  }
+
+  /**
+   * Creates a single-threaded ScheduledExecutorService that uses a named daemon thread. The executor is registered
+   * with the executor registry.
+   *
+   * @param name the name of the executor, used as the prefix of the name of its thread
+   */
+  public static ScheduledExecutorService newDaemonScheduledExecutorService(String name) {
+    Objects.requireNonNull(name, "name");
+    return ExecutorRegistry.newScheduledThreadPool(name, 1);
+  }
+
+  /**
+   * Creates a fixed-size thread pool that uses named daemon threads. Threads that have been idle for 30 seconds exit,
+   * and are replaced when more tasks are submitted. The executor is registered with the executor registry.
+   *
+   * @param name    the name of the executor, used as the prefix of the names of its threads
+   * @param threads the maximum number of threads to use
+   */
+  public static ExecutorService newDaemonThreadPool(String name, int threads) {
+    Objects.requireNonNull(name, "name");
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Thread count must be positive: " + threads);
+    }
+    return ExecutorRegistry.newThreadPool(name, threads);
+  }
+
+  /**
+   * Creates an executor that runs each task on a new virtual thread, if the runtime supports virtual threads (Java 21
+   * and newer). Otherwise, tasks are run on daemon platform threads, which are reused if they become idle and exit
+   * after being idle for 60 seconds. Either way, the number of threads is unbounded, so this is best for tasks that
+   * spend most of their time blocked. The executor is registered with the executor registry.
+   *
+   * @param name the name of the executor, used as the prefix of the names of its threads
+   *
+   * @see #isVirtualThreadSupported()
+   */
+  public static ExecutorService newVirtualThreadExecutor(String name) {
+    Objects.requireNonNull(name, "name");
+    if (VirtualThreads.isSupported()) {
+      // Virtual threads are cheap to create and should not be pooled, so idle ones exit immediately
+      return ExecutorRegistry.newUnboundedThreadPool(name, VirtualThreads.factory(name), Duration.ZERO);
+    } else {
+      return ExecutorRegistry.newUnboundedThreadPool(name, namedDaemonThreadFactory(name), Duration.ofSeconds(60));
+    }
+  }
+
+  /**
+   * Creates a ThreadFactory that creates virtual threads if the runtime supports them (Java 21 and newer), or daemon
+   * platform threads if it does not. Threads are named {@code <name>-1}, {@code <name>-2}, and so on.
+   *
+   * @param name the prefix of the names of the threads
+   */
+  public static ThreadFactory virtualThreadFactory(String name) {
+    Objects.requireNonNull(name, "name");
+    return VirtualThreads.isSupported() ? VirtualThreads.factory(name) : namedDaemonThreadFactory(name);
+  }
+
+  /**
+   * Checks if the runtime supports virtual threads. If it does not, the virtual thread factories and executors in this
+   * class use daemon platform threads instead.
+   */
+  public static boolean isVirtualThreadSupported() {
+    return VirtualThreads.isSupported();
+  }
+
+  /**
+   * Creates a ThreadFactory that creates daemon threads named {@code <name>-1}, {@code <name>-2}, and so on.
+   *
+   * @param name the prefix of the names of the threads
+   */
+  public static ThreadFactory namedDaemonThreadFactory(String name) {
+    Objects.requireNonNull(name, "name");
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> makeDaemonThread(name + "-" + count.incrementAndGet(), runnable);
   }
 
   /**
@@ -30,4 +124,39 @@ public final class ThreadUtils extends UtilityClass {
     return thread;
   }
 
+  /**
+   * Creates a named daemon thread to run the given runnable.
+   *
+   * @param name     the name of the thread
+   * @param runnable the runnable for the thread to run
+   */
+  public static Thread makeDaemonThread(String name, Runnable runnable) {
+    Thread thread = makeDaemonThread(runnable);
+    thread.setName(name);
+    return thread;
+  }
+
+  /**
+   * Gets the statistics of every running executor created by this class, sorted by name.
+   */
+  public static List<ExecutorStats> getExecutorStats() {
+    return ExecutorRegistry.getStats();
+  }
+
+  /**
+   * Shuts down every executor created by this class. Tasks that have already been submitted are allowed to finish
+   * until the timeout passes; executors still running after that are interrupted. This is done automatically by a
+   * shutdown hook, with a timeout of two seconds.
+   *
+   * @param timeout the maximum time to wait for the executors to finish their tasks
+   *
+   * @return true if every executor finished within the timeout
+   *
+   * @throws InterruptedException if the calling thread was interrupted while waiting
+   */
+  public static boolean shutdownExecutors(Duration timeout) throws InterruptedException {
+    Objects.requireNonNull(timeout, "timeout");
+    return ExecutorRegistry.shutdownAll(timeout);
+  }
+
 }
@@ -0,0 +1,144 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate at which a method is called. Unlike a {@link Debouncer}, which waits for calls to stop, a throttler
+ * runs its target at a steady rate while calls keep being made, which makes it suited to pushing live updates from
+ * high-frequency sources such as a slider being dragged.
+ *
+ * <p>The target starts at most once per interval, and never runs concurrently with itself. A call made when the target
+ * has not run for at least an interval runs it immediately; calls made within an interval of the last run, or while
+ * the target is running, are combined into a single run at the end of the interval, or when the target returns if it
+ * takes longer than the interval, so the last call is never lost.</p>
+ *
+ * <p>Throttlers share the same timer thread and pool of daemon threads as debouncers, and hold no resources while
+ * they are idle.</p>
+ */
+public final class Throttler implements Runnable {
+
+  private final TimingWheel timer;
+  private TimingWheel.Timeout timeout = null;
+  // Incremented whenever the timer is armed or cancelled, so a timer that expires after being replaced is ignored
+  private long generation = 0;
+
+  private final Runnable target;
+  private final Duration interval;
+  private final long intervalNanos;
+
+  private long lastRunNanos;
+  private boolean hasRun = false;
+  private boolean running = false;
+  // True if a call has been made since the target last started
+  private boolean pending = false;
+
+  /**
+   * Creates a new throttler.
+   *
+   * @param target   the target function that should be throttled
+   * @param interval the minimum time between the starts of two runs of the target
+   */
+  public Throttler(Runnable target, Duration interval) {
+    this(target, interval, TimingWheel.shared());
+  }
+
+  /**
+   * Creates a new throttler that uses the given timing wheel in place of the shared one. Should only be used in tests.
+   */
+  Throttler(Runnable target, Duration interval, TimingWheel timer) {
+    this.timer = Objects.requireNonNull(timer, "timer");
+    this.target = Objects.requireNonNull(target, "target");
+    this.interval = Objects.requireNonNull(interval, "interval");
+    if (interval.isNegative()) {
+      throw new IllegalArgumentException("Interval cannot be negative: " + interval);
+    }
+    this.intervalNanos = interval.toNanos();
+  }
+
+  @Override
+  public synchronized void run() {
+    if (running || timeout != null) {
+      // The target will run when it returns or when the current interval ends
+      pending = true;
+      return;
+    }
+    long now = timer.nanoTime();
+    long sinceLastRun = now - lastRunNanos;
+    if (!hasRun || sinceLastRun >= intervalNanos) {
+      startTarget(now);
+    } else {
+      pending = true;
+      arm(intervalNanos - sinceLastRun);
+    }
+  }
+
+  private void arm(long delayNanos) {
+    long armedGeneration = ++generation;
+    timeout = timer.schedule(() -> intervalEnded(armedGeneration), delayNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void startTarget(long now) {
+    pending = false;
+    hasRun = true;
+    running = true;
+    lastRunNanos = now;
+    timer.execute(this::runTarget);
+  }
+
+  private void runTarget() {
+    try {
+      target.run();
+    } catch (Throwable e) { //NOPMD
+      Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+    }
+    targetReturned();
+  }
+
+  /**
+   * Starts the next run once the target has returned, so that runs never overlap and always finish in the order in
+   * which they started.
+   */
+  private synchronized void targetReturned() {
+    running = false;
+    long now = timer.nanoTime();
+    long remaining = intervalNanos - (now - lastRunNanos);
+    if (remaining > 0) {
+      // Wait out the rest of the interval, so calls made during it are combined into one run at its end
+      arm(remaining);
+    } else if (pending) {
+      startTarget(now);
+    }
+  }
+
+  private synchronized void intervalEnded(long armedGeneration) {
+    if (armedGeneration != generation) {
+      // Cancelled, or replaced after being cancelled
+      return;
+    }
+    timeout = null;
+    if (pending) {
+      startTarget(timer.nanoTime());
+    }
+  }
+
+  /**
+   * Gets the minimum time between the starts of two runs of the target.
+   */
+  public Duration getInterval() {
+    return interval;
+  }
+
+  /**
+   * Cancels any pending run of the target. This has no effect on a target that has already started running.
+   */
+  public synchronized void cancel() {
+    if (timeout != null) {
+      timeout.cancel();
+      timeout = null;
+    }
+    generation++;
+    pending = false;
+  }
+}
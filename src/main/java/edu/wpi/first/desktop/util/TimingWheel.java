@@ -0,0 +1,405 @@
+package edu.wpi.first.desktop.util;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * A hashed timing wheel for scheduling large numbers of short, frequently rescheduled timeouts, such as those used by
+ * {@link Debouncer debouncers}.
+ *
+ * <p>Time is divided into ticks, and the wheel has a fixed number of buckets that each hold the timeouts that expire
+ * in a tick. A timeout expiring further in the future than one revolution of the wheel is placed in the bucket for its
+ * tick and skipped until the wheel has gone around enough times. Scheduling and cancelling a timeout are both constant
+ * time, no matter how many timeouts are scheduled, at the cost of timeouts only being accurate to one tick.</p>
+ *
+ * <p>A single thread advances the wheel; it parks when there are no timeouts scheduled, so an idle wheel uses no CPU.
+ * Expired tasks are run on a separate executor, so a slow task does not delay other timeouts.</p>
+ *
+ * <p>For tests, a wheel can instead be created with its own clock and no thread, and is then only advanced when
+ * {@link #advance()} is called, so that timing can be tested without sleeping.</p>
+ */
+final class TimingWheel {
+
+  private static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+  private static final int DEFAULT_WHEEL_SIZE = 512;
+  private static final int MAX_TASK_THREADS = 4;
+
+  /**
+   * The maximum number of newly scheduled timeouts to move into the wheel per tick, so that a burst of scheduling
+   * cannot stall the wheel.
+   */
+  private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+  private static final int STATE_SCHEDULED = 0;
+  private static final int STATE_CANCELLED = 1;
+  private static final int STATE_EXPIRED = 2;
+
+  private final long tickNanos;
+  private final Bucket[] buckets;
+  private final int mask;
+  private final Executor executor;
+  private final LongSupplier clock;
+  private final long startNanos;
+
+  private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+  private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final AtomicLong expiredCount = new AtomicLong();
+  // Null if the wheel is advanced manually
+  private final Thread worker;
+  private volatile boolean stopped = false;
+
+  // Only accessed by the worker thread, or by the thread calling advance()
+  private long tick = 0;
+
+  /**
+   * Gets the timing wheel shared by every debouncer. Its thread is only started when the wheel is first used.
+   */
+  static TimingWheel shared() {
+    return Shared.INSTANCE;
+  }
+
+  /**
+   * Creates a new timing wheel and starts its thread.
+   *
+   * @param tickDuration the duration of a single tick
+   * @param wheelSize    the number of buckets in the wheel. This is rounded up to a power of two
+   * @param executor     the executor to run expired tasks with
+   * @param name         the name of the thread that advances the wheel
+   */
+  TimingWheel(Duration tickDuration, int wheelSize, Executor executor, String name) {
+    this(tickDuration, wheelSize, executor, System::nanoTime, Objects.requireNonNull(name, "name"));
+  }
+
+  /**
+   * Creates a new timing wheel that has no thread, and only advances when {@link #advance()} is called. Should only
+   * be used in tests.
+   *
+   * @param tickDuration the duration of a single tick
+   * @param wheelSize    the number of buckets in the wheel. This is rounded up to a power of two
+   * @param executor     the executor to run expired tasks with
+   * @param clock        the clock to use in place of {@link System#nanoTime()}
+   */
+  TimingWheel(Duration tickDuration, int wheelSize, Executor executor, LongSupplier clock) {
+    this(tickDuration, wheelSize, executor, Objects.requireNonNull(clock, "clock"), null);
+  }
+
+  private TimingWheel(Duration tickDuration, int wheelSize, Executor executor, LongSupplier clock, String name) {
+    Objects.requireNonNull(tickDuration, "tickDuration");
+    Objects.requireNonNull(executor, "executor");
+    if (tickDuration.isNegative() || tickDuration.isZero()) {
+      throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+    }
+    if (wheelSize <= 0 || wheelSize > 1 << 30) {
+      throw new IllegalArgumentException("Wheel size must be positive and at most 2^30: " + wheelSize);
+    }
+    this.tickNanos = tickDuration.toNanos();
+    int size = Integer.highestOneBit(wheelSize - 1) << 1;
+    this.buckets = new Bucket[Math.max(size, 1)];
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new Bucket();
+    }
+    this.mask = buckets.length - 1;
+    this.executor = executor;
+    this.clock = clock;
+    this.startNanos = clock.getAsLong();
+    if (name == null) {
+      this.worker = null;
+    } else {
+      this.worker = ThreadUtils.makeDaemonThread(name, this::runWorker);
+      worker.start();
+    }
+  }
+
+  /**
+   * Gets the current time of this wheel's clock, in nanoseconds. This is {@link System#nanoTime()} unless the wheel
+   * was created with its own clock.
+   */
+  long nanoTime() {
+    return clock.getAsLong();
+  }
+
+  /**
+   * Schedules a task to run after a delay.
+   *
+   * @param task  the task to run
+   * @param delay the delay before running the task
+   * @param unit  the unit of the delay
+   *
+   * @return the scheduled timeout
+   */
+  Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    Objects.requireNonNull(task, "task");
+    Objects.requireNonNull(unit, "unit");
+    long deadline = clock.getAsLong() + Math.max(0, unit.toNanos(delay)) - startNanos;
+    Timeout timeout = new Timeout(this, task, deadline);
+    scheduled.add(timeout);
+    if (activeCount.getAndIncrement() == 0 && worker != null) {
+      // The worker may be parked waiting for something to do
+      LockSupport.unpark(worker);
+    }
+    return timeout;
+  }
+
+  /**
+   * Runs a task immediately on the executor used for expired tasks.
+   *
+   * @param task the task to run
+   */
+  void execute(Runnable task) {
+    executor.execute(Objects.requireNonNull(task, "task"));
+  }
+
+  /**
+   * Gets the number of timeouts that are scheduled and have not expired or been cancelled.
+   */
+  int getActiveCount() {
+    return activeCount.get();
+  }
+
+  /**
+   * Gets the total number of timeouts that have expired.
+   */
+  long getExpiredCount() {
+    return expiredCount.get();
+  }
+
+  /**
+   * Runs every tick that has ended by the current time of the wheel's clock on the calling thread. Should only be used
+   * in tests, with a wheel created without a thread.
+   *
+   * @throws IllegalStateException if the wheel has its own thread
+   */
+  void advance() {
+    if (worker != null) {
+      throw new IllegalStateException("The wheel is advanced by its own thread");
+    }
+    long now = clock.getAsLong() - startNanos;
+    while (tickNanos * (tick + 1) <= now) {
+      runTick(tickNanos * (tick + 1));
+    }
+  }
+
+  /**
+   * Stops the thread that advances the wheel, and waits for it to exit. Timeouts that have not expired will never
+   * run. Should only be used in tests; the shared wheel is never stopped.
+   *
+   * @throws InterruptedException if interrupted while waiting for the thread to exit
+   */
+  void stop() throws InterruptedException {
+    stopped = true;
+    if (worker != null && worker != Thread.currentThread()) {
+      LockSupport.unpark(worker);
+      worker.join();
+    }
+  }
+
+  private void runWorker() {
+    while (!stopped) {
+      if (activeCount.get() == 0) {
+        LockSupport.park(this);
+        if (activeCount.get() == 0) {
+          continue;
+        }
+        // Nothing was in the wheel while parked, so skip the ticks that passed instead of visiting each one
+        tick = Math.max(tick, (clock.getAsLong() - startNanos) / tickNanos);
+      }
+      long deadline = waitForNextTick();
+      if (!stopped) {
+        runTick(deadline);
+      }
+    }
+  }
+
+  private void runTick(long deadline) {
+    removeCancelled();
+    transferScheduled();
+    expire(buckets[(int) (tick & mask)], deadline);
+    tick++;
+  }
+
+  /**
+   * Waits until the end of the current tick.
+   *
+   * @return the time at the end of the tick, relative to the start of the wheel
+   */
+  private long waitForNextTick() {
+    long deadline = tickNanos * (tick + 1);
+    while (true) {
+      long now = clock.getAsLong() - startNanos;
+      long sleep = deadline - now;
+      if (sleep <= 0 || stopped) {
+        return now;
+      }
+      LockSupport.parkNanos(this, sleep);
+    }
+  }
+
+  private void removeCancelled() {
+    Timeout timeout;
+    while ((timeout = cancelled.poll()) != null) {
+      // Timeouts without a bucket are still in the scheduled queue, and are dropped when they are transferred
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+        activeCount.decrementAndGet();
+      }
+    }
+  }
+
+  private void transferScheduled() {
+    for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+      Timeout timeout = scheduled.poll();
+      if (timeout == null) {
+        return;
+      }
+      if (timeout.state.get() == STATE_CANCELLED) {
+        activeCount.decrementAndGet();
+        continue;
+      }
+      long expiryTick = timeout.deadline / tickNanos;
+      timeout.remainingRounds = (expiryTick - tick) / buckets.length;
+      // Timeouts that should already have expired go in the current bucket, so they expire on this tick
+      long ticks = Math.max(expiryTick, tick);
+      buckets[(int) (ticks & mask)].add(timeout);
+    }
+  }
+
+  private void expire(Bucket bucket, long deadline) {
+    Timeout timeout = bucket.head;
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+        bucket.remove(timeout);
+        activeCount.decrementAndGet();
+        if (timeout.state.compareAndSet(STATE_SCHEDULED, STATE_EXPIRED)) {
+          expiredCount.incrementAndGet();
+          executor.execute(timeout.task);
+        }
+      } else if (timeout.remainingRounds > 0) {
+        timeout.remainingRounds--;
+      }
+      timeout = next;
+    }
+  }
+
+  /**
+   * A task scheduled on a timing wheel.
+   */
+  static final class Timeout {
+    private final TimingWheel wheel;
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(STATE_SCHEDULED);
+
+    // Only accessed by the worker thread
+    private long remainingRounds;
+    private Bucket bucket;
+    private Timeout prev;
+    private Timeout next;
+
+    Timeout(TimingWheel wheel, Runnable task, long deadline) {
+      this.wheel = wheel;
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancels this timeout, so its task will not run.
+     *
+     * @return true if the timeout was cancelled, false if it had already expired or been cancelled
+     */
+    boolean cancel() {
+      if (state.compareAndSet(STATE_SCHEDULED, STATE_CANCELLED)) {
+        wheel.cancelled.add(this);
+        return true;
+      }
+      return false;
+    }
+
+    boolean isCancelled() {
+      return state.get() == STATE_CANCELLED;
+    }
+
+    /**
+     * Checks if this timeout has expired. An expired timeout's task has been submitted to run, but may not have run
+     * yet.
+     */
+    boolean isExpired() {
+      return state.get() == STATE_EXPIRED;
+    }
+  }
+
+  /**
+   * A doubly linked list of the timeouts in one slot of the wheel.
+   */
+  private static final class Bucket {
+    private Timeout head;
+    private Timeout tail;
+
+    void add(Timeout timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = timeout;
+        tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    void remove(Timeout timeout) {
+      if (timeout.prev == null) {
+        head = timeout.next;
+      } else {
+        timeout.prev.next = timeout.next;
+      }
+      if (timeout.next == null) {
+        tail = timeout.prev;
+      } else {
+        timeout.next.prev = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+
+  /**
+   * Holds the shared wheel, so it is only created when first used.
+   */
+  private static final class Shared {
+    static final TimingWheel INSTANCE = new TimingWheel(
+        DEFAULT_TICK,
+        DEFAULT_WHEEL_SIZE,
+        createTaskExecutor(),
+        "Debouncer-Timer"
+    );
+
+    // Not created with ThreadUtils.newDaemonThreadPool, because the executors it creates are shut down by a shutdown
+    // hook and debounced tasks, such as writing settings, must still be able to run while the hooks are running
+    private static Executor createTaskExecutor() {
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(
+          MAX_TASK_THREADS,
+          MAX_TASK_THREADS,
+          30,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          ThreadUtils.namedDaemonThreadFactory("Debouncer")
+      );
+      // Let the threads exit when nothing has been debounced for a while
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+}
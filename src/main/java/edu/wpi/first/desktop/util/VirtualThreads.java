@@ -0,0 +1,69 @@
+package edu.wpi.first.desktop.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads on runtimes that support them. Virtual threads were added in Java 21, and this library is
+ * built for Java 9, so the API is found with reflection when this class is loaded. On older runtimes, and on Java 19
+ * and 20 when preview features are not enabled, virtual threads are not supported and every method that creates them
+ * throws an exception; use {@link ThreadUtils}, which falls back to platform threads.
+ */
+final class VirtualThreads extends UtilityClass {
+
+  // All null if virtual threads are not supported
+  private static final Method ofVirtual;
+  private static final Method name;
+  private static final Method factory;
+
+  static {
+    Method ofVirtualMethod = null;
+    Method nameMethod = null;
+    Method factoryMethod = null;
+    try {
+      ofVirtualMethod = Thread.class.getMethod("ofVirtual");
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      nameMethod = builder.getMethod("name", String.class, long.class);
+      factoryMethod = builder.getMethod("factory");
+      // Throws UnsupportedOperationException if virtual threads are a preview feature that is not enabled
+      ofVirtualMethod.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      ofVirtualMethod = null;
+      nameMethod = null;
+      factoryMethod = null;
+    }
+    ofVirtual = ofVirtualMethod;
+    name = nameMethod;
+    factory = factoryMethod;
+  }
+
+  /**
+   * Checks if the runtime supports virtual threads.
+   */
+  static boolean isSupported() {
+    return ofVirtual != null;
+  }
+
+  /**
+   * Creates a factory for virtual threads named {@code <prefix>-1}, {@code <prefix>-2}, and so on.
+   *
+   * @param prefix the prefix of the names of the threads
+   *
+   * @throws UnsupportedOperationException if the runtime does not support virtual threads
+   */
+  static ThreadFactory factory(String prefix) {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this runtime");
+    }
+    try {
+      Object builder = ofVirtual.invoke(null);
+      builder = name.invoke(builder, prefix + "-", 1L);
+      return (ThreadFactory) factory.invoke(builder);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Could not create a virtual thread factory", e);
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException("Could not create a virtual thread factory", e.getCause());
+    }
+  }
+}
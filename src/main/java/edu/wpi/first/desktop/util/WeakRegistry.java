@@ -0,0 +1,210 @@
+package edu.wpi.first.desktop.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe set of weakly referenced objects. Objects are compared by identity, not by {@code equals()}.
+ *
+ * <p>Unlike a set backed by a {@link java.util.WeakHashMap}, entries for objects that have been garbage collected are
+ * removed by a single shared background thread instead of by whichever thread next happens to access the set, and
+ * iterating with {@link #forEach} works on an immutable snapshot so that registering and unregistering objects
+ * does not need to wait for an iteration to finish.</p>
+ *
+ * @param <T> the type of objects in the registry
+ */
+public final class WeakRegistry<T> {
+
+  private final Map<Entry<T>, Boolean> entries = new ConcurrentHashMap<>();
+  private final AtomicLong collectedCount = new AtomicLong();
+  private final AtomicInteger modCount = new AtomicInteger();
+
+  // Lazily rebuilt on the first iteration after the registry is modified
+  private volatile Snapshot snapshot = new Snapshot(0, new Entry<?>[0]);
+
+  /**
+   * Creates a new, empty registry.
+   */
+  public WeakRegistry() { //NOPMD explicit so that it can be documented
+  }
+
+  /**
+   * Adds an object to this registry.
+   *
+   * @param target the object to add
+   *
+   * @return true if the object was added, false if it was already present
+   *
+   * @throws NullPointerException if the target is null
+   */
+  public boolean add(T target) {
+    Objects.requireNonNull(target, "target");
+    boolean added = entries.putIfAbsent(new Entry<>(target, this, Reaper.QUEUE), Boolean.TRUE) == null;
+    if (added) {
+      modCount.incrementAndGet();
+    }
+    return added;
+  }
+
+  /**
+   * Removes an object from this registry.
+   *
+   * @param target the object to remove
+   *
+   * @return true if the object was removed, false if it was not present
+   */
+  public boolean remove(T target) {
+    if (target == null) {
+      return false;
+    }
+    boolean removed = entries.remove(new Entry<>(target, this, null)) != null;
+    if (removed) {
+      modCount.incrementAndGet();
+    }
+    return removed;
+  }
+
+  /**
+   * Checks if an object is present in this registry.
+   *
+   * @param target the object to check for
+   *
+   * @return true if the object is present, false if not
+   */
+  public boolean contains(T target) {
+    return target != null && entries.containsKey(new Entry<>(target, this, null));
+  }
+
+  /**
+   * Performs an action on every live object in this registry. The action is run on a snapshot of the registry taken
+   * when this method is called; objects added or removed by the action, or by other threads while this method runs,
+   * will not affect the iteration.
+   *
+   * @param action the action to perform
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(Consumer<? super T> action) {
+    Objects.requireNonNull(action, "action");
+    for (Entry<?> entry : snapshot()) {
+      T target = (T) entry.get();
+      if (target != null) {
+        action.accept(target);
+      }
+    }
+  }
+
+  private Entry<?>[] snapshot() {
+    Snapshot current = snapshot;
+    // Read the modification count before copying so a concurrent change always invalidates the copy
+    int version = modCount.get();
+    if (current.version != version) {
+      current = new Snapshot(version, entries.keySet().toArray(new Entry<?>[0]));
+      snapshot = current;
+    }
+    return current.entries;
+  }
+
+  /**
+   * Gets the number of objects in this registry that have not yet been removed. This may include objects that have
+   * been garbage collected but have not yet been cleaned up.
+   *
+   * @return the number of live objects
+   */
+  public int getLiveCount() {
+    return entries.size();
+  }
+
+  /**
+   * Gets the total number of objects that have been cleaned up from this registry after being garbage collected.
+   * Objects that were explicitly {@link #remove removed} are not counted.
+   *
+   * @return the number of collected objects
+   */
+  public long getCollectedCount() {
+    return collectedCount.get();
+  }
+
+  private void expunge(Entry<?> entry) {
+    if (entries.remove(entry) != null) {
+      modCount.incrementAndGet();
+      collectedCount.incrementAndGet();
+    }
+  }
+
+  private static final class Snapshot {
+
+    final int version;
+    final Entry<?>[] entries;
+
+    Snapshot(int version, Entry<?>[] entries) {
+      this.version = version;
+      this.entries = entries;
+    }
+  }
+
+  /**
+   * A weak reference with identity-based equality. The identity hash code is captured at creation so entries can
+   * still be found and removed after their referents have been collected.
+   */
+  private static final class Entry<T> extends WeakReference<T> {
+
+    private final int hash;
+    private final WeakRegistry<?> registry;
+
+    Entry(T referent, WeakRegistry<?> registry, ReferenceQueue<Object> queue) {
+      super(referent, queue);
+      this.hash = System.identityHashCode(referent);
+      this.registry = registry;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Entry)) {
+        return false;
+      }
+      Object referent = get();
+      return referent != null && referent == ((Entry<?>) obj).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * Removes the entries of collected objects from their registries. A single daemon thread is shared by every
+   * registry and is only started once the first registry is used.
+   */
+  private static final class Reaper {
+
+    static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    static {
+      Thread thread = ThreadUtils.makeDaemonThread(Reaper::run);
+      thread.setName("WeakRegistry-Reaper");
+      thread.start();
+    }
+
+    private static void run() {
+      while (true) {
+        try {
+          Entry<?> entry = (Entry<?>) QUEUE.remove();
+          entry.registry.expunge(entry);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+}
@@ -5,6 +5,7 @@ module edu.wpi.first.desktop {
   requires java.desktop;
   requires javafx.graphics;
   requires javafx.controls;
+  requires static jdk.jfr; // optional, for JFR events
 
   exports edu.wpi.first.desktop.component; // note: the skin package is not exported
   exports edu.wpi.first.desktop.component.editor;
@@ -28,7 +28,9 @@ package org.controlsfx.property.editor;
 
 import org.controlsfx.control.PropertySheet.Item;
 
+import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
 import javafx.scene.Node;
 
 /**
@@ -48,6 +50,7 @@ public abstract class AbstractPropertyEditor<T, C extends Node> implements Prope
     private final Item property;
     private final C control;
     private boolean suspendUpdate;
+    private ChangeListener<Object> propertyListener; // strong reference for the weak listener on the property
     
     
     /**************************************************************************
@@ -89,13 +92,16 @@ public abstract class AbstractPropertyEditor<T, C extends Node> implements Prope
             });
             
             if (property.getObservableValue().isPresent()) {
-                property.getObservableValue().get().addListener((ObservableValue<? extends Object> o, Object oldValue, Object newValue) -> {
+                propertyListener = (ObservableValue<? extends Object> o, Object oldValue, Object newValue) -> {
                     if (! suspendUpdate) {
                         suspendUpdate = true;
                         AbstractPropertyEditor.this.setValue((T) property.getValue());
                         suspendUpdate = false;
                     }
-                });
+                };
+                // WPILib: use a weak listener so editors that are discarded (e.g. by a virtualized
+                // property sheet) do not stay reachable from the property they edited
+                property.getObservableValue().get().addListener(new WeakChangeListener<>(propertyListener));
             }
             
         }
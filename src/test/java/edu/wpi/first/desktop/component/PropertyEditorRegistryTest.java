@@ -0,0 +1,107 @@
+package edu.wpi.first.desktop.component;
+
+import edu.wpi.first.desktop.settings.Group;
+import edu.wpi.first.desktop.settings.Setting;
+import edu.wpi.first.desktop.settings.SettingsItem;
+
+import org.controlsfx.control.PropertySheet;
+import org.controlsfx.property.editor.PropertyEditor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.Node;
+import javafx.util.Callback;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PropertyEditorRegistryTest {
+
+  private PropertyEditorRegistry registry;
+
+  @BeforeEach
+  void setup() {
+    registry = new PropertyEditorRegistry(item -> null);
+  }
+
+  @Test
+  void testExactType() {
+    Callback<PropertySheet.Item, PropertyEditor<?>> strings = StubEditor::new;
+    registry.register(String.class, strings);
+    assertSame(strings, registry.lookup(String.class).orElse(null));
+    assertFalse(registry.lookup(Integer.class).isPresent());
+  }
+
+  @Test
+  void testClosestSupertypeWins() {
+    Callback<PropertySheet.Item, PropertyEditor<?>> numbers = StubEditor::new;
+    Callback<PropertySheet.Item, PropertyEditor<?>> serializables = StubEditor::new;
+    registry.register(Number.class, numbers);
+    registry.register(Serializable.class, serializables);
+    assertSame(numbers, registry.lookup(Double.class).orElse(null));
+    assertSame(serializables, registry.lookup(String.class).orElse(null));
+  }
+
+  @Test
+  void testPrimitivesUseWrappers() {
+    Callback<PropertySheet.Item, PropertyEditor<?>> ints = StubEditor::new;
+    registry.register(int.class, ints);
+    assertSame(ints, registry.lookup(Integer.class).orElse(null));
+    assertSame(ints, registry.lookup(int.class).orElse(null));
+  }
+
+  @Test
+  void testRegistrationInvalidatesCache() {
+    Callback<PropertySheet.Item, PropertyEditor<?>> numbers = StubEditor::new;
+    Callback<PropertySheet.Item, PropertyEditor<?>> doubles = StubEditor::new;
+    registry.register(Number.class, numbers);
+    assertSame(numbers, registry.lookup(Double.class).orElse(null));
+    registry.register(Double.class, doubles);
+    assertSame(doubles, registry.lookup(Double.class).orElse(null));
+    registry.unregister(Double.class);
+    assertSame(numbers, registry.lookup(Double.class).orElse(null));
+  }
+
+  @Test
+  void testCallUsesFallback() {
+    registry.register(String.class, StubEditor::new);
+    SettingsItem string = new SettingsItem(Group.of("Group"), Setting.of("String", new SimpleObjectProperty<>("")));
+    SettingsItem integer = new SettingsItem(Group.of("Group"), Setting.of("Int", new SimpleObjectProperty<>(0)));
+    assertEquals(StubEditor.class, registry.call(string).getClass());
+    assertNull(registry.call(integer));
+  }
+
+  @Test
+  void testNullValuedSettingItem() {
+    SettingsItem item = new SettingsItem(Group.of("Group"), Setting.of("Null", new SimpleObjectProperty<>(null)));
+    assertEquals(Object.class, item.getType());
+  }
+
+  private static final class StubEditor implements PropertyEditor<Object> {
+    private Object value;
+
+    StubEditor(PropertySheet.Item item) {
+      value = item.getValue();
+    }
+
+    @Override
+    public Node getEditor() {
+      return null;
+    }
+
+    @Override
+    public Object getValue() {
+      return value;
+    }
+
+    @Override
+    public void setValue(Object value) {
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package edu.wpi.first.desktop.property;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleObjectProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlushablePropertyTest {
+
+  /**
+   * An executor that only runs tasks when told to.
+   */
+  private static final class ManualExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable command) {
+      tasks.add(command);
+    }
+
+    void runAll() {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+      }
+    }
+  }
+
+  @Test
+  void testSynchronousFlush() {
+    Property<String> target = new SimpleObjectProperty<>("a");
+    FlushableProperty<String> property = new FlushableProperty<>(target);
+    assertEquals(FlushableProperty.FlushState.IDLE, property.getFlushState());
+    property.setValue("b");
+    assertTrue(property.isChanged());
+    property.flush();
+    assertEquals("b", target.getValue());
+    assertFalse(property.isChanged());
+    assertEquals(FlushableProperty.FlushState.COMPLETED, property.getFlushState());
+  }
+
+  @Test
+  void testBackgroundFlushCoalesces() {
+    Property<String> target = new SimpleObjectProperty<>("a");
+    List<String> delivered = new ArrayList<>();
+    target.addListener((__, old, value) -> delivered.add(value));
+    FlushableProperty<String> property = new FlushableProperty<>(target);
+    ManualExecutor executor = new ManualExecutor();
+    property.setFlushExecutor(executor);
+
+    property.setValue("b");
+    property.flush();
+    property.setValue("c");
+    property.flush();
+    assertEquals("a", target.getValue(), "Background flushes should not set the target immediately");
+    assertTrue(property.isFlushPending());
+    assertEquals(FlushableProperty.FlushState.PENDING, property.getFlushState());
+
+    executor.runAll();
+    assertEquals(List.of("c"), delivered, "Only the latest value should be delivered");
+    assertFalse(property.isFlushPending());
+    assertEquals(FlushableProperty.FlushState.COMPLETED, property.getFlushState());
+  }
+
+  @Test
+  void testBackgroundFlushFailure() {
+    Property<String> target = new SimpleObjectProperty<>("a");
+    target.bind(new SimpleObjectProperty<>("a"));
+    FlushableProperty<String> property = new FlushableProperty<>(target);
+    ManualExecutor executor = new ManualExecutor();
+    property.setFlushExecutor(executor);
+
+    Thread thread = Thread.currentThread();
+    Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+    List<Throwable> errors = new ArrayList<>();
+    thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+    try {
+      property.setValue("b");
+      property.flush();
+      executor.runAll();
+    } finally {
+      thread.setUncaughtExceptionHandler(handler);
+    }
+    assertEquals(1, errors.size());
+    assertEquals(FlushableProperty.FlushState.FAILED, property.getFlushState());
+    assertEquals(errors.get(0), property.getFlushFailure());
+  }
+
+  @Test
+  void testRejectedFlush() {
+    FlushableProperty<String> property = new FlushableProperty<>(new SimpleObjectProperty<>("a"));
+    property.setFlushExecutor(command -> {
+      throw new RejectedExecutionException();
+    });
+    property.setValue("b");
+    assertThrows(RejectedExecutionException.class, property::flush);
+    assertEquals(FlushableProperty.FlushState.FAILED, property.getFlushState());
+  }
+}
@@ -0,0 +1,78 @@
+package edu.wpi.first.desktop.settings;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettingsIndexTest {
+
+  private Setting<String> address;
+  private Setting<Integer> port;
+  private Setting<String> theme;
+  private SettingsIndex index;
+
+  @BeforeEach
+  void setup() {
+    address = Setting.of("Address", "The robot's IP address or hostname", new SimpleObjectProperty<>("localhost"));
+    port = Setting.of("Port", new SimpleObjectProperty<>(1735));
+    theme = Setting.of("Theme", "The application theme", new SimpleObjectProperty<>("Material"));
+    Category connection = Category.of("Connection", Group.of("Robot Connection", address, port));
+    Category appearance = Category.of("Appearance", Group.of("Style", theme));
+    index = SettingsIndex.of(List.of(Category.of("App", List.of(connection, appearance), List.of())));
+  }
+
+  @Test
+  void testIndexesSubcategories() {
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  void testPrefixMatch() {
+    assertEquals(List.of(address), settings(index.search("addr")));
+  }
+
+  @Test
+  void testMatchesGroupName() {
+    assertEquals(List.of(address, port), settings(index.search("robot conn")));
+  }
+
+  @Test
+  void testAllTokensMustMatch() {
+    assertEquals(List.of(port), settings(index.search("robot port")));
+    assertTrue(index.search("robot theme").isEmpty());
+  }
+
+  @Test
+  void testNameMatchesRankedFirst() {
+    // "theme" is the name of one setting, but only appears in the description of the other
+    Setting<String> other = Setting.of("Colors", "Colors used by the theme", new SimpleObjectProperty<>(""));
+    SettingsIndex index = SettingsIndex.of(List.of(Category.of("Cat", Group.of("Group", other, theme))));
+    assertEquals(List.of(theme, other), settings(index.search("theme")));
+  }
+
+  @Test
+  void testCaseInsensitive() {
+    assertEquals(List.of(address), settings(index.search("HOSTNAME")));
+  }
+
+  @Test
+  void testEmptyQuery() {
+    assertTrue(index.search("").isEmpty());
+    assertTrue(index.search("  ").isEmpty());
+    assertTrue(index.search(null).isEmpty());
+  }
+
+  private static List<Setting<?>> settings(List<SettingsIndex.Result> results) {
+    return results.stream()
+        .map(SettingsIndex.Result::getSetting)
+        .collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,146 @@
+package edu.wpi.first.desktop.settings;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettingsJournalTest {
+
+  private MutableClock clock;
+  private Setting<String> host;
+  private Setting<Integer> port;
+  private SettingsJournal journal;
+
+  @BeforeEach
+  void setup() {
+    clock = new MutableClock();
+    host = Setting.of("Host", new SimpleObjectProperty<>("localhost"));
+    port = Setting.of("Port", new SimpleObjectProperty<>(1735));
+    journal = new SettingsJournal(3, clock);
+    journal.trackAll(Category.of("Network", Group.of("Connection", host, port)));
+  }
+
+  @Test
+  void testRecordsChanges() {
+    host.setValue("10.1.90.2");
+    SettingsJournal.runWithSource(SettingsJournal.Source.IMPORT, () -> port.setValue(5810));
+
+    List<SettingsJournal.Entry> entries = journal.getEntries();
+    assertEquals(2, entries.size());
+    assertEquals("Network/Connection/Host", entries.get(0).getKey());
+    assertEquals("localhost", entries.get(0).getOldValue());
+    assertEquals("10.1.90.2", entries.get(0).getNewValue());
+    assertEquals(SettingsJournal.Source.CODE, entries.get(0).getSource());
+    assertEquals(SettingsJournal.Source.IMPORT, entries.get(1).getSource());
+  }
+
+  @Test
+  void testUndoRedo() {
+    host.setValue("a");
+    host.setValue("b");
+    assertTrue(journal.undo());
+    assertEquals("a", host.getValue());
+    assertTrue(journal.undo());
+    assertEquals("localhost", host.getValue());
+    assertFalse(journal.undo());
+
+    assertTrue(journal.redo());
+    assertEquals("a", host.getValue());
+    assertEquals(2, journal.getEntries().size(), "Undoing and redoing should not record new changes");
+
+    host.setValue("c");
+    assertFalse(journal.canRedo(), "A new change should discard undone changes");
+    assertEquals(List.of("a", "c"), newValues());
+  }
+
+  @Test
+  void testRingBufferDropsOldest() {
+    for (int i = 1; i <= 5; i++) {
+      port.setValue(i);
+    }
+    assertEquals(3, journal.getEntries().size());
+    assertEquals(List.of(3, 4, 5), newValues());
+    int undone = 0;
+    while (journal.undo()) {
+      undone++;
+    }
+    assertEquals(3, undone);
+    assertEquals(2, port.getValue());
+  }
+
+  @Test
+  void testMergesEditorChanges() {
+    SettingsJournal.runWithSource(SettingsJournal.Source.EDITOR, () -> {
+      host.setValue("1");
+      host.setValue("10");
+      clock.advance(Duration.ofMillis(500));
+      host.setValue("10.");
+    });
+    assertEquals(1, journal.getEntries().size());
+    assertEquals("localhost", journal.getEntries().get(0).getOldValue());
+    assertEquals("10.", journal.getEntries().get(0).getNewValue());
+
+    clock.advance(SettingsJournal.MERGE_WINDOW.plusMillis(1));
+    SettingsJournal.runWithSource(SettingsJournal.Source.EDITOR, () -> host.setValue("10.1"));
+    assertEquals(2, journal.getEntries().size(), "Changes after the merge window should not be merged");
+  }
+
+  @Test
+  void testDifferencesFromDefaults() {
+    assertTrue(journal.getDifferencesFromDefaults().isEmpty());
+    port.setValue(5810);
+    host.setValue("roborio");
+    assertEquals(List.of("Network/Connection/Port", "Network/Connection/Host"),
+        new ArrayList<>(journal.getDifferencesFromDefaults().keySet()));
+    assertEquals(5810, journal.getDifferencesFromDefaults().get("Network/Connection/Port").getValue());
+
+    port.setValue(1735);
+    assertFalse(journal.getDifferencesFromDefaults().containsKey("Network/Connection/Port"));
+    journal.undo();
+    assertTrue(journal.getDifferencesFromDefaults().containsKey("Network/Connection/Port"),
+        "Undoing should update differences");
+  }
+
+  private List<Object> newValues() {
+    return journal.getEntries().stream()
+        .map(SettingsJournal.Entry::getNewValue)
+        .collect(Collectors.toList());
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now = Instant.EPOCH;
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package edu.wpi.first.desktop.settings;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettingsJsonTest {
+
+  private enum Mode {
+    FAST, SLOW
+  }
+
+  private Setting<String> host;
+  private Setting<Integer> port;
+  private Setting<Mode> mode;
+  private Setting<Double> rate;
+  private List<Category> categories;
+
+  @BeforeEach
+  void setup() {
+    host = Setting.of("Host", new SimpleObjectProperty<>("localhost"));
+    port = Setting.checked("Port", new SimpleObjectProperty<>(1735), Integer.class);
+    mode = Setting.of("Mode", new SimpleObjectProperty<>(Mode.FAST));
+    rate = Setting.of("Rate", new SimpleObjectProperty<>(50.0));
+    categories = List.of(Category.of("Network", Group.of("Connection", host, port, mode, rate)));
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    host.setValue("Team \"190\"\n");
+    port.setValue(5810);
+    mode.setValue(Mode.SLOW);
+    rate.setValue(Double.POSITIVE_INFINITY);
+    StringWriter out = new StringWriter();
+    SettingsJson.exportSettings(categories, out);
+
+    setup();
+    SettingsChange change = SettingsJson.importSettings(new StringReader(out.toString()), categories);
+    assertEquals("Team \"190\"\n", host.getValue());
+    assertEquals(5810, port.getValue());
+    assertEquals(Mode.SLOW, mode.getValue());
+    assertEquals(Double.POSITIVE_INFINITY, rate.getValue());
+    assertEquals(4, change.getKeys().size());
+  }
+
+  @Test
+  void testIgnoresUnknownKeysAndFields() throws IOException {
+    String json = "{\"extra\": [1, {\"a\": null}], \"settings\": {\"Other/Key\": {\"x\": 1},"
+        + " \"Network/Connection/Host\": \"roborio\"}, \"version\": 1}";
+    SettingsChange change = SettingsJson.importSettings(new StringReader(json), categories);
+    assertEquals(List.of("Network/Connection/Host"), change.getKeys());
+    assertEquals("roborio", host.getValue());
+  }
+
+  @Test
+  void testNullValue() throws IOException {
+    String json = "{\"settings\": {\"Network/Connection/Host\": null}}";
+    SettingsJson.importSettings(new StringReader(json), categories);
+    assertNull(host.getValue());
+  }
+
+  @Test
+  void testInvalidValuesAreNotApplied() {
+    String json = "{\"settings\": {"
+        + "\"Network/Connection/Host\": \"roborio\","
+        + "\"Network/Connection/Port\": 3.5,"
+        + "\"Network/Connection/Mode\": \"MEDIUM\""
+        + "}}";
+    SettingsImportException e = assertThrows(SettingsImportException.class,
+        () -> SettingsJson.importSettings(new StringReader(json), categories));
+    assertEquals(2, e.getProblems().size());
+    assertEquals("localhost", host.getValue(), "No values should be applied if any are invalid");
+  }
+
+  @Test
+  void testNullForCheckedSetting() {
+    String json = "{\"settings\": {\"Network/Connection/Port\": null}}";
+    assertThrows(SettingsImportException.class, () -> SettingsJson.importSettings(new StringReader(json), categories));
+    assertEquals(1735, port.getValue());
+  }
+
+  @Test
+  void testMalformedJson() {
+    String json = "{\"settings\": {\"Network/Connection/Host\": \"roborio\" \"Network/Connection/Port\": 1}}";
+    IOException e = assertThrows(IOException.class,
+        () -> SettingsJson.importSettings(new StringReader(json), categories));
+    assertTrue(e.getMessage().contains("line 1"), e.getMessage());
+    assertEquals("localhost", host.getValue());
+  }
+
+  @Test
+  void testNewerVersion() {
+    String json = "{\"version\": 2, \"settings\": {}}";
+    assertThrows(IOException.class, () -> SettingsJson.importSettings(new StringReader(json), categories));
+  }
+}
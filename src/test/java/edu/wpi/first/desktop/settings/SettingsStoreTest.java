@@ -0,0 +1,277 @@
+package edu.wpi.first.desktop.settings;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettingsStoreTest {
+
+  // Long enough that background writes never happen during a test
+  private static final Duration WRITE_DELAY = Duration.ofMinutes(10);
+
+  private Path dir;
+
+  private enum Mode {
+    FAST, SLOW
+  }
+
+  @BeforeEach
+  void setup() throws IOException {
+    dir = Files.createTempDirectory("settings-store-test");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    // Every test closes its stores, so nothing has the files open. Children are deleted before their parents
+    try (Stream<Path> paths = Files.walk(dir)) {
+      for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    Setting<String> address = Setting.of("Address", new SimpleObjectProperty<>("localhost"));
+    Setting<Integer> port = Setting.of("Port", new SimpleObjectProperty<>(1735));
+    Setting<Mode> mode = Setting.checked("Mode", new SimpleObjectProperty<>(Mode.FAST), Mode.class);
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bindAll(Category.of("Network", Group.of("Connection", address, port, mode)));
+      address.setValue(null);
+      port.setValue(5810);
+      mode.setValue(Mode.SLOW);
+    }
+
+    Setting<String> address2 = Setting.of("Address", new SimpleObjectProperty<>("localhost"));
+    Setting<Integer> port2 = Setting.of("Port", new SimpleObjectProperty<>(1735));
+    Setting<Mode> mode2 = Setting.checked("Mode", new SimpleObjectProperty<>(Mode.FAST), Mode.class);
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bindAll(Category.of("Network", Group.of("Connection", address2, port2, mode2)));
+    }
+    assertNull(address2.getValue());
+    assertEquals(5810, port2.getValue());
+    assertEquals(Mode.SLOW, mode2.getValue());
+  }
+
+  @Test
+  void testLongString() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    StringBuilder builder = new StringBuilder();
+    while (builder.length() <= 70_000) {
+      builder.append("\u00e9long value ");
+    }
+    String longValue = builder.toString();
+    Setting<String> setting = Setting.of("Setting", new SimpleObjectProperty<>(""));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("setting", setting);
+      setting.setValue(longValue);
+    }
+
+    Setting<String> setting2 = Setting.of("Setting", new SimpleObjectProperty<>(""));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("setting", setting2);
+    }
+    assertEquals(longValue, setting2.getValue());
+  }
+
+  @Test
+  void testOnlyWritesDirtyKeys() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    Setting<String> a = Setting.of("A", new SimpleObjectProperty<>("a"));
+    Setting<String> b = Setting.of("B", new SimpleObjectProperty<>("b"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a);
+      store.bind("b", b);
+      long emptySize = store.getFileSize();
+      store.flush();
+      assertEquals(emptySize, store.getFileSize(), "Nothing changed, so nothing should be written");
+
+      a.setValue("x");
+      a.setValue("y");
+      store.flush();
+      // key length + "a" + value length + present flag + string length + "y" + checksum
+      assertEquals(emptySize + 2 + 1 + 4 + 1 + 4 + 1 + 4, store.getFileSize());
+      assertTrue(store.containsKey("a"));
+      assertFalse(store.containsKey("b"));
+    }
+  }
+
+  @Test
+  void testKeepsUnboundKeys() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    Setting<Double> a = Setting.of("A", new SimpleObjectProperty<>(1.0));
+    Setting<Double> b = Setting.of("B", new SimpleObjectProperty<>(2.0));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a);
+      store.bind("b", b);
+      a.setValue(10.0);
+      b.setValue(20.0);
+    }
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a);
+      a.setValue(100.0);
+      store.compact();
+    }
+    Setting<Double> b2 = Setting.of("B", new SimpleObjectProperty<>(2.0));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("b", b2);
+    }
+    assertEquals(20.0, b2.getValue());
+  }
+
+  @Test
+  void testCompaction() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    Setting<Integer> counter = Setting.of("Counter", new SimpleObjectProperty<>(0));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("counter", counter);
+      long maxSize = 0;
+      for (int i = 1; i <= 10_000; i++) {
+        counter.setValue(i);
+        store.flush();
+        maxSize = Math.max(maxSize, store.getFileSize());
+      }
+      assertTrue(maxSize <= 2 * SettingsStore.MIN_COMPACTION_SIZE, "The journal was never compacted");
+    }
+    Setting<Integer> counter2 = Setting.of("Counter", new SimpleObjectProperty<>(0));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("counter", counter2);
+    }
+    assertEquals(10_000, counter2.getValue());
+  }
+
+  @Test
+  void testRecoversFromPartialWrite() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    Setting<String> a = Setting.of("A", new SimpleObjectProperty<>("a"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a);
+      a.setValue("first");
+      store.flush();
+      a.setValue("second");
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 3);
+    }
+
+    Setting<String> a2 = Setting.of("A", new SimpleObjectProperty<>("a"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a2);
+      assertEquals("first", a2.getValue());
+      a2.setValue("third");
+    }
+    Setting<String> a3 = Setting.of("A", new SimpleObjectProperty<>("a"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a3);
+    }
+    assertEquals("third", a3.getValue());
+  }
+
+  @Test
+  void testZeroFilledTailIsIgnored() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    Setting<String> a = Setting.of("A", new SimpleObjectProperty<>("a"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a);
+      a.setValue("first");
+    }
+    // What a file that was extended but never written looks like after a crash
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      channel.write(ByteBuffer.allocate(4096));
+    }
+
+    Setting<String> a2 = Setting.of("A", new SimpleObjectProperty<>("a"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      assertFalse(store.containsKey(""), "Zeros should not be read as records with empty keys");
+      store.bind("a", a2);
+      assertEquals("first", a2.getValue());
+      a2.setValue("second");
+    }
+    Setting<String> a3 = Setting.of("A", new SimpleObjectProperty<>("a"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a3);
+    }
+    assertEquals("second", a3.getValue());
+  }
+
+  @Test
+  void testCorruptRecordEndsJournal() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    Setting<String> a = Setting.of("A", new SimpleObjectProperty<>("a"));
+    Setting<String> b = Setting.of("B", new SimpleObjectProperty<>("b"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a);
+      store.bind("b", b);
+      a.setValue("first");
+      store.flush();
+      b.setValue("second");
+    }
+    // Change the last byte of the value of the last record, without changing its length
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer last = ByteBuffer.allocate(1);
+      long position = channel.size() - Integer.BYTES - 1;
+      channel.read(last, position);
+      last.put(0, (byte) (last.get(0) ^ 0xFF)).rewind();
+      channel.write(last, position);
+    }
+
+    Setting<String> a2 = Setting.of("A", new SimpleObjectProperty<>("a"));
+    Setting<String> b2 = Setting.of("B", new SimpleObjectProperty<>("b"));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("a", a2);
+      store.bind("b", b2);
+    }
+    assertEquals("first", a2.getValue());
+    assertEquals("b", b2.getValue(), "A record that does not match its checksum should be ignored");
+  }
+
+  @Test
+  void testIncompatibleValueIsIgnored() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      Setting<Boolean> flag = Setting.of("Flag", new SimpleObjectProperty<>(false));
+      store.bind("key", flag);
+      flag.setValue(true);
+    }
+    Setting<Mode> mode = Setting.of("Mode", new SimpleObjectProperty<>(Mode.SLOW));
+    try (SettingsStore store = SettingsStore.open(file, WRITE_DELAY)) {
+      store.bind("key", mode);
+    }
+    assertEquals(Mode.SLOW, mode.getValue());
+  }
+
+  @Test
+  void testNotASettingsFile() throws IOException {
+    Path file = dir.resolve("settings.dat");
+    Files.write(file, "not settings".getBytes(StandardCharsets.UTF_8));
+    assertThrows(IOException.class, () -> SettingsStore.open(file));
+  }
+
+  @Test
+  void testNullValueWithoutType() throws IOException {
+    try (SettingsStore store = SettingsStore.open(dir.resolve("settings.dat"), WRITE_DELAY)) {
+      Setting<Object> setting = Setting.of("Null", new SimpleObjectProperty<>(null));
+      assertThrows(IllegalArgumentException.class, () -> store.bind("null", setting));
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package edu.wpi.first.desktop.settings;
+
+import edu.wpi.first.desktop.property.FlushableProperty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleObjectProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettingsTransactionTest {
+
+  @Test
+  void testFlushesOnlyChangedSettings() {
+    Property<String> host = new SimpleObjectProperty<>("localhost");
+    Property<Integer> port = new SimpleObjectProperty<>(1735);
+    FlushableProperty<String> hostEdit = new FlushableProperty<>(host);
+    FlushableProperty<Integer> portEdit = new FlushableProperty<>(port);
+    Category category = Category.of("Network", Group.of("Connection",
+        Setting.of("Host", hostEdit),
+        Setting.of("Port", portEdit)
+    ));
+    List<Object> notifications = new ArrayList<>();
+    port.addListener((__, old, value) -> notifications.add(value));
+
+    hostEdit.setValue("10.1.90.2");
+    SettingsChange change = new SettingsTransaction().addAll(category).commit();
+
+    assertEquals(List.of("Network/Connection/Host"), change.getKeys());
+    assertEquals("10.1.90.2", host.getValue());
+    assertTrue(notifications.isEmpty(), "Unchanged settings should not be flushed");
+  }
+
+  @Test
+  void testSettingsWithSameKeyAreBothFlushed() {
+    Property<String> first = new SimpleObjectProperty<>("a");
+    Property<String> second = new SimpleObjectProperty<>("b");
+    FlushableProperty<String> firstEdit = new FlushableProperty<>(first);
+    FlushableProperty<String> secondEdit = new FlushableProperty<>(second);
+    // Both settings have the key "Category/Group/Name"
+    Category category = Category.of("Category", Group.of("Group",
+        Setting.of("Name", firstEdit),
+        Setting.of("Name", secondEdit)
+    ));
+
+    firstEdit.setValue("x");
+    secondEdit.setValue("y");
+    SettingsChange change = new SettingsTransaction().addAll(category).commit();
+
+    assertEquals("x", first.getValue());
+    assertEquals("y", second.getValue());
+    assertEquals(List.of("Category/Group/Name", "Category/Group/Name"), change.getKeys());
+    assertEquals(2, change.getSettings().size());
+  }
+
+  @Test
+  void testReactionsRunOnceAfterCommit() {
+    Property<String> host = new SimpleObjectProperty<>("localhost");
+    Property<Integer> port = new SimpleObjectProperty<>(1735);
+    FlushableProperty<String> hostEdit = new FlushableProperty<>(host);
+    FlushableProperty<Integer> portEdit = new FlushableProperty<>(port);
+    List<String> reconnects = new ArrayList<>();
+    Runnable reconnect = () -> reconnects.add(host.getValue() + ":" + port.getValue());
+    host.addListener(__ -> SettingsTransaction.runAfterCommit(reconnect));
+    port.addListener(__ -> SettingsTransaction.runAfterCommit(reconnect));
+
+    hostEdit.setValue("10.1.90.2");
+    portEdit.setValue(5810);
+    new SettingsTransaction()
+        .add("host", Setting.of("Host", hostEdit))
+        .add("port", Setting.of("Port", portEdit))
+        .commit();
+    assertEquals(List.of("10.1.90.2:5810"), reconnects, "The reaction should run once, after both settings changed");
+
+    port.setValue(1735);
+    assertEquals(List.of("10.1.90.2:5810", "10.1.90.2:1735"), reconnects, "Outside of a commit, reactions run at once");
+  }
+
+  @Test
+  void testNothingChanged() {
+    FlushableProperty<String> edit = new FlushableProperty<>(new SimpleObjectProperty<>("value"));
+    SettingsChange change = new SettingsTransaction().add("key", Setting.of("Setting", edit)).commit();
+    assertTrue(change.isEmpty());
+  }
+
+  @Test
+  void testFlushesNullValues() {
+    Property<String> property = new SimpleObjectProperty<>(null);
+    FlushableProperty<String> edit = new FlushableProperty<>(property);
+    Setting<String> setting = Setting.of("Setting", edit);
+    edit.setValue("value");
+    SettingsChange change = new SettingsTransaction().add("key", setting).commit();
+    assertEquals("value", property.getValue());
+    assertTrue(change.contains(setting));
+    assertTrue(change.contains("key"));
+  }
+
+  @Test
+  void testRollsBackOnFailure() {
+    Property<String> first = new SimpleObjectProperty<>("a");
+    Property<String> bound = new SimpleObjectProperty<>("b");
+    bound.bind(new SimpleObjectProperty<>("b"));
+    FlushableProperty<String> firstEdit = new FlushableProperty<>(first);
+    FlushableProperty<String> boundEdit = new FlushableProperty<>(bound);
+    firstEdit.setValue("x");
+    boundEdit.setValue("y");
+
+    SettingsTransaction transaction = new SettingsTransaction()
+        .add("first", Setting.of("First", firstEdit))
+        .add("bound", Setting.of("Bound", boundEdit));
+    assertThrows(RuntimeException.class, transaction::commit);
+    assertEquals("a", first.getValue(), "Flushed settings should be restored when a later flush fails");
+    assertEquals("x", firstEdit.getValue(), "Pending edits should be kept when a flush fails");
+  }
+
+  @Test
+  void testCommitOnlyOnce() {
+    SettingsTransaction transaction = new SettingsTransaction();
+    assertFalse(transaction.isCommitted());
+    transaction.commit();
+    assertTrue(transaction.isCommitted());
+    assertThrows(IllegalStateException.class, transaction::commit);
+  }
+}
@@ -0,0 +1,121 @@
+package edu.wpi.first.desktop.theme;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThemeBundlerTest {
+
+  private Path dir;
+
+  @BeforeEach
+  void setup() throws IOException {
+    dir = Files.createTempDirectory("theme-bundler-test");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Test
+  void testMergePreservesOrder() throws IOException {
+    String first = write("first.css", ".root { -fx-base: red; }");
+    String second = write("second.css", ".root { -fx-base: blue; }");
+    String merged = ThemeBundler.merge(List.of(first, second));
+    assertTrue(merged.indexOf("red") < merged.indexOf("blue"), "Stylesheets were merged out of order");
+  }
+
+  @Test
+  void testMergeRemovesDuplicates() throws IOException {
+    String first = write("first.css", ".root { -fx-base: red; }");
+    String copy = write("copy.css", ".root { -fx-base: red; }");
+    String merged = ThemeBundler.merge(List.of(first, copy, first));
+    assertEquals(merged.indexOf("red"), merged.lastIndexOf("red"), "Duplicate stylesheets should only appear once");
+  }
+
+  @Test
+  void testMergeKeepsLastDuplicate() throws IOException {
+    String first = write("first.css", ".root { -fx-base: red; }");
+    String second = write("second.css", ".root { -fx-base: blue; }");
+    String merged = ThemeBundler.merge(List.of(first, second, first));
+    assertEquals(merged.indexOf("red"), merged.lastIndexOf("red"));
+    assertTrue(merged.indexOf("blue") < merged.indexOf("red"), "The last copy of a stylesheet should win: " + merged);
+  }
+
+  @Test
+  void testMergeKeepsSameContentsWithDifferentUrls() throws IOException {
+    Files.createDirectories(dir.resolve("other"));
+    String first = write("sheet.css", ".button { -fx-graphic: url(\"icon.png\"); }");
+    String second = write("other/sheet.css", ".button { -fx-graphic: url(\"icon.png\"); }");
+    String merged = ThemeBundler.merge(List.of(first, second));
+    assertTrue(merged.contains(new URL(new URL(first), "icon.png").toExternalForm()), merged);
+    assertTrue(merged.contains(new URL(new URL(second), "icon.png").toExternalForm()), merged);
+  }
+
+  @Test
+  void testMergeResolvesRelativeUrls() throws IOException {
+    String sheet = write("sheet.css", ".button { -fx-graphic: url(\"icons/icon.png\"); }");
+    String merged = ThemeBundler.merge(List.of(sheet));
+    String expected = new URL(new URL(sheet), "icons/icon.png").toExternalForm();
+    assertTrue(merged.contains("url(\"" + expected + "\")"), "Relative URL was not resolved: " + merged);
+  }
+
+  @Test
+  void testMergeInlinesImports() throws IOException {
+    write("other.css", ".label { -fx-text-fill: green; }");
+    String first = write("first.css", ".root { -fx-base: red; }");
+    String second = write("second.css", "@import \"other.css\";\n.label { -fx-text-fill: blue; }");
+    String merged = ThemeBundler.merge(List.of(first, second));
+    assertFalse(merged.contains("@import"), "Imports should be replaced with the imported stylesheet: " + merged);
+    assertTrue(merged.indexOf("red") < merged.indexOf("green"), "Imported rules should stay in place: " + merged);
+    assertTrue(merged.indexOf("green") < merged.indexOf("blue"), "Imported rules should stay in place: " + merged);
+  }
+
+  @Test
+  void testBundleIsCached() throws IOException {
+    Theme theme = new Theme("Test", write("a.css", ".a {}"), write("b.css", ".b {}"));
+    Theme bundle = ThemeBundler.bundle(theme);
+    assertEquals("Test", bundle.getName());
+    assertEquals(1, bundle.getStyleSheetPaths().size(), "Bundle should have a single stylesheet");
+    assertSame(bundle, ThemeBundler.bundle(theme), "Bundles should be reused");
+    Theme sameSheets = new Theme("Test", theme.getStyleSheetPaths().toArray(new String[0]));
+    assertSame(bundle, ThemeBundler.bundle(sameSheets), "Themes with the same stylesheets should share a bundle");
+  }
+
+  @Test
+  void testBundlesShareDirectory() throws IOException {
+    Theme first = ThemeBundler.bundle(new Theme("First", write("a.css", ".a {}"), write("b.css", ".b {}")));
+    Theme second = ThemeBundler.bundle(new Theme("Second", write("c.css", ".c {}"), write("d.css", ".d {}")));
+    Path firstFile = Paths.get(URI.create(first.getStyleSheetPaths().get(0)));
+    Path secondFile = Paths.get(URI.create(second.getStyleSheetPaths().get(0)));
+    assertEquals(firstFile.getParent(), secondFile.getParent(), "Bundles should be written to the same directory");
+  }
+
+  private String write(String name, String contents) throws IOException {
+    Path file = dir.resolve(name);
+    Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    return file.toUri().toString();
+  }
+
+}
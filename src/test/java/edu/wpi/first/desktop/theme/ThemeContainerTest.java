@@ -0,0 +1,63 @@
+package edu.wpi.first.desktop.theme;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThemeContainerTest {
+
+  private ThemeContainer container;
+
+  @BeforeEach
+  void setup() {
+    container = new ThemeContainer();
+  }
+
+  @Test
+  void testModenaIsPresentByDefault() {
+    assertEquals(List.of(Theme.MODENA), container.getThemes());
+    assertEquals(Optional.of(Theme.MODENA), container.getTheme(Theme.MODENA.getName()));
+  }
+
+  @Test
+  void testLookupByName() {
+    Theme theme = new Theme("Test", "path");
+    container.addTheme(theme);
+    assertTrue(container.hasTheme("Test"));
+    assertEquals(Optional.of(theme), container.getTheme("Test"));
+    assertEquals(Optional.empty(), container.getTheme("test"), "Lookups should be case-sensitive");
+  }
+
+  @Test
+  void testRemoveTheme() {
+    Theme theme = new Theme("Test", "path");
+    container.addTheme(theme);
+    container.removeTheme(theme);
+    assertFalse(container.hasTheme("Test"));
+    assertEquals(List.of(Theme.MODENA), container.getThemes());
+  }
+
+  @Test
+  void testDuplicateNameIsRejected() {
+    container.addTheme(new Theme("Test", "path"));
+    Theme duplicate = new Theme("Test", "other path");
+    assertThrows(IllegalArgumentException.class, () -> container.addTheme(duplicate));
+    assertEquals(2, container.getThemes().size(), "The duplicate theme should not have been added");
+  }
+
+  @Test
+  void testRemoveUnknownThemeWithSameName() {
+    Theme theme = new Theme("Test", "path");
+    container.addTheme(theme);
+    container.removeTheme(new Theme("Test", "other path"));
+    assertEquals(Optional.of(theme), container.getTheme("Test"), "A different theme with the same name was removed");
+  }
+
+}
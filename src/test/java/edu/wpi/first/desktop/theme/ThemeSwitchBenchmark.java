@@ -0,0 +1,169 @@
+package edu.wpi.first.desktop.theme;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmarks switching between {@link Theme#MODENA Modena} and the bundled material theme on large scene graphs.
+ * Each switch is followed by a synchronous CSS and layout pass over the whole scene, which is the work the next pulse
+ * would otherwise do, so the reported pulse time is the cost a user would see as a frozen UI.
+ *
+ * <p>This is excluded from the normal test run. Run it with {@code ./gradlew benchmark}, which uses Monocle's headless
+ * platform so that no display is required.</p>
+ */
+@Tag("Benchmark")
+class ThemeSwitchBenchmark {
+
+  private static final int WARMUP_ROUND_TRIPS = 3;
+  private static final int MEASURED_ROUND_TRIPS = 5;
+
+  private static final Theme MATERIAL = Theme.relativeToClass("Material", Theme.class, "material.css");
+
+  @BeforeAll
+  static void startToolkit() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    try {
+      Platform.startup(latch::countDown);
+    } catch (IllegalStateException e) {
+      // Already started by another test
+      latch.countDown();
+    }
+    Platform.setImplicitExit(false);
+    assertTrue(latch.await(10, TimeUnit.SECONDS), "JavaFX toolkit did not start");
+  }
+
+  @ParameterizedTest(name = "{0} nodes")
+  @ValueSource(ints = {1_000, 10_000, 50_000})
+  void benchmarkThemeSwitch(int nodeCount) throws Exception {
+    ThemeManager manager = new ThemeManager();
+    Scene scene = onFxThread(() -> {
+      Scene s = new Scene(createSceneGraph(nodeCount), 1280, 720);
+      manager.addScene(s);
+      s.getRoot().applyCss();
+      s.getRoot().layout();
+      return s;
+    });
+
+    for (int i = 0; i < WARMUP_ROUND_TRIPS; i++) {
+      onFxThread(() -> roundTrip(manager, scene));
+    }
+
+    Result result = onFxThread(() -> {
+      Result total = new Result();
+      for (int i = 0; i < MEASURED_ROUND_TRIPS; i++) {
+        total.add(roundTrip(manager, scene));
+      }
+      return total;
+    });
+
+    int switches = MEASURED_ROUND_TRIPS * 2;
+    System.out.printf(
+        "Theme switch, %,d nodes (%,d restyled): apply %.3f ms, pulse %.3f ms, allocated %,d KiB per switch%n",
+        nodeCount,
+        manager.getMetrics().getRestyledNodeCount(),
+        result.applyNanos / 1e6 / switches,
+        result.pulseNanos / 1e6 / switches,
+        result.allocatedBytes / 1024 / switches);
+    assertNotNull(manager.getMetrics(), "No metrics were recorded");
+  }
+
+  /**
+   * Switches to the material theme and back, forcing a CSS and layout pass after each switch.
+   */
+  private static Result roundTrip(ThemeManager manager, Scene scene) {
+    Result result = new Result();
+    result.add(switchTheme(manager, scene, MATERIAL));
+    result.add(switchTheme(manager, scene, Theme.MODENA));
+    return result;
+  }
+
+  private static Result switchTheme(ThemeManager manager, Scene scene, Theme theme) {
+    Result result = new Result();
+    long allocatedBefore = allocatedBytes();
+    long start = System.nanoTime();
+    manager.setTheme(theme);
+    long applied = System.nanoTime();
+    scene.getRoot().applyCss();
+    scene.getRoot().layout();
+    long end = System.nanoTime();
+    result.applyNanos = applied - start;
+    result.pulseNanos = end - applied;
+    result.allocatedBytes = allocatedBytes() - allocatedBefore;
+    return result;
+  }
+
+  /**
+   * Creates a scene graph with rows of labels, buttons, text fields, and check boxes. The returned graph has at least
+   * {@code nodeCount} nodes, not counting the nodes that make up the controls' skins.
+   */
+  private static Parent createSceneGraph(int nodeCount) {
+    VBox root = new VBox();
+    int count = 1;
+    int row = 0;
+    while (count < nodeCount) {
+      HBox box = new HBox(
+          new Label("Label " + row),
+          new Button("Button " + row),
+          new TextField("Text " + row),
+          new CheckBox("Check " + row)
+      );
+      root.getChildren().add(box);
+      count += 1 + box.getChildren().size();
+      row++;
+    }
+    return root;
+  }
+
+  private static long allocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+  private static <T> T onFxThread(Supplier<T> task) throws Exception {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Platform.runLater(() -> {
+      try {
+        future.complete(task.get());
+      } catch (Throwable e) { //NOPMD
+        future.completeExceptionally(e);
+      }
+    });
+    return future.get(5, TimeUnit.MINUTES);
+  }
+
+  private static final class Result {
+    long applyNanos;
+    long pulseNanos;
+    long allocatedBytes;
+
+    void add(Result other) {
+      applyNanos += other.applyNanos;
+      pulseNanos += other.pulseNanos;
+      allocatedBytes += other.allocatedBytes;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmarks calling a single debouncer from many producer threads at once, reporting the throughput of calls and
+ * the memory allocated per call. A debouncer that is already armed should not allocate for each call, so the
+ * allocation per call should be close to zero no matter how many producers there are.
+ *
+ * <p>This is excluded from the normal test run. Run it with {@code ./gradlew benchmark}.</p>
+ */
+@Tag("Benchmark")
+class DebouncerBenchmark {
+
+  private static final Duration WARMUP = Duration.ofSeconds(1);
+  private static final Duration MEASUREMENT = Duration.ofSeconds(3);
+
+  @ParameterizedTest(name = "{0} producers")
+  @ValueSource(ints = {1, 4, 16, 64})
+  void benchmarkConcurrentCalls(int producers) throws InterruptedException {
+    Debouncer debouncer = new Debouncer(() -> { }, Duration.ofMillis(50));
+    measure(debouncer, producers, WARMUP);
+    Result result = measure(debouncer, producers, MEASUREMENT);
+
+    System.out.printf(
+        "Debouncer, %d producers: %,.0f calls/s, %.3f bytes allocated per call%n",
+        producers,
+        result.calls.get() / (MEASUREMENT.toNanos() / 1e9),
+        (double) result.allocatedBytes.get() / result.calls.get());
+    assertTrue(result.calls.get() > 0, "No calls were made");
+  }
+
+  private static Result measure(Debouncer debouncer, int producers, Duration duration) throws InterruptedException {
+    Result result = new Result();
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(producers);
+    long end = System.nanoTime() + duration.toNanos();
+    for (int i = 0; i < producers; i++) {
+      ThreadUtils.makeDaemonThread(() -> {
+        try {
+          start.await();
+          long allocatedBefore = allocatedBytes();
+          long calls = 0;
+          while (System.nanoTime() < end) {
+            debouncer.run();
+            calls++;
+          }
+          result.allocatedBytes.addAndGet(allocatedBytes() - allocatedBefore);
+          result.calls.addAndGet(calls);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          done.countDown();
+        }
+      }).start();
+    }
+    start.countDown();
+    done.await();
+    return result;
+  }
+
+  private static long allocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+  private static final class Result {
+    final AtomicLong calls = new AtomicLong();
+    final AtomicLong allocatedBytes = new AtomicLong();
+  }
+}
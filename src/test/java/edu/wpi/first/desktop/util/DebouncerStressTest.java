@@ -0,0 +1,126 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DebouncerStressTest {
+
+  private static final int PRODUCERS = 8;
+
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong lastSeen = new AtomicLong(-1);
+  private final AtomicInteger runs = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger overlaps = new AtomicInteger();
+
+  // For the tests that only check what happens after the calls are made, so they do not have to sleep
+  private final AtomicLong now = new AtomicLong();
+  private final TimingWheel wheel = new TimingWheel(Duration.ofMillis(1), 64, Runnable::run, now::get);
+
+  private void target() {
+    if (running.incrementAndGet() > 1) {
+      overlaps.incrementAndGet();
+    }
+    lastSeen.set(written.get());
+    runs.incrementAndGet();
+    Thread.yield();
+    running.decrementAndGet();
+  }
+
+  @Test
+  void testTrailingEdgeUnderConcurrentCalls() throws InterruptedException {
+    Debouncer debouncer = new Debouncer(this::target, Duration.ofMillis(50), Debouncer.Edge.TRAILING, null, wheel);
+    for (int burst = 0; burst < 5; burst++) {
+      produce(debouncer, 2_000);
+      advance(200);
+      assertEquals(burst + 1, runs.get(), "Each burst should run the target exactly once");
+      assertEquals(written.get(), lastSeen.get(), "The target should see the last write of the burst");
+    }
+    assertEquals(0, overlaps.get(), "Target ran concurrently with itself");
+  }
+
+  @Test
+  void testMaxWaitUnderConcurrentCalls() throws InterruptedException {
+    Debouncer debouncer = new Debouncer(
+        this::target, Duration.ofMillis(10), Debouncer.Edge.BOTH, Duration.ofMillis(50));
+    long end = System.nanoTime() + Duration.ofMillis(300).toNanos();
+    List<Thread> producers = new ArrayList<>();
+    for (int i = 0; i < PRODUCERS; i++) {
+      producers.add(ThreadUtils.makeDaemonThread(() -> {
+        while (System.nanoTime() < end) {
+          written.incrementAndGet();
+          debouncer.run();
+        }
+      }));
+    }
+    producers.forEach(Thread::start);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    // The trailing edge runs once the producers stop
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (lastSeen.get() != written.get() && System.nanoTime() - deadline < 0) {
+      Thread.yield();
+    }
+    assertTrue(runs.get() >= 3, "Target should keep running under continuous calls, but ran " + runs.get());
+    assertEquals(written.get(), lastSeen.get(), "The target should see the last write");
+    assertEquals(0, overlaps.get(), "Target ran concurrently with itself");
+  }
+
+  @Test
+  void testCancelUnderConcurrentCalls() throws InterruptedException {
+    Debouncer debouncer = new Debouncer(this::target, Duration.ofMillis(50), Debouncer.Edge.TRAILING, null, wheel);
+    produce(debouncer, 2_000);
+    debouncer.cancel();
+    advance(200);
+    assertEquals(0, runs.get());
+    produce(debouncer, 100);
+    advance(200);
+    assertEquals(1, runs.get(), "Debouncer should be usable after being cancelled");
+  }
+
+  /**
+   * Advances the clock one millisecond at a time, running any timeouts that expire along the way.
+   */
+  private void advance(long millis) {
+    for (long i = 0; i < millis; i++) {
+      now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+      wheel.advance();
+    }
+  }
+
+  /**
+   * Calls a debouncer from several threads at once, and waits for all the calls to be made.
+   */
+  private void produce(Debouncer debouncer, int callsPerThread) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(PRODUCERS);
+    for (int i = 0; i < PRODUCERS; i++) {
+      ThreadUtils.makeDaemonThread(() -> {
+        try {
+          start.await();
+          for (int call = 0; call < callsPerThread; call++) {
+            written.incrementAndGet();
+            debouncer.run();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          done.countDown();
+        }
+      }).start();
+    }
+    start.countDown();
+    done.await();
+  }
+}
@@ -0,0 +1,152 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DebouncerTest {
+
+  private final AtomicInteger runs = new AtomicInteger();
+
+  // Targets run on the thread advancing the wheel, so the tests control exactly when time passes
+  private final AtomicLong now = new AtomicLong();
+  private final TimingWheel wheel = new TimingWheel(Duration.ofMillis(1), 64, Runnable::run, now::get);
+
+  private Debouncer debouncer(Debouncer.Edge edge, Duration maxWait) {
+    return new Debouncer(runs::incrementAndGet, Duration.ofMillis(50), edge, maxWait, wheel);
+  }
+
+  /**
+   * Advances the clock one millisecond at a time, running any timeouts that expire along the way.
+   */
+  private void advance(long millis) {
+    for (long i = 0; i < millis; i++) {
+      now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+      wheel.advance();
+    }
+  }
+
+  @Test
+  void testTrailingEdge() {
+    Debouncer debouncer = debouncer(Debouncer.Edge.TRAILING, null);
+    debouncer.run();
+    advance(20);
+    debouncer.run();
+    advance(40);
+    assertEquals(0, runs.get(), "Trailing edge should not run until the calls stop");
+    advance(20);
+    assertEquals(1, runs.get());
+    advance(150);
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void testLeadingEdge() {
+    Debouncer debouncer = debouncer(Debouncer.Edge.LEADING, null);
+    debouncer.run();
+    debouncer.run();
+    debouncer.run();
+    assertEquals(1, runs.get(), "Leading edge should run on the first call only");
+    advance(150);
+    assertEquals(1, runs.get(), "Leading edge should not run at the end of a burst");
+  }
+
+  @Test
+  void testBothEdges() {
+    Debouncer debouncer = debouncer(Debouncer.Edge.BOTH, null);
+    debouncer.run();
+    advance(150);
+    assertEquals(1, runs.get(), "A single call should only run the target once");
+    debouncer.run();
+    debouncer.run();
+    assertEquals(2, runs.get());
+    advance(150);
+    assertEquals(3, runs.get());
+  }
+
+  @Test
+  void testMaxWaitUnderContinuousCalls() {
+    Debouncer debouncer = debouncer(Debouncer.Edge.TRAILING, Duration.ofMillis(100));
+    for (int i = 0; i < 100; i++) {
+      debouncer.run();
+      advance(5);
+    }
+    // 500ms of calls with a maximum wait of 100ms; timeouts expire at the end of their tick, so the target runs at
+    // 101, 202, 303, and 404ms
+    assertEquals(4, runs.get(), "The target should run once per maximum wait while calls are made");
+    advance(150);
+    assertEquals(5, runs.get(), "The end of the burst should run the target once more");
+  }
+
+  @Test
+  void testCancel() {
+    Debouncer debouncer = debouncer(Debouncer.Edge.TRAILING, null);
+    debouncer.run();
+    debouncer.cancel();
+    advance(100);
+    assertEquals(0, runs.get());
+    debouncer.run();
+    advance(100);
+    assertEquals(1, runs.get(), "Debouncer should be usable after being cancelled");
+  }
+
+  @Test
+  void testCancelWhileRunning() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    Debouncer[] debouncer = new Debouncer[1];
+    debouncer[0] = new Debouncer(() -> {
+      if (running.incrementAndGet() > 1) {
+        overlaps.incrementAndGet();
+      }
+      if (runs.incrementAndGet() == 1) {
+        // Leading edge targets are run by the executor, which runs them immediately on this thread
+        debouncer[0].cancel();
+        debouncer[0].run();
+      }
+      running.decrementAndGet();
+    }, Duration.ofMillis(50), Debouncer.Edge.LEADING, null, wheel);
+
+    debouncer[0].run();
+    assertEquals(0, overlaps.get(), "Target ran concurrently with itself");
+    assertEquals(2, runs.get(), "A call made while the cancelled target was running should run it again after");
+  }
+
+  @Test
+  void testErrorInTargetDoesNotStopDebouncer() {
+    AssertionError error = new AssertionError("Expected");
+    AtomicReference<Throwable> handled = new AtomicReference<>();
+    Debouncer debouncer = new Debouncer(() -> {
+      if (runs.incrementAndGet() == 1) {
+        throw error;
+      }
+    }, Duration.ofMillis(50), Debouncer.Edge.TRAILING, null, wheel);
+
+    Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+    Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> handled.set(e));
+    try {
+      debouncer.run();
+      advance(100);
+    } finally {
+      Thread.currentThread().setUncaughtExceptionHandler(handler);
+    }
+    assertSame(error, handled.get());
+    debouncer.run();
+    advance(100);
+    assertEquals(2, runs.get(), "Debouncer should still run its target after the target throws an error");
+  }
+
+  @Test
+  void testMaxWaitShorterThanDelay() {
+    assertThrows(IllegalArgumentException.class, () ->
+        new Debouncer(runs::incrementAndGet, Duration.ofMillis(50), Debouncer.Edge.TRAILING, Duration.ofMillis(10)));
+  }
+}
@@ -0,0 +1,81 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FxCoalescingQueueTest {
+
+  private final AtomicInteger pulseRequests = new AtomicInteger();
+  private final List<String> ran = new ArrayList<>();
+
+  private FxCoalescingQueue<String> createQueue(Duration timeBudget) {
+    return new FxCoalescingQueue<>(timeBudget, pulseRequests::incrementAndGet);
+  }
+
+  @Test
+  void testOnlyLatestUpdatePerKeyRuns() {
+    FxCoalescingQueue<String> queue = createQueue(Duration.ofSeconds(1));
+    for (int i = 0; i < 100; i++) {
+      String value = "a" + i;
+      queue.post("a", () -> ran.add(value));
+    }
+    queue.post("b", () -> ran.add("b"));
+    assertEquals(2, queue.getPendingCount());
+    assertFalse(queue.drain(), "All updates should have run");
+    assertEquals(List.of("a99", "b"), ran);
+    assertEquals(1, pulseRequests.get(), "Pulses should only be requested once until the queue is drained");
+  }
+
+  @Test
+  void testTimeBudgetLeavesUpdatesForNextPulse() {
+    FxCoalescingQueue<String> queue = createQueue(Duration.ZERO);
+    queue.post("a", () -> ran.add("a"));
+    queue.post("b", () -> ran.add("b"));
+    queue.post("c", () -> ran.add("c"));
+    assertTrue(queue.drain(), "Only one update should run with no time budget");
+    assertEquals(List.of("a"), ran);
+    queue.post("a", () -> ran.add("a2"));
+    assertTrue(queue.drain());
+    assertTrue(queue.drain());
+    assertFalse(queue.drain());
+    assertEquals(List.of("a", "b", "c", "a2"), ran, "Keys should be drained in the order they were posted");
+  }
+
+  @Test
+  void testRemove() {
+    FxCoalescingQueue<String> queue = createQueue(Duration.ofSeconds(1));
+    queue.post("a", () -> ran.add("a"));
+    queue.post("b", () -> ran.add("b"));
+    assertTrue(queue.remove("a"));
+    assertFalse(queue.remove("a"));
+    assertFalse(queue.drain());
+    assertEquals(List.of("b"), ran);
+  }
+
+  @Test
+  void testExceptionDoesNotStopDrain() {
+    FxCoalescingQueue<String> queue = createQueue(Duration.ofSeconds(1));
+    List<Throwable> errors = new ArrayList<>();
+    Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+    Thread.currentThread().setUncaughtExceptionHandler((thread, error) -> errors.add(error));
+    try {
+      queue.post("a", () -> {
+        throw new IllegalStateException("Expected");
+      });
+      queue.post("b", () -> ran.add("b"));
+      assertFalse(queue.drain());
+    } finally {
+      Thread.currentThread().setUncaughtExceptionHandler(handler);
+    }
+    assertEquals(List.of("b"), ran);
+    assertEquals(1, errors.size());
+  }
+}
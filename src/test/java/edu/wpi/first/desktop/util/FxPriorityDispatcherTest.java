@@ -0,0 +1,106 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FxPriorityDispatcherTest {
+
+  // Stands in for the JavaFX event queue
+  private final Queue<Runnable> fxQueue = new ArrayDeque<>();
+  private final List<String> ran = new ArrayList<>();
+
+  private void runFxQueue() {
+    Runnable next;
+    while ((next = fxQueue.poll()) != null) {
+      next.run();
+    }
+  }
+
+  @Test
+  void testHigherPrioritiesRunFirst() {
+    FxPriorityDispatcher dispatcher = new FxPriorityDispatcher(Duration.ofSeconds(1), fxQueue::add);
+    dispatcher.post(FxPriority.BACKGROUND, () -> ran.add("background 1"));
+    dispatcher.post(FxPriority.NORMAL, () -> ran.add("normal"));
+    dispatcher.post(FxPriority.BACKGROUND, () -> ran.add("background 2"));
+    dispatcher.post(FxPriority.INTERACTIVE, () -> ran.add("interactive"));
+    assertEquals(1, fxQueue.size(), "Only one drain task should be posted");
+    runFxQueue();
+    assertEquals(List.of("interactive", "normal", "background 1", "background 2"), ran);
+  }
+
+  @Test
+  void testTimeBudgetYieldsToEventQueue() {
+    FxPriorityDispatcher dispatcher = new FxPriorityDispatcher(Duration.ZERO, fxQueue::add);
+    dispatcher.post(FxPriority.NORMAL, () -> ran.add("a"));
+    dispatcher.post(FxPriority.NORMAL, () -> ran.add("b"));
+    fxQueue.poll().run();
+    assertEquals(List.of("a"), ran, "Only one task should run with no time budget");
+    // The drain continues at the back of the event queue, so events posted in the meantime get a turn between tasks
+    fxQueue.add(() -> ran.add("input"));
+    dispatcher.post(FxPriority.INTERACTIVE, () -> ran.add("interactive"));
+    runFxQueue();
+    assertEquals(List.of("a", "interactive", "input", "b"), ran);
+  }
+
+  @Test
+  void testDrainIsPostedAgainAfterEmptying() {
+    FxPriorityDispatcher dispatcher = new FxPriorityDispatcher(Duration.ofSeconds(1), fxQueue::add);
+    dispatcher.post(FxPriority.NORMAL, () -> ran.add("a"));
+    runFxQueue();
+    assertTrue(fxQueue.isEmpty());
+    dispatcher.post(FxPriority.NORMAL, () -> ran.add("b"));
+    assertEquals(1, fxQueue.size());
+    runFxQueue();
+    assertEquals(List.of("a", "b"), ran);
+  }
+
+  @Test
+  void testErrorDoesNotStopDispatcher() {
+    FxPriorityDispatcher dispatcher = new FxPriorityDispatcher(Duration.ofSeconds(1), fxQueue::add);
+    List<Throwable> handled = new ArrayList<>();
+    Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+    Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> handled.add(e));
+    try {
+      dispatcher.post(FxPriority.NORMAL, () -> {
+        throw new AssertionError("Expected");
+      });
+      dispatcher.post(FxPriority.NORMAL, () -> ran.add("a"));
+      runFxQueue();
+      dispatcher.post(FxPriority.NORMAL, () -> ran.add("b"));
+      runFxQueue();
+    } finally {
+      Thread.currentThread().setUncaughtExceptionHandler(handler);
+    }
+    assertEquals(1, handled.size());
+    assertEquals(List.of("a", "b"), ran);
+  }
+
+  @Test
+  void testStats() throws InterruptedException {
+    FxPriorityDispatcher dispatcher = new FxPriorityDispatcher(Duration.ofSeconds(1), fxQueue::add);
+    dispatcher.post(FxPriority.BACKGROUND, () -> ran.add("a"));
+    dispatcher.post(FxPriority.BACKGROUND, () -> ran.add("b"));
+    assertEquals(2, dispatcher.getStats(FxPriority.BACKGROUND).getQueueDepth());
+    Thread.sleep(20);
+    runFxQueue();
+
+    FxPriorityDispatcher.LaneStats stats = dispatcher.getStats(FxPriority.BACKGROUND);
+    assertEquals(0, stats.getQueueDepth());
+    assertEquals(2, stats.getCompletedCount());
+    assertTrue(stats.getMaxWait().toMillis() >= 20, "Max wait was " + stats.getMaxWait());
+    assertTrue(stats.getAverageWait().compareTo(stats.getMaxWait()) <= 0);
+    assertEquals(0, dispatcher.getStats(FxPriority.INTERACTIVE).getCompletedCount());
+
+    dispatcher.resetStats();
+    assertEquals(0, dispatcher.getStats(FxPriority.BACKGROUND).getCompletedCount());
+    assertEquals(Duration.ZERO, dispatcher.getStats(FxPriority.BACKGROUND).getAverageWait());
+  }
+}
@@ -0,0 +1,87 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FxTaskTest {
+
+  // Stands in for the JavaFX event queue
+  private final Queue<Runnable> fxQueue = new ArrayDeque<>();
+
+  @Test
+  void testRan() throws InterruptedException {
+    FxTask<String> task = FxTask.submit(() -> "result", fxQueue::add);
+    fxQueue.remove().run();
+    assertEquals(FxTask.Outcome.RAN, task.await(Duration.ZERO));
+    assertEquals("result", task.getResult().join());
+    assertFalse(task.cancel(), "A task that has run cannot be cancelled");
+  }
+
+  @Test
+  void testExceptionIsCapturedInResult() throws InterruptedException {
+    FxTask<String> task = FxTask.submit(() -> {
+      throw new IllegalStateException("Expected");
+    }, fxQueue::add);
+    fxQueue.remove().run();
+    assertEquals(FxTask.Outcome.RAN, task.await(Duration.ZERO));
+    CompletionException e = assertThrows(CompletionException.class, task.getResult()::join);
+    assertEquals(IllegalStateException.class, e.getCause().getClass());
+  }
+
+  @Test
+  void testTimeoutCancelsQueuedTask() throws InterruptedException {
+    AtomicBoolean ran = new AtomicBoolean(false);
+    FxTask<Boolean> task = FxTask.submit(() -> ran.getAndSet(true), fxQueue::add);
+    assertEquals(FxTask.Outcome.TIMED_OUT, task.awaitOrCancel(Duration.ofMillis(20)));
+    assertTrue(task.isCancelled());
+    fxQueue.remove().run();
+    assertFalse(ran.get(), "A cancelled task should not run");
+    assertEquals(FxTask.Outcome.CANCELLED, task.await(Duration.ZERO));
+  }
+
+  @Test
+  void testAwaitLeavesTaskQueued() throws InterruptedException {
+    FxTask<String> task = FxTask.submit(() -> "result", fxQueue::add);
+    assertEquals(FxTask.Outcome.TIMED_OUT, task.await(Duration.ofMillis(10)));
+    fxQueue.remove().run();
+    assertEquals(FxTask.Outcome.RAN, task.await(Duration.ZERO));
+  }
+
+  @Test
+  void testCancellingResultStopsTask() {
+    AtomicBoolean ran = new AtomicBoolean(false);
+    FxTask<Boolean> task = FxTask.submit(() -> ran.getAndSet(true), fxQueue::add);
+    task.getResult().cancel(false);
+    fxQueue.remove().run();
+    assertFalse(ran.get());
+  }
+
+  @Test
+  void testInterruptCancelsQueuedTask() throws InterruptedException {
+    FxTask<String> task = FxTask.submit(() -> "result", fxQueue::add);
+    AtomicReference<Throwable> thrown = new AtomicReference<>();
+    Thread waiter = new Thread(() -> {
+      try {
+        task.awaitOrCancel(Duration.ofMinutes(1));
+      } catch (InterruptedException e) {
+        thrown.set(e);
+      }
+    });
+    waiter.start();
+    waiter.interrupt();
+    waiter.join(1000);
+    assertTrue(thrown.get() instanceof InterruptedException);
+    assertTrue(task.isCancelled(), "Task should be cancelled when the waiting thread is interrupted");
+  }
+}
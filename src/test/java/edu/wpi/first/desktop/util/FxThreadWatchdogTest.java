@@ -0,0 +1,144 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FxThreadWatchdogTest {
+
+  // The tests call check() themselves instead of starting the watchdog, so they control exactly when time passes
+  private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+  // Heartbeats posted to the stand-in application thread, run when the tests run them
+  private final Queue<Runnable> fxQueue = new ArrayDeque<>();
+  private final List<FxThreadWatchdog.Stall> stalls = new CopyOnWriteArrayList<>();
+  private FxThreadWatchdog watchdog;
+
+  @BeforeEach
+  void setup() {
+    watchdog = new FxThreadWatchdog(Duration.ofMillis(10), Duration.ofMillis(100), fxQueue::add, now::get);
+    watchdog.addStallListener(stalls::add);
+  }
+
+  /**
+   * Advances the clock by one interval at a time, checking the application thread after each one.
+   */
+  private void advance(FxThreadWatchdog target, long millis) {
+    for (long i = 0; i < millis; i += 10) {
+      now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+      target.check();
+    }
+  }
+
+  private void runFxQueue() {
+    Runnable heartbeat;
+    while ((heartbeat = fxQueue.poll()) != null) {
+      heartbeat.run();
+    }
+  }
+
+  @Test
+  void testNoStallsWhenResponsive() {
+    for (int i = 0; i < 20; i++) {
+      advance(watchdog, 10);
+      now.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+      runFxQueue();
+    }
+    assertEquals(20, watchdog.getHeartbeatCount());
+    assertEquals(Duration.ofMillis(2), watchdog.getLastDelay());
+    assertEquals(0, watchdog.getStallCount());
+    assertTrue(stalls.isEmpty());
+  }
+
+  @Test
+  void testOnlyOneHeartbeatWaits() {
+    advance(watchdog, 50);
+    assertEquals(1, fxQueue.size(), "A blocked application thread should not fill up with heartbeats");
+  }
+
+  @Test
+  void testStallIsReportedOnce() {
+    advance(watchdog, 10);
+    advance(watchdog, 90);
+    assertTrue(stalls.isEmpty(), "Stall reported before the threshold");
+    advance(watchdog, 10);
+    assertEquals(1, stalls.size());
+    assertEquals(Duration.ofMillis(100), stalls.get(0).getDelay());
+    advance(watchdog, 300);
+    assertEquals(1, stalls.size(), "A single stall should be reported once");
+  }
+
+  @Test
+  void testRecoversAfterStall() {
+    advance(watchdog, 10);
+    advance(watchdog, 200);
+    runFxQueue();
+    assertEquals(1, watchdog.getHeartbeatCount());
+    assertEquals(Duration.ofMillis(200), watchdog.getLastDelay());
+
+    for (int i = 0; i < 5; i++) {
+      advance(watchdog, 10);
+      runFxQueue();
+    }
+    assertEquals(6, watchdog.getHeartbeatCount(), "Heartbeats should resume after a stall");
+    assertEquals(1, watchdog.getStallCount());
+
+    advance(watchdog, 10);
+    advance(watchdog, 100);
+    assertEquals(2, watchdog.getStallCount(), "A new stall should be reported after recovering");
+  }
+
+  @Test
+  void testStallHasStackTrace() throws InterruptedException, ExecutionException, TimeoutException {
+    // Stack traces can only be captured from a real thread
+    ExecutorService fxThread = Executors.newSingleThreadExecutor(ThreadUtils::makeDaemonThread);
+    FxThreadWatchdog threadWatchdog =
+        new FxThreadWatchdog(Duration.ofMillis(10), Duration.ofMillis(100), fxThread, now::get);
+    threadWatchdog.addStallListener(stalls::add);
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      // Let one heartbeat run so the watchdog knows which thread to capture
+      advance(threadWatchdog, 10);
+      fxThread.submit(() -> { }).get(1, TimeUnit.SECONDS);
+      assertEquals(1, threadWatchdog.getHeartbeatCount());
+
+      fxThread.execute(() -> blockFxThread(blocked, release));
+      assertTrue(blocked.await(1, TimeUnit.SECONDS));
+      advance(threadWatchdog, 110);
+    } finally {
+      release.countDown();
+      fxThread.shutdown();
+    }
+
+    assertEquals(1, stalls.size());
+    FxThreadWatchdog.Stall stall = stalls.get(0);
+    assertTrue(
+        Arrays.stream(stall.getStackTrace()).anyMatch(e -> e.getMethodName().equals("blockFxThread")),
+        "Stack trace should show where the thread is blocked: " + Arrays.toString(stall.getStackTrace()));
+  }
+
+  private static void blockFxThread(CountDownLatch blocked, CountDownLatch release) {
+    blocked.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShutdownHooksTest {
+
+  @BeforeEach
+  void setUp() {
+    ShutdownHooks.reset();
+    ShutdownHooks.removeAllHooks();
+  }
+
+  @AfterEach
+  void tearDown() {
+    ShutdownHooks.reset();
+    ShutdownHooks.removeAllHooks();
+  }
+
+  @Test
+  void testPhasesRunInOrder() {
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    ShutdownHooks.addHook(ShutdownHooks.Phase.LATE, () -> order.add("late"));
+    ShutdownHooks.addHook(ShutdownHooks.Phase.NORMAL, () -> order.add("normal"));
+    ShutdownHooks.addHook(() -> order.add("sequential"));
+    ShutdownHooks.addHook(ShutdownHooks.Phase.EARLY, () -> order.add("early"));
+
+    ShutdownReport report = ShutdownHooks.runAllHooks(Duration.ofSeconds(1));
+    assertEquals(List.of("early", "sequential", "normal", "late"), order);
+    assertTrue(report.isSuccessful(), report::toString);
+    assertEquals(4, report.getResults().size());
+  }
+
+  @Test
+  void testSequentialHooksRunInOrderOnCallingThread() {
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+    for (int i = 0; i < 5; i++) {
+      String name = "hook " + i;
+      ShutdownHooks.addHook(() -> {
+        order.add(name);
+        threads.add(Thread.currentThread());
+      });
+    }
+
+    ShutdownHooks.runAllHooks(Duration.ofSeconds(1));
+    assertEquals(List.of("hook 0", "hook 1", "hook 2", "hook 3", "hook 4"), order);
+    assertTrue(threads.stream().allMatch(thread -> thread == Thread.currentThread()));
+  }
+
+  @Test
+  void testHooksInPhaseRunInParallel() {
+    // Neither hook can finish unless both are running at the same time
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    ShutdownHooks.Hook hook = () -> {
+      bothStarted.countDown();
+      if (!bothStarted.await(1, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Hooks did not run in parallel");
+      }
+    };
+    ShutdownHooks.addHook(ShutdownHooks.Phase.NORMAL, hook);
+    ShutdownHooks.addHook(ShutdownHooks.Phase.NORMAL, () -> hook.run());
+
+    ShutdownReport report = ShutdownHooks.runAllHooks(Duration.ofSeconds(2));
+    assertTrue(report.isSuccessful(), report::toString);
+  }
+
+  @Test
+  void testSlowHookTimesOut() {
+    AtomicBoolean interrupted = new AtomicBoolean(false);
+    AtomicBoolean lateRan = new AtomicBoolean(false);
+    ShutdownHooks.addHook("Slow", ShutdownHooks.Phase.NORMAL, Duration.ofMillis(50), () -> {
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        interrupted.set(true);
+      }
+    });
+    ShutdownHooks.addHook(ShutdownHooks.Phase.LATE, () -> lateRan.set(true));
+
+    long start = System.nanoTime();
+    ShutdownReport report = ShutdownHooks.runAllHooks(Duration.ofSeconds(5));
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(elapsedMillis < 1000, "Took " + elapsedMillis + "ms");
+    ShutdownReport.HookResult slow = report.getResults().get(0);
+    assertEquals("Slow", slow.getName());
+    assertEquals(ShutdownReport.Status.TIMED_OUT, slow.getStatus());
+    assertTrue(lateRan.get(), "Later phases should still run after a hook times out");
+    waitFor(interrupted);
+    assertTrue(interrupted.get(), "Hooks that time out should be interrupted");
+  }
+
+  @Test
+  void testPhasesAfterDeadlineAreSkipped() {
+    AtomicBoolean lateRan = new AtomicBoolean(false);
+    ShutdownHooks.addHook(ShutdownHooks.Phase.NORMAL, () -> Thread.sleep(10_000));
+    ShutdownHooks.addHook(ShutdownHooks.Phase.LATE, () -> lateRan.set(true));
+
+    ShutdownReport report = ShutdownHooks.runAllHooks(Duration.ofMillis(50));
+    assertEquals(ShutdownReport.Status.TIMED_OUT, report.getResults().get(0).getStatus());
+    assertEquals(ShutdownReport.Status.SKIPPED, report.getResults().get(1).getStatus());
+    assertFalse(lateRan.get());
+    assertTrue(report.getTotalDuration().toMillis() < 1000, report::toString);
+  }
+
+  @Test
+  void testExceptionIsPassedToHandler() {
+    IllegalStateException exception = new IllegalStateException("Expected");
+    AtomicReference<Throwable> handled = new AtomicReference<>();
+    AtomicBoolean otherRan = new AtomicBoolean(false);
+    ShutdownHooks.addHook(() -> {
+      throw exception;
+    });
+    ShutdownHooks.addHook(() -> otherRan.set(true));
+
+    Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+    Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> handled.set(e));
+    try {
+      ShutdownReport report = ShutdownHooks.runAllHooks(Duration.ofSeconds(1));
+      assertEquals(ShutdownReport.Status.FAILED, report.getResults().get(0).getStatus());
+      assertEquals(ShutdownReport.Status.COMPLETED, report.getResults().get(1).getStatus());
+    } finally {
+      Thread.currentThread().setUncaughtExceptionHandler(handler);
+    }
+    assertSame(exception, handled.get());
+    assertTrue(otherRan.get());
+  }
+
+  @Test
+  void testErrorInParallelHookIsReported() {
+    AssertionError error = new AssertionError("Expected");
+    AtomicReference<Throwable> handled = new AtomicReference<>();
+    ShutdownHooks.addHook(ShutdownHooks.Phase.NORMAL, () -> {
+      throw error;
+    });
+
+    Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+    Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> handled.set(e));
+    try {
+      ShutdownReport report = ShutdownHooks.runAllHooks(Duration.ofSeconds(1));
+      assertEquals(ShutdownReport.Status.FAILED, report.getResults().get(0).getStatus());
+    } finally {
+      Thread.currentThread().setUncaughtExceptionHandler(handler);
+    }
+    assertSame(error, handled.get(), "Errors should be passed to the handler of the thread running the hooks");
+  }
+
+  @Test
+  void testInterruptDoesNotCutHooksShort() {
+    AtomicBoolean lateRan = new AtomicBoolean(false);
+    ShutdownHooks.addHook(ShutdownHooks.Phase.NORMAL, () -> Thread.sleep(50));
+    ShutdownHooks.addHook(ShutdownHooks.Phase.LATE, () -> lateRan.set(true));
+
+    Thread.currentThread().interrupt();
+    ShutdownReport report;
+    try {
+      report = ShutdownHooks.runAllHooks(Duration.ofSeconds(1));
+    } finally {
+      assertTrue(Thread.interrupted(), "The interrupt should be restored");
+    }
+    assertTrue(report.isSuccessful(), report::toString);
+    assertTrue(lateRan.get());
+  }
+
+  @Test
+  void testHooksCannotBeAddedWhileRunning() {
+    AtomicBoolean addedRan = new AtomicBoolean(false);
+    ShutdownHooks.addHook(() -> ShutdownHooks.addHook(ShutdownHooks.Phase.LATE, () -> addedRan.set(true)));
+    ShutdownReport report = ShutdownHooks.runAllHooks(Duration.ofSeconds(1));
+    assertEquals(1, report.getResults().size());
+    assertFalse(addedRan.get());
+  }
+
+  private static void waitFor(AtomicBoolean flag) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (!flag.get() && System.nanoTime() - deadline < 0) {
+      Thread.yield();
+    }
+  }
+}
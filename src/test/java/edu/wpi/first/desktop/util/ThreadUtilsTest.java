@@ -0,0 +1,144 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreadUtilsTest {
+
+  @Test
+  void testNamedDaemonThreadFactory() {
+    ThreadFactory factory = ThreadUtils.namedDaemonThreadFactory("Test");
+    Thread first = factory.newThread(() -> { });
+    Thread second = factory.newThread(() -> { });
+    assertEquals("Test-1", first.getName());
+    assertEquals("Test-2", second.getName());
+    assertTrue(first.isDaemon());
+  }
+
+  @Test
+  void testThreadPoolStats() throws InterruptedException {
+    ExecutorService executor = ThreadUtils.newDaemonThreadPool("ThreadUtilsTest-Pool", 1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(3);
+    executor.execute(() -> {
+      awaitQuietly(release);
+      done.countDown();
+    });
+    executor.execute(done::countDown);
+    executor.execute(done::countDown);
+
+    ExecutorStats stats = stats("ThreadUtilsTest-Pool");
+    assertEquals(2, stats.getQueuedCount());
+    release.countDown();
+    assertTrue(done.await(1, TimeUnit.SECONDS));
+
+    executor.shutdown();
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    assertFalse(find("ThreadUtilsTest-Pool").isPresent(), "Terminated executors should be removed from the registry");
+  }
+
+  @Test
+  void testStatsCountCompletedAndRejectedTasks() throws InterruptedException {
+    ScheduledExecutorService executor = ThreadUtils.newDaemonScheduledExecutorService("ThreadUtilsTest-Scheduled");
+    CountDownLatch done = new CountDownLatch(2);
+    executor.schedule(done::countDown, 1, TimeUnit.MILLISECONDS);
+    executor.execute(done::countDown);
+    assertTrue(done.await(1, TimeUnit.SECONDS));
+
+    // afterExecute runs after the task itself, so the stats may not be updated as soon as the latch is released
+    ExecutorStats stats = stats("ThreadUtilsTest-Scheduled");
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while ((stats.getCompletedCount() < 2 || stats.getActiveCount() > 0) && System.nanoTime() - deadline < 0) {
+      Thread.yield();
+      stats = stats("ThreadUtilsTest-Scheduled");
+    }
+    assertEquals(2, stats.getCompletedCount());
+    assertEquals(0, stats.getRejectedCount());
+    assertEquals(0, stats.getActiveCount());
+
+    executor.shutdown();
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testAbandonedExecutorIsCollected() {
+    // Never used, so it has no threads keeping it alive
+    ThreadUtils.newDaemonThreadPool("ThreadUtilsTest-Abandoned", 1);
+    assertTrue(find("ThreadUtilsTest-Abandoned").isPresent());
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (find("ThreadUtilsTest-Abandoned").isPresent() && System.nanoTime() - deadline < 0) {
+      System.gc();
+      Thread.yield();
+    }
+    assertFalse(find("ThreadUtilsTest-Abandoned").isPresent(), "The registry should not keep executors alive");
+  }
+
+  @Test
+  void testVirtualThreadExecutor() throws InterruptedException {
+    // Works whether or not the runtime supports virtual threads; older runtimes fall back to daemon platform threads
+    ExecutorService executor = ThreadUtils.newVirtualThreadExecutor("ThreadUtilsTest-Virtual");
+    int tasks = 16;
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(tasks);
+    CountDownLatch done = new CountDownLatch(tasks);
+    Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    AtomicBoolean allDaemon = new AtomicBoolean(true);
+    for (int i = 0; i < tasks; i++) {
+      executor.execute(() -> {
+        threadNames.add(Thread.currentThread().getName());
+        if (!Thread.currentThread().isDaemon()) {
+          allDaemon.set(false);
+        }
+        started.countDown();
+        awaitQuietly(release);
+        done.countDown();
+      });
+    }
+    assertTrue(started.await(1, TimeUnit.SECONDS), "Blocked tasks should not stop other tasks from starting");
+    assertEquals(0, stats("ThreadUtilsTest-Virtual").getQueuedCount());
+    release.countDown();
+    assertTrue(done.await(1, TimeUnit.SECONDS));
+
+    assertEquals(tasks, threadNames.size());
+    assertTrue(threadNames.stream().allMatch(name -> name.startsWith("ThreadUtilsTest-Virtual-")),
+        threadNames::toString);
+    assertTrue(allDaemon.get(), "Threads should not keep the JVM alive");
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+  }
+
+  private static ExecutorStats stats(String name) {
+    return find(name).orElseThrow(() -> new AssertionError("No executor named " + name));
+  }
+
+  private static Optional<ExecutorStats> find(String name) {
+    return ThreadUtils.getExecutorStats().stream()
+        .filter(stats -> stats.getName().equals(name))
+        .findFirst();
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
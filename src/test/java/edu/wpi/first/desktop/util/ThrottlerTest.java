@@ -0,0 +1,100 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ThrottlerTest {
+
+  // Targets run on the thread advancing the wheel, so the tests control exactly when time passes
+  private final AtomicLong now = new AtomicLong();
+  private final TimingWheel wheel = new TimingWheel(Duration.ofMillis(1), 64, Runnable::run, now::get);
+
+  private final List<Long> runTimes = new ArrayList<>();
+
+  private void record() {
+    runTimes.add(TimeUnit.NANOSECONDS.toMillis(now.get()));
+  }
+
+  /**
+   * Advances the clock one millisecond at a time, running any timeouts that expire along the way.
+   */
+  private void advance(long millis) {
+    for (long i = 0; i < millis; i++) {
+      now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+      wheel.advance();
+    }
+  }
+
+  @Test
+  void testFirstCallRunsImmediately() {
+    Throttler throttler = new Throttler(this::record, Duration.ofMillis(100), wheel);
+    throttler.run();
+    assertEquals(List.of(0L), runTimes);
+    advance(150);
+    assertEquals(List.of(0L), runTimes, "A single call should only run the target once");
+  }
+
+  @Test
+  void testAtMostOncePerInterval() {
+    Throttler throttler = new Throttler(this::record, Duration.ofMillis(50), wheel);
+    for (int i = 0; i < 200; i++) {
+      throttler.run();
+      advance(2);
+    }
+    advance(150);
+    // Timeouts expire at the end of their tick, so each interval after the first run takes one more millisecond
+    assertEquals(List.of(0L, 51L, 102L, 153L, 204L, 255L, 306L, 357L, 408L), runTimes);
+  }
+
+  @Test
+  void testLastCallIsNotLost() {
+    Throttler throttler = new Throttler(this::record, Duration.ofMillis(50), wheel);
+    throttler.run();
+    throttler.run();
+    advance(20);
+    assertEquals(1, runTimes.size());
+    advance(100);
+    assertEquals(2, runTimes.size(), "The call made during the interval should run at its end");
+  }
+
+  @Test
+  void testCancel() {
+    Throttler throttler = new Throttler(this::record, Duration.ofMillis(50), wheel);
+    throttler.run();
+    throttler.run();
+    throttler.cancel();
+    advance(120);
+    assertEquals(1, runTimes.size());
+  }
+
+  @Test
+  void testSlowTargetDoesNotOverlap() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    Throttler[] throttler = new Throttler[1];
+    throttler[0] = new Throttler(() -> {
+      if (running.incrementAndGet() > 1) {
+        overlaps.incrementAndGet();
+      }
+      record();
+      if (runTimes.size() == 1) {
+        // A call made while the target runs for longer than the interval
+        throttler[0].run();
+        advance(120);
+      }
+      running.decrementAndGet();
+    }, Duration.ofMillis(50), wheel);
+
+    throttler[0].run();
+    assertEquals(0, overlaps.get(), "Target ran concurrently with itself");
+    assertEquals(List.of(0L, 120L), runTimes, "The call made while the target ran should run as soon as it returns");
+  }
+}
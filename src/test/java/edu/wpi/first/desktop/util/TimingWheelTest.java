@@ -0,0 +1,90 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+  private final TimingWheel wheel = new TimingWheel(Duration.ofMillis(1), 8, Runnable::run, "TimingWheelTest");
+
+  // Advanced by the tests instead of by a thread
+  private final AtomicLong now = new AtomicLong();
+  private final TimingWheel manualWheel = new TimingWheel(Duration.ofMillis(1), 8, Runnable::run, now::get);
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    wheel.stop();
+  }
+
+  private void advance(long millis) {
+    for (long i = 0; i < millis; i++) {
+      now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+      manualWheel.advance();
+    }
+  }
+
+  @Test
+  void testTimeoutExpires() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    TimingWheel.Timeout timeout = wheel.schedule(latch::countDown, 5, TimeUnit.MILLISECONDS);
+    assertTrue(latch.await(1, TimeUnit.SECONDS), "Timeout did not expire");
+    assertTrue(timeout.isExpired());
+    assertFalse(timeout.cancel(), "Expired timeouts cannot be cancelled");
+  }
+
+  @Test
+  void testCancelledTimeoutDoesNotRun() {
+    AtomicInteger runs = new AtomicInteger();
+    TimingWheel.Timeout timeout = manualWheel.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+    assertTrue(timeout.cancel());
+    assertTrue(timeout.isCancelled());
+    advance(60);
+    assertEquals(0, runs.get());
+    assertEquals(0, manualWheel.getActiveCount());
+  }
+
+  @Test
+  void testDelayLongerThanOneRevolution() {
+    // 8 buckets of 1ms each; this timeout needs several revolutions of the wheel
+    AtomicInteger runs = new AtomicInteger();
+    manualWheel.schedule(runs::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+    advance(29);
+    assertEquals(0, runs.get(), "Timeout expired early");
+    // Timeouts expire at the end of the tick their deadline is in
+    advance(2);
+    assertEquals(1, runs.get(), "Timeout did not expire");
+  }
+
+  @Test
+  void testManyTimeouts() throws InterruptedException {
+    int count = 10_000;
+    CountDownLatch latch = new CountDownLatch(count);
+    for (int i = 0; i < count; i++) {
+      wheel.schedule(latch::countDown, i % 50, TimeUnit.MILLISECONDS);
+    }
+    assertTrue(latch.await(5, TimeUnit.SECONDS), latch.getCount() + " timeouts did not expire");
+    assertEquals(count, wheel.getExpiredCount());
+  }
+
+  @Test
+  void testDebouncerCoalescesCalls() {
+    AtomicInteger runs = new AtomicInteger();
+    Debouncer debouncer =
+        new Debouncer(runs::incrementAndGet, Duration.ofMillis(50), Debouncer.Edge.TRAILING, null, manualWheel);
+    for (int i = 0; i < 100; i++) {
+      debouncer.run();
+    }
+    advance(250);
+    assertEquals(1, runs.get());
+  }
+}
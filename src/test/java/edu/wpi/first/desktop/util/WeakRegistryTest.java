@@ -0,0 +1,57 @@
+package edu.wpi.first.desktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeakRegistryTest {
+
+  @Test
+  void testAddAndRemove() {
+    WeakRegistry<Object> registry = new WeakRegistry<>();
+    Object target = new Object();
+    assertTrue(registry.add(target), "Target should have been added");
+    assertFalse(registry.add(target), "Target should not be added twice");
+    assertTrue(registry.contains(target));
+    assertEquals(1, registry.getLiveCount());
+    assertTrue(registry.remove(target), "Target should have been removed");
+    assertFalse(registry.contains(target));
+    assertEquals(0, registry.getLiveCount());
+    assertEquals(0, registry.getCollectedCount(), "Removed targets should not count as collected");
+  }
+
+  @Test
+  void testIdentityEquality() {
+    WeakRegistry<String> registry = new WeakRegistry<>();
+    String first = new String("target");
+    String second = new String("target");
+    registry.add(first);
+    assertFalse(registry.contains(second), "Equal but distinct objects should not be considered present");
+    assertTrue(registry.add(second));
+    assertEquals(2, registry.getLiveCount());
+  }
+
+  @Test
+  void testForEachUsesSnapshot() {
+    WeakRegistry<Object> registry = new WeakRegistry<>();
+    Object first = new Object();
+    Object second = new Object();
+    registry.add(first);
+    List<Object> visited = new ArrayList<>();
+    registry.forEach(target -> {
+      visited.add(target);
+      registry.add(second);
+    });
+    assertEquals(List.of(first), visited, "Targets added during iteration should not be visited");
+
+    visited.clear();
+    registry.forEach(visited::add);
+    assertEquals(2, visited.size(), "Snapshot was not refreshed after modification");
+  }
+
+}